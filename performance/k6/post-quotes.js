@@ -8,6 +8,8 @@
 // - Unique Idempotency-Key (UUID v4) per normal request
 // - Small % replay: same Idempotency-Key + same body => expect 200
 // - Small % conflict: same Idempotency-Key + different body => expect 409
+// - Small % concurrent duplicates: a new Idempotency-Key sent twice at once (client retry racing the original)
+//   => expect one 201 and one 200 replay (or 409 IDEMPOTENCY_IN_PROGRESS if the first is still running)
 // - Two scenarios: smoke + load (ramp stages)
 // - Thresholds:
 //     http_req_failed < 1%
@@ -27,6 +29,7 @@
 //   -e DEBUG="true"
 //   -e REPLAY_PCT="2"      (default 2%)
 //   -e CONFLICT_PCT="1"    (default 1%)
+//   -e CONCURRENT_PCT="1"  (default 1%)
 //   -e LOAD_STAGES="10s:5,30s:20,10s:0"  (duration:targetVUs,...)
 //
 // Notes:
@@ -46,6 +49,7 @@ const P95_MS = Number(__ENV.P95_MS || "500");
 
 const REPLAY_PCT = clampInt(Number(__ENV.REPLAY_PCT || "2"), 0, 100);
 const CONFLICT_PCT = clampInt(Number(__ENV.CONFLICT_PCT || "1"), 0, 100);
+const CONCURRENT_PCT = clampInt(Number(__ENV.CONCURRENT_PCT || "1"), 0, 100);
 
 const TEST_MODE = String(__ENV.TEST_MODE || "smoke").toLowerCase(); // "smoke" | "load"
 const LOAD_STAGES = String(__ENV.LOAD_STAGES || "10s:5,30s:20,10s:0");
@@ -55,6 +59,7 @@ const checksRate = new Rate("checks_rate");
 const replayOk = new Rate("idempotency_replay_ok");
 const conflictOk = new Rate("idempotency_conflict_ok");
 const createdOk = new Rate("quote_created_ok");
+const concurrentOk = new Rate("idempotency_concurrent_ok");
 const quotePostDuration = new Trend("quote_post_duration", true);
 
 export const options = {
@@ -84,8 +89,8 @@ const conflictBodyBaseObj = buildQuoteRequest({
 });
 
 export function setup() {
-    if (REPLAY_PCT + CONFLICT_PCT > 100) {
-        throw new Error("REPLAY_PCT + CONFLICT_PCT must be <= 100");
+    if (REPLAY_PCT + CONFLICT_PCT + CONCURRENT_PCT > 100) {
+        throw new Error("REPLAY_PCT + CONFLICT_PCT + CONCURRENT_PCT must be <= 100");
     }
 
     if (DEBUG) {
@@ -98,6 +103,7 @@ export function setup() {
                     p95ms: P95_MS,
                     replayPct: REPLAY_PCT,
                     conflictPct: CONFLICT_PCT,
+                    concurrentPct: CONCURRENT_PCT,
                     loadStages: LOAD_STAGES,
                 },
                 null,
@@ -121,7 +127,13 @@ export default function (data) {
     const url = `${BASE_URL}${ENDPOINT}`;
 
     // Arrange
-    const type = pickRequestType(REPLAY_PCT, CONFLICT_PCT);
+    const type = pickRequestType(REPLAY_PCT, CONFLICT_PCT, CONCURRENT_PCT);
+
+    if (type === "concurrent") {
+        postConcurrentDuplicates(url);
+        sleep(0.2);
+        return;
+    }
 
     let key;
     let body;
@@ -217,6 +229,68 @@ export default function (data) {
     sleep(0.2);
 }
 
+// Same new key and body sent twice in parallel. Exactly one may create; the other must replay the same quote, or
+// report the first as still in progress. Two 201s (or any 5xx) mean the duplicate was computed again.
+function postConcurrentDuplicates(url) {
+    const key = uuidv4Deterministic(__VU, __ITER);
+    const body = JSON.stringify(
+        buildQuoteRequest({
+            seed: deterministicSeed(__VU, __ITER),
+            documentId: `DOC-CC-${padLeft(__VU, 3)}-${padLeft(__ITER, 6)}`,
+            customerId: `CUST-${padLeft(__VU, 3)}`,
+        })
+    );
+    const params = (n) => ({
+        headers: {
+            "Content-Type": "application/json",
+            "Idempotency-Key": key,
+            "X-Correlation-Id": `k6-${padLeft(__VU, 3)}-${padLeft(__ITER, 6)}-cc${n}`,
+        },
+        timeout: "5s",
+        responseCallback: http.expectedStatuses(200, 201, 409),
+    });
+
+    const responses = http.batch([
+        ["POST", url, body, params(1)],
+        ["POST", url, body, params(2)],
+    ]);
+    responses.forEach((r) => quotePostDuration.add(r.timings.duration));
+
+    const statuses = responses.map((r) => r.status).sort();
+    const ids = responses
+        .filter((r) => r.status === 200 || r.status === 201)
+        .map((r) => (safeJson(r) || {}).id);
+
+    const ok = check(responses, {
+        "concurrent: exactly one 201": () => statuses.filter((s) => s === 201).length === 1,
+        "concurrent: duplicate replayed (200) or in progress (409)": () =>
+            statuses.every((s) => s === 200 || s === 201 || s === 409),
+        "concurrent: in-progress 409 uses IDEMPOTENCY_IN_PROGRESS": () =>
+            responses.every((r) => r.status !== 409 || (safeJson(r) || {}).code === "IDEMPOTENCY_IN_PROGRESS"),
+        "concurrent: replay returns the same quote id": () => ids.every((id) => id && id === ids[0]),
+    });
+
+    checksRate.add(ok);
+    concurrentOk.add(ok);
+
+    if (DEBUG && !ok) {
+        console.log(
+            JSON.stringify(
+                {
+                    vu: __VU,
+                    iter: __ITER,
+                    type: "concurrent",
+                    key,
+                    statuses,
+                    bodies: responses.map((r) => truncate(String(r.body || ""), 500)),
+                },
+                null,
+                2
+            )
+        );
+    }
+}
+
 // -------------------- scenarios --------------------
 function buildSmokeScenario() {
     return {
@@ -285,10 +359,11 @@ function buildQuoteRequest({ seed, documentId, customerId }) {
 }
 
 // -------------------- idempotency distribution --------------------
-function pickRequestType(replayPct, conflictPct) {
+function pickRequestType(replayPct, conflictPct, concurrentPct) {
     const x = deterministicMod(__VU, __ITER, 100);
     if (x < replayPct) return "replay";
     if (x < replayPct + conflictPct) return "conflict";
+    if (x < replayPct + conflictPct + concurrentPct) return "concurrent";
     return "normal";
 }
 
@@ -0,0 +1,15 @@
+package cl.sura.suratech.common;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Caps in-flight calls to the annotated method with the named AdaptiveConcurrencyLimiter (settings under
+// app.concurrency-limits). Calls over the limit fail fast with ConcurrencyLimitExceededException, like a bulkhead
+// with no wait.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdaptiveConcurrencyLimit {
+    String name();
+}
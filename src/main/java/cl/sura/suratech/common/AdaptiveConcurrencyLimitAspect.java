@@ -0,0 +1,42 @@
+package cl.sura.suratech.common;
+
+import cl.sura.suratech.exception.ConcurrencyLimitExceededException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Innermost advice, where the Resilience4j bulkhead used to sit: retry and circuit breaker wrap it, so every attempt
+// takes its own permit and contributes its own latency sample, and rejections count as circuit-breaker failures.
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AdaptiveConcurrencyLimitAspect {
+
+    private final AdaptiveConcurrencyLimiterRegistry registry;
+
+    public AdaptiveConcurrencyLimitAspect(AdaptiveConcurrencyLimiterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("@annotation(annotation)")
+    public Object limit(ProceedingJoinPoint joinPoint, AdaptiveConcurrencyLimit annotation) throws Throwable {
+        AdaptiveConcurrencyLimiter limiter = registry.limiter(annotation.name());
+        if (!limiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(limiter.name(), limiter.limit());
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            limiter.onFailure();
+            throw ex;
+        }
+        limiter.onSuccess(System.nanoTime() - start);
+        return result;
+    }
+}
@@ -0,0 +1,162 @@
+package cl.sura.suratech.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// AIMD concurrency limit driven by latency. Completed calls are grouped into windows of max(min-window-samples,
+// limit) samples, roughly one round of the whole limit. A window whose average latency exceeds baseline * tolerance
+// multiplies the limit by backoff-ratio; otherwise the limit grows by one, but only if the window actually used at
+// least half of it. The baseline is the lowest window average seen; each slow window also moves it a little towards
+// that window's average, so a backend that stays slow even at a reduced limit (permanently slower, not overloaded)
+// is eventually accepted as the new normal, while windows within tolerance never raise it.
+// Failed calls (any exception, as the circuit breaker counts them: timeouts, 5xx, load shedding) are a congestion
+// signal. They count towards the window but not its average, where fast failures would drag it down, and a window
+// with any failure backs off like a slow one: once per window, not per failure, so a burst of failures within one
+// round does not collapse the limit straight to min-limit.
+// Calls over the limit are rejected, never queued.
+public class AdaptiveConcurrencyLimiter {
+
+    public static final String METRIC_PREFIX = "client.concurrency";
+
+    // Share of the gap to a slow window's average that the baseline moves per such window.
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final String name;
+    private final Settings settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter dropped;
+    private volatile int limit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock.
+    private long windowLatencyNanos;
+    private int windowSamples;
+    private int windowFailures;
+    private int windowMaxInFlight;
+    private double baselineNanos = Double.NaN;
+
+    public AdaptiveConcurrencyLimiter(String name, Settings settings, MeterRegistry meterRegistry) {
+        if (settings.minLimit() < 1 || settings.minLimit() > settings.maxLimit()) {
+            throw new IllegalArgumentException("Invalid limits for '" + name + "': min=" + settings.minLimit()
+                    + " max=" + settings.maxLimit());
+        }
+        this.name = name;
+        this.settings = settings;
+        this.limit = Math.clamp(settings.initialLimit(), settings.minLimit(), settings.maxLimit());
+
+        Gauge.builder(METRIC_PREFIX + ".limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive limit on in-flight calls")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Calls currently holding a permit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".baseline", this, l -> l.baselineSeconds())
+                .description("No-load latency estimate the limiter compares each window against")
+                .tag("name", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.dropped = Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("Calls rejected because the limit was reached")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                dropped.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long latencyNanos) {
+        complete(latencyNanos, false);
+    }
+
+    public void onFailure() {
+        complete(0, true);
+    }
+
+    private void complete(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        lock.lock();
+        try {
+            if (failed) {
+                windowFailures++;
+            } else {
+                windowLatencyNanos += latencyNanos;
+            }
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+            if (windowSamples >= Math.max(settings.minWindowSamples(), limit)) {
+                int succeeded = windowSamples - windowFailures;
+                adjust(succeeded == 0 ? Double.NaN : (double) windowLatencyNanos / succeeded,
+                        windowFailures > 0, windowMaxInFlight);
+                windowLatencyNanos = 0;
+                windowSamples = 0;
+                windowFailures = 0;
+                windowMaxInFlight = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void adjust(double averageNanos, boolean failed, int maxInFlight) {
+        int current = limit;
+        if (failed) {
+            // The successes of a window with failures are not a clean latency sample; leave the baseline alone.
+            limit = Math.max(settings.minLimit(), (int) (current * settings.backoffRatio()));
+            return;
+        }
+        if (Double.isNaN(baselineNanos) || averageNanos < baselineNanos) {
+            baselineNanos = averageNanos;
+        }
+
+        if (averageNanos > baselineNanos * settings.tolerance()) {
+            baselineNanos += (averageNanos - baselineNanos) * BASELINE_DRIFT;
+            limit = Math.max(settings.minLimit(), (int) (current * settings.backoffRatio()));
+        } else if (maxInFlight * 2 >= current) {
+            limit = Math.min(settings.maxLimit(), current + 1);
+        }
+    }
+
+    private double baselineSeconds() {
+        lock.lock();
+        try {
+            return Double.isNaN(baselineNanos) ? 0 : baselineNanos / 1e9;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record Settings(int initialLimit,
+                           int minLimit,
+                           int maxLimit,
+                           double tolerance,
+                           double backoffRatio,
+                           int minWindowSamples) {}
+}
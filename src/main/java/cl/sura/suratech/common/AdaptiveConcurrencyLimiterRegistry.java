@@ -0,0 +1,44 @@
+package cl.sura.suratech.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One limiter per name, created on first use. Each setting is read from app.concurrency-limits.instances.<name>,
+// falling back to app.concurrency-limits.default and then to the values below.
+@Component
+public class AdaptiveConcurrencyLimiterRegistry {
+
+    private static final String PREFIX = "app.concurrency-limits.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimiterRegistry(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public AdaptiveConcurrencyLimiter limiter(String name) {
+        return limiters.computeIfAbsent(name, n -> new AdaptiveConcurrencyLimiter(n, settings(n), meterRegistry));
+    }
+
+    private AdaptiveConcurrencyLimiter.Settings settings(String name) {
+        return new AdaptiveConcurrencyLimiter.Settings(
+                setting(name, "initial-limit", Integer.class, 50),
+                setting(name, "min-limit", Integer.class, 5),
+                setting(name, "max-limit", Integer.class, 200),
+                setting(name, "tolerance", Double.class, 1.5),
+                setting(name, "backoff-ratio", Double.class, 0.8),
+                setting(name, "min-window-samples", Integer.class, 10));
+    }
+
+    private <T> T setting(String name, String key, Class<T> type, T fallback) {
+        T value = environment.getProperty(PREFIX + "instances." + name + "." + key, type);
+        return value != null ? value : environment.getProperty(PREFIX + "default." + key, type, fallback);
+    }
+}
@@ -0,0 +1,53 @@
+package cl.sura.suratech.common;
+
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Cluster-wide mutual exclusion for background jobs using MySQL named locks (GET_LOCK). The lock lives on a
+// dedicated connection for the duration of the job, and MySQL drops it automatically if that session dies.
+@Component
+public class ClusterJobLock {
+
+    private final DataSource dataSource;
+
+    public ClusterJobLock(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean runExclusively(String lockName, Runnable job) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!acquire(connection, lockName)) {
+                return false;
+            }
+            try {
+                job.run();
+                return true;
+            } finally {
+                release(connection, lockName);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cluster job lock failed: " + lockName, e);
+        }
+    }
+
+    private static boolean acquire(Connection connection, String lockName) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            ps.setString(1, lockName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void release(Connection connection, String lockName) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, lockName);
+            ps.execute();
+        }
+    }
+}
@@ -7,4 +7,5 @@ public class Constants {
     public static final String HDR_REQUEST_ID = "X-Request-Id";
     public static final String MDC_REQUEST_ID = "requestId";
     public static final String MDC_IDEMPOTENCY_KEY = "idempotencyKey";
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
 }
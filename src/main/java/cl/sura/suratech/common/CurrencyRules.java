@@ -0,0 +1,54 @@
+package cl.sura.suratech.common;
+
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// How amounts in one currency are held as long minor units: the number of decimals (ISO 4217 minor unit, e.g. 0 for
+// CLP, 2 for USD) and the rounding applied whenever a result has more precision than that (tax, converted inputs).
+public record CurrencyRules(String code, int scale, long factor, RoundingMode rounding) {
+
+    // Banker's rounding unless the currency's tax authority says otherwise: it does not drift when many rounded lines
+    // are summed. Chile (SII) rounds IVA half up to the whole peso.
+    private static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+    private static final Map<String, RoundingMode> ROUNDING = Map.of(
+            "CLP", RoundingMode.HALF_UP,
+            "CLF", RoundingMode.HALF_UP
+    );
+
+    private static final Map<String, CurrencyRules> CACHE = new ConcurrentHashMap<>();
+
+    public CurrencyRules {
+        if (scale < 0 || scale > 6) {
+            throw new IllegalArgumentException("Unsupported scale " + scale + " for " + code);
+        }
+    }
+
+    // Whether of(code) can resolve the code. Checked at the request boundary: an unknown code reaching the pricing
+    // client would fail inside its retry and circuit breaker, counting against the backend for every caller.
+    public static boolean isKnown(String code) {
+        if (CACHE.containsKey(code)) return true;
+        try {
+            Currency.getInstance(code);
+            return true;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    public static CurrencyRules of(String code) {
+        return CACHE.computeIfAbsent(code, CurrencyRules::resolve);
+    }
+
+    private static CurrencyRules resolve(String code) {
+        int digits = Currency.getInstance(code).getDefaultFractionDigits();
+        // Pseudo-currencies (XAU, XXX...) have no minor unit; price them in hundredths.
+        int scale = digits < 0 ? 2 : digits;
+        long factor = 1;
+        for (int i = 0; i < scale; i++) {
+            factor *= 10;
+        }
+        return new CurrencyRules(code, scale, factor, ROUNDING.getOrDefault(code, DEFAULT_ROUNDING));
+    }
+}
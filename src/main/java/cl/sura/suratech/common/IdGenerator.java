@@ -0,0 +1,7 @@
+package cl.sura.suratech.common;
+
+import java.util.UUID;
+
+public interface IdGenerator {
+    UUID next();
+}
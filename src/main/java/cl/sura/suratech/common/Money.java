@@ -0,0 +1,114 @@
+package cl.sura.suratech.common;
+
+import java.math.RoundingMode;
+
+// Fixed-point money: amounts are non-negative longs in minor units of a CurrencyRules (e.g. cents), tax rates are
+// longs in parts per million. Every operation is exact or rounds once with the currency's mode, and the array
+// kernels work over caller-owned primitive arrays without allocating.
+public final class Money {
+
+    public static final long RATE_SCALE = 1_000_000L;
+
+    // A scaled double within a few ulps of an integer (or of a .5 tie) is taken to be exactly that: 19.99 * 100 is
+    // 1998.9999999999998, which must become 1999, not be rounded down as sub-minor input.
+    private static final int TOLERANCE_ULPS = 16;
+    private static final double MIN_TOLERANCE = 1e-9;
+
+    private Money() {}
+
+    public static long toMinor(double major, CurrencyRules currency) {
+        return fromScaled(major * currency.factor(), currency.rounding());
+    }
+
+    public static long toRatePpm(double rate) {
+        return fromScaled(rate * RATE_SCALE, RoundingMode.HALF_EVEN);
+    }
+
+    // The closest double to the exact decimal amount, so it prints as that decimal in JSON.
+    public static double toMajor(long minor, CurrencyRules currency) {
+        return currency.factor() == 1 ? (double) minor : (double) minor / currency.factor();
+    }
+
+    public static double toRate(long ratePpm) {
+        return (double) ratePpm / RATE_SCALE;
+    }
+
+    public static long line(int quantity, long unitPriceMinor) {
+        return Math.multiplyExact((long) quantity, unitPriceMinor);
+    }
+
+    public static long tax(long amountMinor, long ratePpm, RoundingMode rounding) {
+        requireNonNegative(amountMinor);
+        requireNonNegative(ratePpm);
+        // amount * rate can exceed 63 bits; split amount so only the sub-RATE_SCALE remainder needs rounding.
+        long whole = amountMinor / RATE_SCALE;
+        long rest = amountMinor % RATE_SCALE;
+        return Math.addExact(Math.multiplyExact(whole, ratePpm), divide(Math.multiplyExact(rest, ratePpm), RATE_SCALE, rounding));
+    }
+
+    // Non-negative numerator, positive denominator, one rounding step.
+    public static long divide(long numerator, long denominator, RoundingMode rounding) {
+        requireNonNegative(numerator);
+        long q = numerator / denominator;
+        long r = numerator % denominator;
+        if (r == 0) return q;
+
+        long half = denominator - r; // compare r with den/2 as r vs den - r, without overflow
+        return switch (rounding) {
+            case DOWN, FLOOR -> q;
+            case UP, CEILING -> q + 1;
+            case HALF_UP -> r >= half ? q + 1 : q;
+            case HALF_DOWN -> r > half ? q + 1 : q;
+            case HALF_EVEN -> r > half || (r == half && (q & 1) == 1) ? q + 1 : q;
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary: " + numerator + "/" + denominator);
+        };
+    }
+
+    public static void lines(int[] quantities, long[] unitPricesMinor, long[] lineTotalsMinor, int count) {
+        for (int i = 0; i < count; i++) {
+            lineTotalsMinor[i] = line(quantities[i], unitPricesMinor[i]);
+        }
+    }
+
+    public static void taxes(long[] lineTotalsMinor, long[] ratesPpm, long[] taxAmountsMinor, int count,
+                             RoundingMode rounding) {
+        for (int i = 0; i < count; i++) {
+            taxAmountsMinor[i] = tax(lineTotalsMinor[i], ratesPpm[i], rounding);
+        }
+    }
+
+    public static long sum(long[] amountsMinor, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total = Math.addExact(total, amountsMinor[i]);
+        }
+        return total;
+    }
+
+    private static long fromScaled(double scaled, RoundingMode rounding) {
+        if (!(scaled >= 0) || scaled >= Long.MAX_VALUE) {
+            throw new IllegalArgumentException("Amount out of range: " + scaled);
+        }
+        double tolerance = Math.max(MIN_TOLERANCE, TOLERANCE_ULPS * Math.ulp(scaled));
+        double nearest = Math.rint(scaled);
+        if (Math.abs(scaled - nearest) <= tolerance) return (long) nearest;
+
+        long floor = (long) scaled;
+        double fraction = scaled - floor;
+        boolean tie = Math.abs(fraction - 0.5) <= tolerance;
+        return switch (rounding) {
+            case DOWN, FLOOR -> floor;
+            case UP, CEILING -> floor + 1;
+            case HALF_UP -> tie || fraction > 0.5 ? floor + 1 : floor;
+            case HALF_DOWN -> !tie && fraction > 0.5 ? floor + 1 : floor;
+            case HALF_EVEN -> tie ? floor + (floor & 1) : fraction > 0.5 ? floor + 1 : floor;
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary: " + scaled);
+        };
+    }
+
+    private static void requireNonNegative(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative amount: " + value);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cl.sura.suratech.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+@Component
+public class TransactionStages {
+
+    public static final String METRIC_NAME = "quotes.pipeline.stage";
+
+    private final TransactionTemplate readWrite;
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry meterRegistry;
+
+    public TransactionStages(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readWrite = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T inTransaction(String stage, Supplier<T> work) {
+        return timer(stage, true).record(() -> readWrite.execute(status -> work.get()));
+    }
+
+    public <T> T inReadOnlyTransaction(String stage, Supplier<T> work) {
+        return timer(stage, true).record(() -> readOnly.execute(status -> work.get()));
+    }
+
+    public <T> T withoutTransaction(String stage, Supplier<T> work) {
+        // A caller-owned transaction still pins its connection, so report it honestly instead of assuming "none".
+        boolean held = TransactionSynchronizationManager.isActualTransactionActive();
+        return timer(stage, held).record(work);
+    }
+
+    private Timer timer(String stage, boolean connectionHeld) {
+        return Timer.builder(METRIC_NAME)
+                .description("Duration of each write pipeline stage, tagged by whether a DB connection was held")
+                .tag("stage", stage)
+                .tag("connection", connectionHeld ? "held" : "none")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,17 @@
+package cl.sura.suratech.common.impl;
+
+import cl.sura.suratech.common.IdGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "app.ids.strategy", havingValue = "random")
+public class RandomUuidIdGenerator implements IdGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
@@ -1,16 +1,27 @@
 package cl.sura.suratech.controller;
 
+import cl.sura.suratech.dto.BulkQuoteCreateRequest;
+import cl.sura.suratech.dto.BulkQuoteCreateResponse;
+import cl.sura.suratech.dto.LatestQuotesByDocumentRequest;
+import cl.sura.suratech.dto.LatestQuotesByDocumentResponse;
 import cl.sura.suratech.dto.QuoteCreateRequest;
-import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.exception.InvalidQueryParameterException;
 import cl.sura.suratech.service.IdempotencyService;
 import cl.sura.suratech.service.QuoteApplicationService;
+import cl.sura.suratech.service.QuoteExportService;
+import cl.sura.suratech.service.QuoteLookupService;
 import jakarta.validation.Valid;
 import org.slf4j.MDC;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import static cl.sura.suratech.common.Constants.*;
 
 import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
@@ -19,15 +30,59 @@ public class QuotesController {
 
     private final QuoteApplicationService quoteService;
     private final IdempotencyService idempotencyService;
+    private final QuoteLookupService quoteLookupService;
+    private final QuoteExportService quoteExportService;
 
     public QuotesController(QuoteApplicationService quoteService,
-                            IdempotencyService idempotencyService) {
+                            IdempotencyService idempotencyService,
+                            QuoteLookupService quoteLookupService,
+                            QuoteExportService quoteExportService) {
         this.quoteService = quoteService;
         this.idempotencyService = idempotencyService;
+        this.quoteLookupService = quoteLookupService;
+        this.quoteExportService = quoteExportService;
+    }
+
+    // No `produces`: a rejected filter must still be able to answer with the JSON validation error.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportQuotes(
+            @RequestParam(value = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdFrom,
+            @RequestParam(value = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime createdTo,
+            @RequestParam(value = "documentId", required = false) String documentId
+    ) {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new InvalidQueryParameterException("createdTo", "must be after createdFrom");
+        }
+
+        var filter = new QuoteExportService.ExportFilter(createdFrom, createdTo, documentId);
+        // Written on an async thread straight to the servlet output stream; nothing is buffered per response.
+        StreamingResponseBody body = out -> quoteExportService.exportNdjson(filter, out);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(body);
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getQuote(@PathVariable("id") UUID id, WebRequest webRequest) {
+        var quote = quoteLookupService.getSerializedQuote(id);
+
+        // Matching If-None-Match: the 304 (with ETag) is already written, no body is sent.
+        if (webRequest.checkNotModified(quote.etag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(quote.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(quote.body());
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<QuoteResponse> createQuote(
+    public ResponseEntity<?> createQuote(
             @RequestHeader(HDR_IDEMPOTENCY_KEY) UUID idempotencyKey,
             @RequestHeader(value = HDR_REQUEST_ID, required = false) String requestId,
             @Valid @RequestBody QuoteCreateRequest quoteCreateRequest
@@ -41,7 +96,7 @@ public class QuotesController {
             var resultService = idempotencyService.getOrCompute(
                     idempotencyKey,
                     quoteCreateRequest,
-                    () -> quoteService.createQuote(quoteCreateRequest)
+                    inPersistTransaction -> quoteService.createQuote(quoteCreateRequest, inPersistTransaction)
             );
 
             HttpHeaders headers = new HttpHeaders();
@@ -50,6 +105,11 @@ public class QuotesController {
             if (hasRequestId) headers.add(HDR_REQUEST_ID, requestId);
 
             if (resultService.replayed()) {
+                if (resultService.responseBody() != null) {
+                    return ResponseEntity.ok().headers(headers)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(resultService.responseBody());
+                }
                 return ResponseEntity.ok().headers(headers).body(resultService.quote());
             }
 
@@ -60,4 +120,35 @@ public class QuotesController {
             MDC.remove(MDC_IDEMPOTENCY_KEY);
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public BulkQuoteCreateResponse createQuotes(
+            @RequestHeader(value = HDR_REQUEST_ID, required = false) String requestId,
+            @Valid @RequestBody BulkQuoteCreateRequest bulkRequest
+    ) {
+        boolean hasRequestId = requestId != null && !requestId.isBlank();
+        if (hasRequestId) MDC.put(MDC_REQUEST_ID, requestId);
+
+        try {
+            var results = idempotencyService.getOrComputeBatch(
+                    bulkRequest.entries().stream()
+                            .map(e -> new IdempotencyService.KeyedRequest(e.idempotencyKey(), e.quote()))
+                            .toList(),
+                    quoteService::createQuotes
+            );
+
+            return new BulkQuoteCreateResponse(results.stream()
+                    .map(r -> new BulkQuoteCreateResponse.Result(
+                            r.key(), r.outcome().name().toLowerCase(Locale.ROOT), r.quote(), r.error()))
+                    .toList());
+        } finally {
+            if (hasRequestId) MDC.remove(MDC_REQUEST_ID);
+        }
+    }
+
+    @PostMapping(value = "/latest-by-document",
+            consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public LatestQuotesByDocumentResponse latestByDocument(@Valid @RequestBody LatestQuotesByDocumentRequest request) {
+        return new LatestQuotesByDocumentResponse(quoteLookupService.getLatestByDocumentIds(request.documentIds()));
+    }
+}
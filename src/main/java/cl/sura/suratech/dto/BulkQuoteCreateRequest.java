@@ -0,0 +1,18 @@
+package cl.sura.suratech.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BulkQuoteCreateRequest(
+        @NotEmpty @Size(max = 500) @Valid List<Entry> entries
+) {
+    public record Entry(
+            @NotNull UUID idempotencyKey,
+            @NotNull @Valid QuoteCreateRequest quote
+    ) {}
+}
@@ -0,0 +1,10 @@
+package cl.sura.suratech.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+// One result per request entry, in request order. status: created | replayed | conflict | failed.
+public record BulkQuoteCreateResponse(List<Result> results) {
+
+    public record Result(UUID idempotencyKey, String status, QuoteResponse quote, String error) {}
+}
@@ -0,0 +1,11 @@
+package cl.sura.suratech.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record LatestQuotesByDocumentRequest(
+        @NotEmpty @Size(max = 500) List<@NotBlank @Size(max = 64) String> documentIds
+) {}
@@ -0,0 +1,6 @@
+package cl.sura.suratech.dto;
+
+import java.util.List;
+
+// One entry per requested document that has at least one quote, ordered by documentId.
+public record LatestQuotesByDocumentResponse(List<QuoteResponse> quotes) {}
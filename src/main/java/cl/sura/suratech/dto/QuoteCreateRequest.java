@@ -1,5 +1,6 @@
 package cl.sura.suratech.dto;
 
+import cl.sura.suratech.dto.validation.IsoCurrency;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 
@@ -10,7 +11,7 @@ import java.util.Map;
 public record QuoteCreateRequest(
         @NotBlank @Size(max = 64) String documentId,
         @NotNull @Valid Customer customer,
-        @NotBlank @Pattern(regexp = "^[A-Z]{3}$") String currency,
+        @NotBlank @Pattern(regexp = "^[A-Z]{3}$") @IsoCurrency String currency,
         @NotEmpty @Size(max = 200) @Valid List<Item> items,
         OffsetDateTime expiresAt,
         @Size(max = 50) Map<String, @Size(max = 200) String> metadata
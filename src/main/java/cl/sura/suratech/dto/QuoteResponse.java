@@ -2,7 +2,6 @@ package cl.sura.suratech.dto;
 
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Map;
 
 public record QuoteResponse(
         String id,
@@ -14,7 +13,7 @@ public record QuoteResponse(
         Totals totals,
         OffsetDateTime expiresAt,
         OffsetDateTime createdAt,
-        Map<String, String> metadata
+        RawJson metadata
 ) {
     public record Customer(String id, String email) {}
     public record Item(String sku, String name, int quantity, double unitPrice, double taxRate, double lineTotal, double taxAmount) {}
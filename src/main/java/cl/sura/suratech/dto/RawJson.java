@@ -0,0 +1,40 @@
+package cl.sura.suratech.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+
+// A JSON document carried as text and written to the output verbatim, never parsed into a Map and re-serialized.
+// Only wrap text that is already known to be valid JSON (e.g. a MySQL JSON column, which rejects anything else).
+@JsonSerialize(using = RawJson.Serializer.class)
+@JsonDeserialize(using = RawJson.Deserializer.class)
+public record RawJson(String json) {
+
+    public static final RawJson EMPTY_OBJECT = new RawJson("{}");
+
+    public static RawJson of(String json) {
+        return json == null || json.isBlank() ? EMPTY_OBJECT : new RawJson(json);
+    }
+
+    public static final class Serializer extends JsonSerializer<RawJson> {
+        @Override
+        public void serialize(RawJson value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(value.json());
+        }
+    }
+
+    // Reading is rare (bulk idempotency replays, tests), so a tree round-trip is fine here.
+    public static final class Deserializer extends JsonDeserializer<RawJson> {
+        @Override
+        public RawJson deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            return new RawJson(ctxt.readTree(p).toString());
+        }
+    }
+}
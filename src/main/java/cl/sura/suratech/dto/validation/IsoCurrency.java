@@ -0,0 +1,21 @@
+package cl.sura.suratech.dto.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// An ISO 4217 code the JVM knows (and so CurrencyRules can price). Null is valid; pair with @NotBlank.
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = IsoCurrencyValidator.class)
+public @interface IsoCurrency {
+    String message() default "must be an ISO 4217 currency code";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,13 @@
+package cl.sura.suratech.dto.validation;
+
+import cl.sura.suratech.common.CurrencyRules;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class IsoCurrencyValidator implements ConstraintValidator<IsoCurrency, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || CurrencyRules.isKnown(value);
+    }
+}
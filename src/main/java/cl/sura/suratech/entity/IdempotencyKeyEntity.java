@@ -2,10 +2,18 @@ package cl.sura.suratech.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.time.OffsetDateTime;
 import java.util.UUID;
@@ -13,22 +21,66 @@ import java.util.UUID;
 @Entity
 @Getter
 @Setter
-@Table(name = "idempotency_keys")
-public class IdempotencyKeyEntity {
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "ix_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyKeyEntity implements Persistable<UUID> {
 
     @Id
     @Column(name = "idempotency_key", columnDefinition = "BINARY(16)")
     private UUID idempotencyKey;
 
-    @Column(name = "request_hash", length = 64, nullable = false)
-    private String requestHash;
+    // Nullable to match the upgrade migration: rows written before fingerprints existed have none.
+    @Column(name = "request_fingerprint", columnDefinition = "BINARY(32)")
+    private byte[] requestFingerprint;
 
-    @Column(name = "quote_id", columnDefinition = "BINARY(16)", nullable = false)
+    // Null while the row is a PENDING claim: the quote does not exist until the claimant's persist commits.
+    @Column(name = "quote_id", columnDefinition = "BINARY(16)")
     private UUID quoteId;
 
+    // Null on rows written before claims existed; those are always complete.
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16)
+    private Status status;
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 
     @Column(name = "expires_at", nullable = false)
     private OffsetDateTime expiresAt;
+
+    @Column(name = "response_snapshot", columnDefinition = "MEDIUMBLOB")
+    private byte[] responseSnapshot;
+
+    // Keys are assigned by the client, so without this Spring Data would merge (SELECT first) on every insert and
+    // bulk inserts could not be batched. An expired row is replaced by updating the loaded entity instead.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    public boolean isPending() {
+        return status == Status.PENDING;
+    }
+
+    @Override
+    public UUID getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    public enum Status {
+        PENDING,
+        COMPLETED
+    }
 }
@@ -0,0 +1,59 @@
+package cl.sura.suratech.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// FAILED outbox rows (retries exhausted) moved out of outbox_event for inspection and manual replay.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_event_dead_letter",
+        indexes = @Index(name = "ix_outbox_dead_letter_aggregate", columnList = "aggregate_id"))
+public class OutboxDeadLetterEntity {
+
+    @Id
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
+
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 200)
+    private String eventType;
+
+    @Column(name = "aggregate_type", nullable = false, length = 100)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 100)
+    private String aggregateId;
+
+    @Column(name = "payload", columnDefinition = "MEDIUMBLOB", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "payload_encoding", nullable = false, length = 16)
+    private String payloadEncoding;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Lob
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "dead_lettered_at", nullable = false)
+    private OffsetDateTime deadLetteredAt;
+}
@@ -0,0 +1,54 @@
+package cl.sura.suratech.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// SENT outbox rows moved out of outbox_event by OutboxRetentionJob. Written with INSERT ... SELECT only.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_event_archive",
+        indexes = @Index(name = "ix_outbox_archive_archived_at", columnList = "archived_at"))
+public class OutboxEventArchiveEntity {
+
+    @Id
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
+
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 200)
+    private String eventType;
+
+    @Column(name = "aggregate_type", nullable = false, length = 100)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 100)
+    private String aggregateId;
+
+    @Column(name = "payload", columnDefinition = "MEDIUMBLOB", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "payload_encoding", nullable = false, length = 16)
+    private String payloadEncoding;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private OffsetDateTime archivedAt;
+}
@@ -1,27 +1,29 @@
 package cl.sura.suratech.entity;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
 
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
 @Table(name = "outbox_event",
-        indexes = @Index(name = "idx_outbox_status_next", columnList = "status,nextAttemptAt"),
+        indexes = {
+                @Index(name = "ix_outbox_status_next_created", columnList = "status,nextAttemptAt,createdAt"),
+                @Index(name = "ix_outbox_status_lease", columnList = "status,leaseUntil")
+        },
         uniqueConstraints = @UniqueConstraint(name = "uk_outbox_event_event_id", columnNames = "eventId"))
 public class OutboxEventEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @TimeOrderedId
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
 
     @Column(nullable = false, length = 36)
     private String eventId;
@@ -35,9 +37,12 @@ public class OutboxEventEntity {
     @Column(nullable = false, length = 100)
     private String aggregateId;
 
-    @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "payload_json", columnDefinition = "json", nullable = false)
-    private JsonNode payloadJson;
+    // CloudEvent JSON as UTF-8 bytes, stored as written (see OutboxPayloadCodec for the encoding).
+    @Column(name = "payload", columnDefinition = "MEDIUMBLOB", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "payload_encoding", nullable = false, length = 16)
+    private String payloadEncoding;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 20)
@@ -55,6 +60,12 @@ public class OutboxEventEntity {
     @Lob
     private String lastError;
 
+    // Set while a publisher instance holds the row in PROCESSING; expired leases are returned to NEW.
+    private OffsetDateTime leaseUntil;
+
+    @Column(length = 100)
+    private String leaseOwner;
+
     public enum Status {
         NEW, PROCESSING, SENT, FAILED
     }
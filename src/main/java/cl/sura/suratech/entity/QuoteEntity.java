@@ -1,10 +1,12 @@
 package cl.sura.suratech.entity;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
@@ -15,9 +17,9 @@ import java.util.UUID;
 @Getter
 @Setter
 @Table(name = "quotes", indexes = {
-        @Index(name = "ix_quotes_document_created_desc", columnList = "document_id, created_at")
+        @Index(name = "ix_quotes_doc_created_id", columnList = "document_id, created_at, id")
 })
-public class QuoteEntity {
+public class QuoteEntity implements Persistable<UUID> {
 
     @Id
     @Column(columnDefinition = "BINARY(16)")
@@ -47,6 +49,17 @@ public class QuoteEntity {
     @Column(name = "grand_total", nullable = false)
     private double grandTotal;
 
+    // Exact amounts in minor units of `currency` (see Money); the double columns above are derived from these for
+    // existing readers. Nullable only for rows written before the columns existed (backfilled, see README).
+    @Column(name = "subtotal_minor")
+    private Long subtotalMinor;
+
+    @Column(name = "tax_total_minor")
+    private Long taxTotalMinor;
+
+    @Column(name = "grand_total_minor")
+    private Long grandTotalMinor;
+
     @Column(name = "expires_at")
     private OffsetDateTime expiresAt;
 
@@ -62,4 +75,21 @@ public class QuoteEntity {
 
     @OneToMany(mappedBy = "quote", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<QuoteItemEntity> items = new ArrayList<>();
+
+    // Ids are assigned by the application, so without this Spring Data would merge (SELECT first) on every insert.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.UUID;
+
 @Entity
 @Getter
 @Setter
@@ -13,8 +15,9 @@ import lombok.Setter;
 public class QuoteItemEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @TimeOrderedId
+    @Column(columnDefinition = "BINARY(16)")
+    private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quote_id", nullable = false)
@@ -40,4 +43,17 @@ public class QuoteItemEntity {
 
     @Column(name = "tax_amount", nullable = false)
     private double taxAmount;
+
+    // Exact counterparts of the double columns: minor units of the quote currency, tax rate in parts per million.
+    @Column(name = "unit_price_minor")
+    private Long unitPriceMinor;
+
+    @Column(name = "tax_rate_ppm")
+    private Long taxRatePpm;
+
+    @Column(name = "line_total_minor")
+    private Long lineTotalMinor;
+
+    @Column(name = "tax_amount_minor")
+    private Long taxAmountMinor;
 }
@@ -0,0 +1,17 @@
+package cl.sura.suratech.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// UUIDv7 id assigned in the JVM when the entity is persisted: no AUTO_INCREMENT (which disables JDBC batching) and no
+// id table (whose blocks Hibernate fetches on a second connection while the persist transaction holds the first).
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface TimeOrderedId {
+}
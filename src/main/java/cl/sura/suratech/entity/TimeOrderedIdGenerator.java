@@ -0,0 +1,27 @@
+package cl.sura.suratech.entity;
+
+import cl.sura.suratech.common.impl.UuidV7IdGenerator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+// Always UUIDv7, whatever app.ids.strategy says: item ids are read back in id order as line order, and outbox rows
+// churn too fast for random keys in the clustered index. One generator per JVM keeps ids strictly increasing.
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    private static final UuidV7IdGenerator IDS = new UuidV7IdGenerator();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return IDS.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -1,5 +1,6 @@
 package cl.sura.suratech.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -22,6 +23,32 @@ public class ApiExceptionHandler {
         ));
     }
 
+    // Same key, same body, still being computed (here or on another pod): the retry will replay once it commits.
+    @ExceptionHandler(IdempotencyInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleInProgress(IdempotencyInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "1").body(Map.of(
+            "code", "IDEMPOTENCY_IN_PROGRESS",
+            "message", ex.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(QuoteNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleNotFound(QuoteNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+            "code", "QUOTE_NOT_FOUND",
+            "message", ex.getMessage()
+        ));
+    }
+
+    @ExceptionHandler(InvalidQueryParameterException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidQuery(InvalidQueryParameterException ex) {
+        return ResponseEntity.status(422).body(Map.of(
+            "code", "VALIDATION_ERROR",
+            "message", "Request validation failed.",
+            "fieldErrors", List.of(Map.of("field", ex.getField(), "reason", ex.getMessage()))
+        ));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(MethodArgumentNotValidException ex) {
         List<Map<String, String>> fieldErrors = ex.getBindingResult().getFieldErrors().stream()
@@ -0,0 +1,7 @@
+package cl.sura.suratech.exception;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    public ConcurrencyLimitExceededException(String name, int limit) {
+        super("Concurrency limit reached for '" + name + "' (limit=" + limit + ")");
+    }
+}
@@ -0,0 +1,7 @@
+package cl.sura.suratech.exception;
+
+public class IdempotencyInProgressException extends RuntimeException {
+    public IdempotencyInProgressException(String key) {
+        super("A request with this Idempotency-Key is still being processed; retry shortly. key=" + key);
+    }
+}
@@ -0,0 +1,14 @@
+package cl.sura.suratech.exception;
+
+public class InvalidQueryParameterException extends RuntimeException {
+    private final String field;
+
+    public InvalidQueryParameterException(String field, String reason) {
+        super(reason);
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,9 @@
+package cl.sura.suratech.exception;
+
+import java.util.UUID;
+
+public class QuoteNotFoundException extends RuntimeException {
+    public QuoteNotFoundException(UUID quoteId) {
+        super("Quote not found: " + quoteId);
+    }
+}
@@ -0,0 +1,149 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
+import cl.sura.suratech.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Publishes outbox events straight after the creating transaction commits. Best effort: anything dropped, failed or
+// lost on shutdown stays NEW and is picked up by OutboxPublisherJob once its grace period (nextAttemptAt) elapses.
+@Component
+@ConditionalOnProperty(name = "app.outbox.dispatch.mode", havingValue = "immediate")
+public class OutboxImmediateDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxImmediateDispatcher.class);
+
+    public static final String COMMIT_TO_PUBLISH_METRIC = "outbox.commit_to_publish";
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxLaneDispatcher laneDispatcher;
+    private final OutboxPayloadCodec payloadCodec;
+    private final BlockingQueue<Dispatch> queue;
+    private final int batchSize;
+    private final long graceMs;
+
+    private final Timer commitToPublish;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxImmediateDispatcher(
+            OutboxEventRepository outboxRepository,
+            OutboxLaneDispatcher laneDispatcher,
+            OutboxPayloadCodec payloadCodec,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.dispatch.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.outbox.poll.batch-size:50}") int batchSize,
+            @Value("${app.outbox.dispatch.grace-ms:10000}") long graceMs
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.laneDispatcher = laneDispatcher;
+        this.payloadCodec = payloadCodec;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.graceMs = graceMs;
+        this.commitToPublish = Timer.builder(COMMIT_TO_PUBLISH_METRIC)
+                .description("Time from outbox transaction commit to successful publish")
+                .tag("path", "immediate")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("outbox.dispatch.dropped")
+                .description("Committed events left to the poller because the dispatch queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.dispatch.failed")
+                .description("Immediate publishes that failed and were left to the poller")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = Thread.ofVirtual().name("outbox-dispatch").start(this::run);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) worker.interrupt();
+    }
+
+    public long graceMs() {
+        return graceMs;
+    }
+
+    // Called from afterCommit on the request thread: never blocks.
+    public void submit(UUID outboxId, String eventId, String aggregateId, byte[] payload, String payloadEncoding) {
+        if (!queue.offer(new Dispatch(outboxId, eventId, aggregateId, payload, payloadEncoding, System.nanoTime()))) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<Dispatch> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                publish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                failed.increment(batch.size());
+                log.warn("outbox.dispatch_failed count={}, leaving to poller", batch.size(), ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void publish(List<Dispatch> batch) {
+        Map<String, Dispatch> byEventId = batch.stream()
+                .collect(Collectors.toMap(Dispatch::eventId, Function.identity()));
+
+        List<QuoteIssuedPublisher.PublishResult> results = laneDispatcher.publish(batch.stream()
+                .map(d -> new QuoteIssuedPublisher.OutboundEvent(
+                        d.eventId(), d.aggregateId(), payloadCodec.decode(d.payload(), d.payloadEncoding())))
+                .toList());
+
+        long publishedAt = System.nanoTime();
+        List<UUID> sentIds = new ArrayList<>(results.size());
+        for (QuoteIssuedPublisher.PublishResult r : results) {
+            Dispatch d = byEventId.get(r.eventId());
+            if (d == null) continue;
+            if (r.isSent()) {
+                sentIds.add(d.outboxId());
+                commitToPublish.record(publishedAt - d.committedAtNanos(), TimeUnit.NANOSECONDS);
+            } else {
+                failed.increment();
+                log.warn("outbox.dispatch_failed eventId={}, leaving to poller", r.eventId(), r.error());
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSentIfNew(sentIds);
+        }
+    }
+
+    record Dispatch(UUID outboxId, String eventId, String aggregateId, byte[] payload, String payloadEncoding,
+                    long committedAtNanos) {}
+}
@@ -0,0 +1,217 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.OutboundEvent;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.PublishResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Splits a batch into lanes by aggregateId hash and publishes the lanes concurrently on virtual threads. Events of
+// one aggregate always land in the same lane, in their original order, so per-quote ordering holds while different
+// quotes go out in parallel. Concurrency is bounded by the lane count.
+// Pipelined publishers use the same lanes without blocking the caller: each lane's send is chained after that lane's
+// previous one, across calls, so a later claim can never overtake an earlier one for the same aggregate.
+@Component
+public class OutboxLaneDispatcher {
+
+    private final QuoteIssuedPublisher publisher;
+    private final int lanes;
+
+    private final AtomicInteger busyLanes = new AtomicInteger();
+    private final Timer publishLatency;
+
+    // Pipelined path: the last send queued on each lane, and events queued behind them (claimed, not yet handed to
+    // the publisher, so not yet counted in its in-flight window).
+    private final ReentrantLock laneLock = new ReentrantLock();
+    private final CompletableFuture<?>[] laneTails;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final ExecutorService laneExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OutboxLaneDispatcher(QuoteIssuedPublisher publisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.outbox.publish.lanes:4}") int lanes) {
+        if (lanes < 1) {
+            throw new IllegalArgumentException("app.outbox.publish.lanes must be >= 1");
+        }
+        this.publisher = publisher;
+        this.lanes = lanes;
+        this.laneTails = new CompletableFuture<?>[lanes];
+        for (int i = 0; i < lanes; i++) {
+            laneTails[i] = CompletableFuture.completedFuture(null);
+        }
+        Gauge.builder("outbox.publish.lanes.busy", busyLanes, AtomicInteger::get)
+                .description("Publish lanes currently sending")
+                .register(meterRegistry);
+        Gauge.builder("outbox.publish.lanes.configured", () -> lanes)
+                .description("Configured publish lanes; busy / configured is lane utilization")
+                .register(meterRegistry);
+        this.publishLatency = Timer.builder("outbox.publish.latency")
+                .description("Per-event publish latency (duration of the lane send that carried the event)")
+                .register(meterRegistry);
+    }
+
+    public boolean isPipelined() {
+        return publisher.isPipelined();
+    }
+
+    public int availableCapacity() {
+        if (!publisher.isPipelined()) {
+            return publisher.availableCapacity();
+        }
+        return Math.max(0, publisher.availableCapacity() - queued.get());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        laneExecutor.shutdown();
+    }
+
+    // Blocking publishers go through the lanes and complete before this returns. Pipelined ones return at once: each
+    // lane is handed to the publisher when its previous send on that lane has completed (on a virtual thread, never
+    // on the broker's callback thread), so lanes overlap while every aggregate's events stay in order.
+    public CompletableFuture<List<PublishResult>> publishAsync(List<OutboundEvent> events) {
+        if (!publisher.isPipelined()) {
+            return CompletableFuture.completedFuture(publish(events));
+        }
+
+        List<List<OutboundEvent>> byLane = byLane(events);
+        List<CompletableFuture<List<PublishResult>>> sends = new ArrayList<>();
+        laneLock.lock();
+        try {
+            for (int i = 0; i < lanes; i++) {
+                List<OutboundEvent> lane = byLane.get(i);
+                if (lane.isEmpty()) continue;
+                queued.addAndGet(lane.size());
+                CompletableFuture<List<PublishResult>> send = laneTails[i]
+                        .handle((previous, ex) -> null)
+                        .thenComposeAsync(ignored -> {
+                            queued.addAndGet(-lane.size());
+                            return publishLaneAsync(lane);
+                        }, laneExecutor);
+                laneTails[i] = send;
+                sends.add(send);
+            }
+        } finally {
+            laneLock.unlock();
+        }
+
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).thenApply(v -> {
+            List<PublishResult> results = new ArrayList<>(events.size());
+            for (CompletableFuture<List<PublishResult>> send : sends) {
+                results.addAll(send.join());
+            }
+            return results;
+        });
+    }
+
+    public List<PublishResult> publish(List<OutboundEvent> events) {
+        List<List<OutboundEvent>> partitions = partition(events);
+        if (partitions.size() == 1) {
+            return publishLane(partitions.get(0));
+        }
+
+        List<PublishResult> results = new ArrayList<>(events.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<PublishResult>>> futures = new ArrayList<>(partitions.size());
+            for (List<OutboundEvent> lane : partitions) {
+                futures.add(executor.submit(() -> publishLane(lane)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                results.addAll(await(futures.get(i), partitions.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private List<List<OutboundEvent>> partition(List<OutboundEvent> events) {
+        List<List<OutboundEvent>> byLane = byLane(events);
+        byLane.removeIf(List::isEmpty);
+        return byLane.isEmpty() ? List.of(List.of()) : byLane;
+    }
+
+    // One list per lane, indexed by lane, empty lanes included.
+    private List<List<OutboundEvent>> byLane(List<OutboundEvent> events) {
+        List<List<OutboundEvent>> byLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (OutboundEvent e : events) {
+            byLane.get(laneOf(e.quoteId())).add(e);
+        }
+        return byLane;
+    }
+
+    int laneOf(String aggregateId) {
+        return Math.floorMod(aggregateId == null ? 0 : aggregateId.hashCode(), lanes);
+    }
+
+    // A lane that throws fails only its own events; the other lanes' results stand.
+    private List<PublishResult> publishLane(List<OutboundEvent> lane) {
+        if (lane.isEmpty()) return List.of();
+
+        busyLanes.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return publisher.publishBatch(lane);
+        } catch (Exception ex) {
+            return lane.stream().map(e -> PublishResult.failed(e.eventId(), ex)).toList();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            busyLanes.decrementAndGet();
+            for (int i = 0; i < lane.size(); i++) {
+                publishLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Never completes exceptionally: a failed send fails only this lane's events, and the lane's next send still runs.
+    private CompletableFuture<List<PublishResult>> publishLaneAsync(List<OutboundEvent> lane) {
+        busyLanes.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<List<PublishResult>> sent;
+        try {
+            sent = publisher.publishBatchAsync(lane);
+        } catch (Exception ex) {
+            sent = CompletableFuture.failedFuture(ex);
+        }
+        return sent.handle((results, ex) -> {
+            long elapsed = System.nanoTime() - start;
+            busyLanes.decrementAndGet();
+            for (int i = 0; i < lane.size(); i++) {
+                publishLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+            if (ex == null) return results;
+            Exception cause = ex instanceof CompletionException && ex.getCause() instanceof Exception c ? c
+                    : ex instanceof Exception e ? e : new IllegalStateException(ex);
+            return lane.stream().map(e -> PublishResult.failed(e.eventId(), cause)).toList();
+        });
+    }
+
+    private static List<PublishResult> await(Future<List<PublishResult>> future, List<OutboundEvent> lane) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return lane.stream().map(ev -> PublishResult.failed(ev.eventId(), e)).toList();
+        } catch (ExecutionException e) {
+            Exception cause = e.getCause() instanceof Exception ex ? ex : e;
+            return lane.stream().map(ev -> PublishResult.failed(ev.eventId(), cause)).toList();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.entity.OutboxEventEntity;
+import cl.sura.suratech.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Claim -> publish -> acknowledge. Claim and acknowledge are short transactions of their own; the publish between
+// them runs with no transaction or row lock held. A claimed row carries lease_owner/lease_until, and acknowledgements
+// only apply while this instance still owns the row, so a reaped-and-reclaimed row is never overwritten.
+@Component
+public class OutboxLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxLeaseService.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean skipLocked;
+    private final long leaseMs;
+    private final String owner;
+
+    private final Counter reaped;
+    private final Counter lost;
+
+    public OutboxLeaseService(
+            OutboxEventRepository outboxRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.claim.mode:skip-locked}") String claimMode,
+            @Value("${app.outbox.lease.duration-ms:60000}") long leaseMs,
+            @Value("${app.outbox.lease.owner:${HOSTNAME:local}}") String ownerPrefix
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.skipLocked = "skip-locked".equals(claimMode);
+        this.leaseMs = leaseMs;
+        // Unique per process so a restarted pod with the same hostname cannot acknowledge its predecessor's leases.
+        this.owner = ownerPrefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.reaped = Counter.builder("outbox.lease.reaped")
+                .description("Expired outbox leases returned to NEW")
+                .register(meterRegistry);
+        this.lost = Counter.builder("outbox.lease.lost")
+                .description("Acknowledgements ignored because the lease had expired and been reclaimed")
+                .register(meterRegistry);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    public List<OutboxEventEntity> claim(int batchSize) {
+        return transactionTemplate.execute(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            List<OutboxEventEntity> batch = skipLocked
+                    ? outboxRepository.claimBatchReadyToProcess(OutboxEventEntity.Status.NEW, now, PageRequest.of(0, batchSize))
+                    : outboxRepository.lockBatchReadyToProcess(OutboxEventEntity.Status.NEW, now, PageRequest.of(0, batchSize));
+
+            OffsetDateTime leaseUntil = now.plusNanos(leaseMs * 1_000_000L);
+            for (OutboxEventEntity e : batch) {
+                e.setStatus(OutboxEventEntity.Status.PROCESSING);
+                e.setLeaseOwner(owner);
+                e.setLeaseUntil(leaseUntil);
+            }
+            return batch;
+        });
+    }
+
+    // Expects each row's outcome already applied in memory: SENT, or NEW/FAILED with attempts/nextAttemptAt/lastError.
+    public void acknowledge(List<OutboxEventEntity> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<UUID> sentIds = new ArrayList<>(batch.size());
+            int applied = 0;
+            for (OutboxEventEntity e : batch) {
+                if (e.getStatus() == OutboxEventEntity.Status.SENT) {
+                    sentIds.add(e.getId());
+                } else {
+                    applied += outboxRepository.acknowledgeFailed(
+                            e.getId(), owner, e.getStatus(), e.getAttempts(), e.getNextAttemptAt(), e.getLastError());
+                }
+            }
+            if (!sentIds.isEmpty()) {
+                applied += outboxRepository.acknowledgeSent(sentIds, owner);
+            }
+
+            int lostLeases = batch.size() - applied;
+            if (lostLeases > 0) {
+                lost.increment(lostLeases);
+                log.warn("outbox.lease_lost owner={} count={} (lease expired before acknowledge; events may be republished)",
+                        owner, lostLeases);
+            }
+        });
+    }
+
+    public int reapExpiredLeases() {
+        int released = outboxRepository.releaseExpiredLeases(OffsetDateTime.now());
+        if (released > 0) {
+            reaped.increment(released);
+            log.warn("outbox.lease_reaped count={}", released);
+        }
+        return released;
+    }
+}
@@ -0,0 +1,59 @@
+package cl.sura.suratech.integration.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Storage encoding of outbox payloads. The payload is the CloudEvent's UTF-8 JSON bytes, optionally gzip-compressed
+// at rest; the bus always receives the plain JSON bytes.
+@Component
+public class OutboxPayloadCodec {
+
+    public static final String IDENTITY = "identity";
+    public static final String GZIP = "gzip";
+
+    private final boolean gzip;
+    private final int gzipMinBytes;
+
+    public OutboxPayloadCodec(@Value("${app.outbox.payload.compression:none}") String compression,
+                              @Value("${app.outbox.payload.gzip-min-bytes:2048}") int gzipMinBytes) {
+        this.gzip = GZIP.equals(compression);
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    public Encoded encode(byte[] json) {
+        if (!gzip || json.length < gzipMinBytes) {
+            return new Encoded(json, IDENTITY);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Encoded(out.toByteArray(), GZIP);
+    }
+
+    // Identity payloads are returned as-is, without a copy.
+    public byte[] decode(byte[] payload, String encoding) {
+        if (encoding == null || IDENTITY.equals(encoding)) {
+            return payload;
+        }
+        if (!GZIP.equals(encoding)) {
+            throw new IllegalArgumentException("Unknown outbox payload encoding: " + encoding);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record Encoded(byte[] bytes, String encoding) {}
+}
@@ -3,19 +3,28 @@ package cl.sura.suratech.integration.outbox;
 import cl.sura.suratech.entity.OutboxEventEntity;
 import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
 import cl.sura.suratech.integration.servicebus.impl.QuoteIssuedPublisherImpl;
-import cl.sura.suratech.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @ConditionalOnProperty(
@@ -27,82 +36,183 @@ public class OutboxPublisherJob {
 
     private static final Logger log = LoggerFactory.getLogger(OutboxPublisherJob.class);
 
-    private final OutboxEventRepository outboxRepository;
-    private final QuoteIssuedPublisher publisher;
+    private final OutboxLeaseService leaseService;
+    private final OutboxLaneDispatcher laneDispatcher;
+    private final OutboxPayloadCodec payloadCodec;
+    private final Timer commitToPublish;
+    private final Counter backpressure;
+    private final ExecutorService acknowledgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     private final int batchSize;
     private final int maxAttempts;
     private final long baseBackoffMs;
     private final boolean enabled;
+    private final long pollDelayMs;
+    private final long maxIdleBackoffMs;
+
+    // Poller-thread state: how long to stay idle after empty polls, and when the next DB poll is due.
+    private long idleBackoffMs;
+    private long nextPollAtMs;
 
     public OutboxPublisherJob(
-            OutboxEventRepository outboxRepository,
-            QuoteIssuedPublisher publisher,
+            OutboxLeaseService leaseService,
+            OutboxLaneDispatcher laneDispatcher,
+            OutboxPayloadCodec payloadCodec,
+            MeterRegistry meterRegistry,
             @Value("${app.outbox.poll.batch-size:50}") int batchSize,
             @Value("${app.outbox.retry.max-attempts:10}") int maxAttempts,
             @Value("${app.outbox.retry.base-backoff-ms:500}") long baseBackoffMs,
-            @Value("${app.outbox.enabled:true}") boolean enabled
+            @Value("${app.outbox.enabled:true}") boolean enabled,
+            @Value("${app.outbox.poll.fixed-delay:1000}") long pollDelayMs,
+            @Value("${app.outbox.poll.max-idle-backoff-ms:30000}") long maxIdleBackoffMs,
+            @Value("${app.outbox.dispatch.mode:poll}") String dispatchMode
     ) {
-        this.outboxRepository = outboxRepository;
-        this.publisher = publisher;
+        this.leaseService = leaseService;
+        this.laneDispatcher = laneDispatcher;
+        this.payloadCodec = payloadCodec;
         this.batchSize = batchSize;
         this.maxAttempts = maxAttempts;
         this.baseBackoffMs = baseBackoffMs;
         this.enabled = enabled;
+        this.commitToPublish = Timer.builder(OutboxImmediateDispatcher.COMMIT_TO_PUBLISH_METRIC)
+                .description("Time from outbox transaction commit to successful publish")
+                .tag("path", "poller")
+                .register(meterRegistry);
+        this.backpressure = Counter.builder("outbox.publish.backpressure")
+                .description("Poller ticks skipped because the publisher's in-flight window was full")
+                .register(meterRegistry);
+        this.pollDelayMs = pollDelayMs;
+        // Idle backoff only when the poller is a safety net; as the primary path it would add latency after idle.
+        this.maxIdleBackoffMs = "immediate".equals(dispatchMode) ? maxIdleBackoffMs : 0L;
     }
 
     @Scheduled(fixedDelayString = "${app.outbox.poll.fixed-delay:1000}")
-    @Transactional
     public void tick() {
-        log.info("Running outbox job...");
         if (!enabled) return;
-        publishBatch();
+        if (System.currentTimeMillis() < nextPollAtMs) return;
+
+        log.info("Running outbox job...");
+        int claimed = publishBatch();
+        int total = claimed;
+        // A pipelined publisher returns before the broker answers: keep claiming full batches until the backlog is
+        // drained or the in-flight window is full, instead of one batch per tick.
+        while (laneDispatcher.isPipelined() && claimed == batchSize) {
+            claimed = publishBatch();
+            total += Math.max(claimed, 0);
+        }
+        if (total >= 0) {
+            adjustIdleBackoff(total);
+        }
     }
 
-    protected void publishBatch() {
-        OffsetDateTime now = OffsetDateTime.now();
+    @PreDestroy
+    void shutdown() {
+        acknowledgeExecutor.shutdown();
+    }
 
-        List<OutboxEventEntity> batch = outboxRepository.lockBatchReadyToProcess(
-                OutboxEventEntity.Status.NEW,
-                now,
-                PageRequest.of(0, batchSize)
-        );
+    @Scheduled(fixedDelayString = "${app.outbox.lease.reap-interval-ms:30000}")
+    public void reapExpiredLeases() {
+        if (!enabled) return;
+        leaseService.reapExpiredLeases();
+    }
 
-        if (batch.isEmpty()) return;
+    private void adjustIdleBackoff(int claimed) {
+        if (claimed > 0 || maxIdleBackoffMs <= 0) {
+            idleBackoffMs = 0;
+        } else {
+            idleBackoffMs = Math.min(Math.max(idleBackoffMs * 2, pollDelayMs), maxIdleBackoffMs);
+        }
+        nextPollAtMs = System.currentTimeMillis() + idleBackoffMs;
+    }
 
-        for (OutboxEventEntity e : batch) {
-            e.setStatus(OutboxEventEntity.Status.PROCESSING);
+    protected int publishBatch() {
+        // Backpressure: never claim more than the publisher can take without exceeding its in-flight window.
+        int capacity = laneDispatcher.availableCapacity();
+        if (capacity <= 0) {
+            backpressure.increment();
+            return -1;
         }
-        outboxRepository.saveAll(batch);
+        List<OutboxEventEntity> batch = leaseService.claim(Math.min(batchSize, capacity));
 
-        for (OutboxEventEntity e : batch) {
-            try {
-                publisher.publishCloudEventJson(
+        if (batch.isEmpty()) return 0;
+
+        // No transaction from here until acknowledge: the claim committed and the lease protects the rows.
+
+        List<QuoteIssuedPublisher.OutboundEvent> outbound = batch.stream()
+                .map(e -> new QuoteIssuedPublisher.OutboundEvent(
                         e.getEventId(),
                         e.getAggregateId(),
-                        e.getPayloadJson().toString()
-                );
+                        payloadCodec.decode(e.getPayload(), e.getPayloadEncoding())
+                ))
+                .toList();
+
+        CompletableFuture<List<QuoteIssuedPublisher.PublishResult>> pending = publishAsync(outbound);
+
+        // Blocking publishers are done already; pipelined ones acknowledge from the completion callback, off the
+        // broker's I/O thread, while the next tick claims more.
+        if (pending.isDone()) {
+            complete(batch, pending);
+        } else {
+            pending.whenCompleteAsync((results, ex) -> complete(batch, pending), acknowledgeExecutor);
+        }
+        return batch.size();
+    }
+
+    private CompletableFuture<List<QuoteIssuedPublisher.PublishResult>> publishAsync(
+            List<QuoteIssuedPublisher.OutboundEvent> outbound) {
+        try {
+            return laneDispatcher.publishAsync(outbound);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private void complete(List<OutboxEventEntity> batch,
+                          CompletableFuture<List<QuoteIssuedPublisher.PublishResult>> pending) {
+        Map<String, QuoteIssuedPublisher.PublishResult> results;
+        try {
+            results = pending.join().stream()
+                    .collect(Collectors.toMap(QuoteIssuedPublisher.PublishResult::eventId, Function.identity()));
+        } catch (Exception ex) {
+            // Could not even open a batch (connection/auth): every claimed event failed this attempt.
+            Exception cause = ex instanceof CompletionException && ex.getCause() instanceof Exception c ? c : ex;
+            for (OutboxEventEntity e : batch) {
+                markFailed(e, cause);
+            }
+            leaseService.acknowledge(batch);
+            return;
+        }
 
+        for (OutboxEventEntity e : batch) {
+            QuoteIssuedPublisher.PublishResult result = results.get(e.getEventId());
+            if (result != null && result.isSent()) {
                 e.setStatus(OutboxEventEntity.Status.SENT);
                 e.setLastError(null);
+                commitToPublish.record(Duration.between(e.getCreatedAt(), OffsetDateTime.now()));
                 log.info("outbox.published eventId={} type={} aggregateId={}", e.getEventId(), e.getEventType(), e.getAggregateId());
-            } catch (Exception ex) {
-                int attempts = e.getAttempts() + 1;
-                e.setAttempts(attempts);
-
-                if (attempts >= maxAttempts) {
-                    e.setStatus(OutboxEventEntity.Status.FAILED);
-                } else {
-                    e.setStatus(OutboxEventEntity.Status.NEW);
-                    e.setNextAttemptAt(OffsetDateTime.now().plusNanos(backoffNanos(attempts)));
-                }
-
-                e.setLastError(safeError(ex));
-                log.warn("outbox.publish_failed eventId={} attempts={} status={}", e.getEventId(), e.getAttempts(), e.getStatus(), ex);
+            } else {
+                markFailed(e, result == null
+                        ? new IllegalStateException("Publisher returned no result for event " + e.getEventId())
+                        : result.error());
             }
         }
 
-        outboxRepository.saveAll(batch);
+        leaseService.acknowledge(batch);
+    }
+
+    private void markFailed(OutboxEventEntity e, Exception ex) {
+        int attempts = e.getAttempts() + 1;
+        e.setAttempts(attempts);
+
+        if (attempts >= maxAttempts) {
+            e.setStatus(OutboxEventEntity.Status.FAILED);
+        } else {
+            e.setStatus(OutboxEventEntity.Status.NEW);
+            e.setNextAttemptAt(OffsetDateTime.now().plusNanos(backoffNanos(attempts)));
+        }
+
+        e.setLastError(safeError(ex));
+        log.warn("outbox.publish_failed eventId={} attempts={} status={}", e.getEventId(), e.getAttempts(), e.getStatus(), ex);
     }
 
     private long backoffNanos(int attempts) {
@@ -0,0 +1,164 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.common.ClusterJobLock;
+import cl.sura.suratech.entity.OutboxEventEntity;
+import cl.sura.suratech.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@ConditionalOnProperty(
+        name = "app.outbox.retention.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class OutboxRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRetentionJob.class);
+
+    static final String LOCK_NAME = "suratech.outbox_event.retention";
+
+    private final OutboxEventRepository outboxRepository;
+    private final ClusterJobLock clusterJobLock;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean archive;
+    private final long sentRetentionHours;
+    private final boolean deadLetter;
+    private final long failedRetentionHours;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMs;
+
+    private final Counter archived;
+    private final Counter deleted;
+    private final Counter deadLettered;
+    private final AtomicLong tableRows = new AtomicLong();
+    private final AtomicLong tableBytes = new AtomicLong();
+
+    public OutboxRetentionJob(
+            OutboxEventRepository outboxRepository,
+            ClusterJobLock clusterJobLock,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.retention.mode:archive}") String mode,
+            @Value("${app.outbox.retention.sent-retention-hours:168}") long sentRetentionHours,
+            @Value("${app.outbox.retention.dead-letter.enabled:true}") boolean deadLetter,
+            @Value("${app.outbox.retention.dead-letter.after-hours:24}") long failedRetentionHours,
+            @Value("${app.outbox.retention.chunk-size:500}") int chunkSize,
+            @Value("${app.outbox.retention.max-chunks-per-run:100}") int maxChunksPerRun,
+            @Value("${app.outbox.retention.pause-ms:50}") long pauseMs
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.clusterJobLock = clusterJobLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archive = "archive".equals(mode);
+        this.sentRetentionHours = sentRetentionHours;
+        this.deadLetter = deadLetter;
+        this.failedRetentionHours = failedRetentionHours;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMs = pauseMs;
+
+        this.archived = rowsCounter(meterRegistry, "archived");
+        this.deleted = rowsCounter(meterRegistry, "deleted");
+        this.deadLettered = rowsCounter(meterRegistry, "dead_lettered");
+        Gauge.builder("outbox.table.rows", tableRows, AtomicLong::get)
+                .description("Estimated rows in outbox_event (InnoDB statistics), refreshed by the retention job")
+                .register(meterRegistry);
+        Gauge.builder("outbox.table.bytes", tableBytes, AtomicLong::get)
+                .description("Data + index size of outbox_event, refreshed by the retention job")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.outbox.retention.fixed-delay:300000}",
+            initialDelayString = "${app.outbox.retention.initial-delay:60000}"
+    )
+    public void tick() {
+        boolean ran = clusterJobLock.runExclusively(LOCK_NAME, this::runRetention);
+        if (!ran) {
+            log.debug("outbox.retention skipped: another replica holds {}", LOCK_NAME);
+        }
+    }
+
+    void runRetention() {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        long sent = drain(OutboxEventEntity.Status.SENT, now.minusHours(sentRetentionHours), archive ? archived : deleted);
+        long failed = deadLetter
+                ? drain(OutboxEventEntity.Status.FAILED, now.minusHours(failedRetentionHours), deadLettered)
+                : 0;
+
+        refreshTableSize();
+        if (sent + failed > 0) {
+            log.info("outbox.retention sent={} ({}) failed_dead_lettered={}", sent, archive ? "archived" : "deleted", failed);
+        }
+    }
+
+    private long drain(OutboxEventEntity.Status status, OffsetDateTime cutoff, Counter counter) {
+        long total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer moved = transactionTemplate.execute(tx -> moveChunk(status, cutoff));
+            int n = moved == null ? 0 : moved;
+            counter.increment(n);
+            total += n;
+            if (n < chunkSize) break;
+            if (!sleep(pauseMs)) break;
+        }
+        return total;
+    }
+
+    // One short transaction per chunk: lock the ids, copy them out (archive/dead-letter), delete them.
+    private int moveChunk(OutboxEventEntity.Status status, OffsetDateTime cutoff) {
+        List<byte[]> ids = outboxRepository.lockExpiredIds(status.name(), cutoff, chunkSize);
+        if (ids.isEmpty()) return 0;
+
+        OffsetDateTime now = OffsetDateTime.now();
+        if (status == OutboxEventEntity.Status.FAILED) {
+            outboxRepository.copyToDeadLetter(ids, now);
+        } else if (archive) {
+            outboxRepository.copyToArchive(ids, now);
+        }
+        return outboxRepository.deleteByIds(ids);
+    }
+
+    private void refreshTableSize() {
+        List<Object[]> rows = outboxRepository.tableSizeEstimate();
+        if (rows.isEmpty()) return;
+        tableRows.set(((Number) rows.get(0)[0]).longValue());
+        tableBytes.set(((Number) rows.get(0)[1]).longValue());
+    }
+
+    private static Counter rowsCounter(MeterRegistry meterRegistry, String action) {
+        return Counter.builder("outbox.retention.rows")
+                .description("Outbox rows removed by retention, by action")
+                .tag("action", action)
+                .register(meterRegistry);
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) return true;
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package cl.sura.suratech.integration.outbox;
 
+import cl.sura.suratech.common.IdGenerator;
 import cl.sura.suratech.entity.OutboxEventEntity;
 import cl.sura.suratech.integration.events.CloudEvent;
 import cl.sura.suratech.integration.events.QuoteIssuedEvent;
 import cl.sura.suratech.repository.OutboxEventRepository;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -20,16 +24,46 @@ public class QuoteIssuedOutboxService {
 
     private final OutboxEventRepository outboxRepository;
     private final ObjectMapper objectMapper;
+    private final IdGenerator idGenerator;
+    private final OutboxPayloadCodec payloadCodec;
+    private final OutboxImmediateDispatcher dispatcher;
 
-    public QuoteIssuedOutboxService(OutboxEventRepository outboxRepository, ObjectMapper objectMapper) {
+    public QuoteIssuedOutboxService(OutboxEventRepository outboxRepository,
+                                    ObjectMapper objectMapper,
+                                    IdGenerator idGenerator,
+                                    OutboxPayloadCodec payloadCodec,
+                                    ObjectProvider<OutboxImmediateDispatcher> dispatcher) {
         this.outboxRepository = outboxRepository;
         this.objectMapper = objectMapper;
+        this.idGenerator = idGenerator;
+        this.payloadCodec = payloadCodec;
+        this.dispatcher = dispatcher.getIfAvailable();
     }
 
     @Transactional
     public void enqueueQuoteIssued(QuoteIssuedEvent data) {
+        OutboxEventEntity e = newEvent(data);
+        outboxRepository.save(e);
+
+        if (immediate()) {
+            dispatchAfterCommit(e);
+        }
+    }
+
+    // Bulk variant: one saveAll, so the inserts go out in JDBC batches (ids assigned in the JVM, no per-row round trip).
+    @Transactional
+    public void enqueueQuoteIssuedAll(List<QuoteIssuedEvent> data) {
+        List<OutboxEventEntity> events = data.stream().map(this::newEvent).toList();
+        outboxRepository.saveAll(events);
+
+        if (immediate()) {
+            events.forEach(this::dispatchAfterCommit);
+        }
+    }
+
+    private OutboxEventEntity newEvent(QuoteIssuedEvent data) {
         try {
-            String eventId = UUID.randomUUID().toString();
+            String eventId = idGenerator.next().toString();
             OffsetDateTime now = OffsetDateTime.now();
 
             CloudEvent<QuoteIssuedEvent> cloudEvent = CloudEvent.v1(
@@ -43,22 +77,44 @@ public class QuoteIssuedOutboxService {
                     data
             );
 
-            JsonNode payloadJson = objectMapper.valueToTree(cloudEvent);
+            // Streamed straight to UTF-8 bytes: no JsonNode tree, no intermediate String.
+            OutboxPayloadCodec.Encoded payload = payloadCodec.encode(objectMapper.writeValueAsBytes(cloudEvent));
 
             OutboxEventEntity e = new OutboxEventEntity();
             e.setEventId(eventId);
             e.setEventType(EVENT_TYPE);
             e.setAggregateType("Quote");
             e.setAggregateId(data.quoteId());
-            e.setPayloadJson(payloadJson);
+            e.setPayload(payload.bytes());
+            e.setPayloadEncoding(payload.encoding());
             e.setStatus(OutboxEventEntity.Status.NEW);
             e.setAttempts(0);
-            e.setNextAttemptAt(now);
+            e.setNextAttemptAt(immediate() ? now.plusNanos(dispatcher.graceMs() * 1_000_000L) : now);
             e.setCreatedAt(now);
-
-            outboxRepository.save(e);
+            return e;
         } catch (Exception ex) {
             throw new IllegalStateException("Failed to enqueue QuoteIssued outbox event", ex);
         }
     }
-}
\ No newline at end of file
+
+    private boolean immediate() {
+        return dispatcher != null && TransactionSynchronizationManager.isSynchronizationActive();
+    }
+
+    // The poller stays off the row until nextAttemptAt (commit + grace), so it only sees events whose immediate
+    // publish never happened.
+    private void dispatchAfterCommit(OutboxEventEntity e) {
+        UUID outboxId = e.getId();
+        String eventId = e.getEventId();
+        String aggregateId = e.getAggregateId();
+        byte[] payload = e.getPayload();
+        String payloadEncoding = e.getPayloadEncoding();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.submit(outboxId, eventId, aggregateId, payload, payloadEncoding);
+            }
+        });
+    }
+}
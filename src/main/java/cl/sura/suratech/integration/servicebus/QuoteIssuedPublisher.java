@@ -1,6 +1,44 @@
 package cl.sura.suratech.integration.servicebus;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface QuoteIssuedPublisher {
     void publishCloudEventJson(String eventId, String quoteId, String cloudEventJson);
-}
\ No newline at end of file
+
+    List<PublishResult> publishBatch(List<OutboundEvent> events);
+
+    // Pipelined publishers complete the future from the broker callback; blocking ones complete it before returning.
+    default CompletableFuture<List<PublishResult>> publishBatchAsync(List<OutboundEvent> events) {
+        try {
+            return CompletableFuture.completedFuture(publishBatch(events));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    default boolean isPipelined() {
+        return false;
+    }
+
+    // Messages that can be handed over right now without exceeding the in-flight window.
+    default int availableCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    record OutboundEvent(String eventId, String quoteId, byte[] cloudEventJson) {}
+
+    record PublishResult(String eventId, Exception error) {
+        public static PublishResult sent(String eventId) {
+            return new PublishResult(eventId, null);
+        }
+
+        public static PublishResult failed(String eventId, Exception error) {
+            return new PublishResult(eventId, error);
+        }
+
+        public boolean isSent() {
+            return error == null;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package cl.sura.suratech.integration.servicebus;
 
 import com.azure.messaging.servicebus.ServiceBusClientBuilder;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
 import com.azure.messaging.servicebus.ServiceBusSenderClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -12,10 +13,25 @@ import org.springframework.context.annotation.Configuration;
 public class ServiceBusConfig {
 
     @Bean
+    @ConditionalOnProperty(name = "app.messaging.servicebus.sender", havingValue = "sync", matchIfMissing = true)
     ServiceBusSenderClient quoteEventsSender(
             @Value("${app.messaging.servicebus.connection-string}") String connectionString,
             @Value("${app.messaging.servicebus.topic:quotes}") String topicName
     ) {
+        return senderBuilder(connectionString, topicName).buildClient();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.messaging.servicebus.sender", havingValue = "async")
+    ServiceBusSenderAsyncClient quoteEventsAsyncSender(
+            @Value("${app.messaging.servicebus.connection-string}") String connectionString,
+            @Value("${app.messaging.servicebus.topic:quotes}") String topicName
+    ) {
+        return senderBuilder(connectionString, topicName).buildAsyncClient();
+    }
+
+    private static ServiceBusClientBuilder.ServiceBusSenderClientBuilder senderBuilder(String connectionString,
+                                                                                      String topicName) {
         if (connectionString == null || connectionString.isBlank()) {
             throw new IllegalStateException(
                     "Service Bus is enabled but app.messaging.servicebus.connection-string is empty. " +
@@ -26,7 +42,6 @@ public class ServiceBusConfig {
         return new ServiceBusClientBuilder()
                 .connectionString(connectionString)
                 .sender()
-                .topicName(topicName)
-                .buildClient();
+                .topicName(topicName);
     }
 }
\ No newline at end of file
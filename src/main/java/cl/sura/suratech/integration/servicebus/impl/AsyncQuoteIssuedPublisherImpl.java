@@ -0,0 +1,179 @@
+package cl.sura.suratech.integration.servicebus.impl;
+
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
+import com.azure.core.exception.AzureException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Pipelined publisher on the async sender: batches go out without parking a thread per broker round trip, and the
+// returned future completes from the send callback. Within one call the batches are sent one after another, so the
+// events keep their order; callers overlap calls for unrelated aggregates (see OutboxLaneDispatcher). At most
+// max-in-flight messages are outstanding; callers read availableCapacity() to claim no more than that (backpressure),
+// and a call that still finds the window full waits up to acquire-timeout-ms before failing its events back to the
+// outbox for retry.
+@Component
+@ConditionalOnExpression(
+        "${app.messaging.servicebus.enabled:false} and '${app.messaging.servicebus.sender:sync}' == 'async'"
+)
+public class AsyncQuoteIssuedPublisherImpl implements QuoteIssuedPublisher {
+
+    private final ServiceBusSenderAsyncClient sender;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
+    private final Semaphore inFlight;
+
+    public AsyncQuoteIssuedPublisherImpl(
+            ServiceBusSenderAsyncClient sender,
+            MeterRegistry meterRegistry,
+            @Value("${app.messaging.servicebus.max-in-flight:500}") int maxInFlight,
+            @Value("${app.messaging.servicebus.acquire-timeout-ms:5000}") long acquireTimeoutMs
+    ) {
+        this.sender = sender;
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.inFlight = new Semaphore(maxInFlight);
+        Gauge.builder("servicebus.publish.in_flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .description("Messages handed to the async sender and not yet acknowledged by the broker")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void publishCloudEventJson(String eventId, String quoteId, String cloudEventJson) {
+        sender.sendMessage(QuoteIssuedMessages.toMessage(eventId, quoteId, cloudEventJson.getBytes(StandardCharsets.UTF_8)))
+                .block();
+    }
+
+    @Override
+    public List<PublishResult> publishBatch(List<OutboundEvent> events) {
+        return publishBatchAsync(events).join();
+    }
+
+    @Override
+    public boolean isPipelined() {
+        return true;
+    }
+
+    @Override
+    public int availableCapacity() {
+        return inFlight.availablePermits();
+    }
+
+    @Override
+    public CompletableFuture<List<PublishResult>> publishBatchAsync(List<OutboundEvent> events) {
+        if (events.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        int permits = Math.min(events.size(), maxInFlight);
+        if (!acquire(permits)) {
+            IllegalStateException full = new IllegalStateException(
+                    "Service Bus in-flight window full (" + maxInFlight + " messages)");
+            return CompletableFuture.completedFuture(failAll(events, 0, full));
+        }
+
+        List<CompletableFuture<List<PublishResult>>> sends = new ArrayList<>();
+        int[] packed = {0};
+        return pack(events, packed, sends)
+                .handle((ignored, packFailure) -> packFailure)
+                .thenCompose(packFailure -> CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                        .handle((v, ex) -> {
+                            // Every send future is complete and never exceptional here, so join() does not block.
+                            List<PublishResult> results = new ArrayList<>(events.size());
+                            for (CompletableFuture<List<PublishResult>> send : sends) {
+                                results.addAll(send.join());
+                            }
+                            if (packFailure != null) {
+                                results.addAll(failAll(events, packed[0], unwrap(packFailure)));
+                            }
+                            return results;
+                        }))
+                .whenComplete((results, ex) -> inFlight.release(permits));
+    }
+
+    // Fills one batch at a time from the async batch factory; the next batch is packed once this one's send completed.
+    private CompletableFuture<Void> pack(List<OutboundEvent> events, int[] packed,
+                                         List<CompletableFuture<List<PublishResult>>> sends) {
+        if (packed[0] >= events.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return sender.createMessageBatch().toFuture().thenCompose(batch -> {
+            List<OutboundEvent> inBatch = new ArrayList<>();
+            List<PublishResult> rejected = new ArrayList<>();
+            int i = packed[0];
+            while (i < events.size()) {
+                OutboundEvent e = events.get(i);
+                try {
+                    if (!batch.tryAddMessage(toMessage(e))) break;
+                    inBatch.add(e);
+                } catch (AzureException ex) {
+                    // Larger than a whole batch: the SDK throws instead of returning false. Fail just this event.
+                    rejected.add(PublishResult.failed(e.eventId(), ex));
+                }
+                i++;
+            }
+            if (!rejected.isEmpty()) {
+                sends.add(CompletableFuture.completedFuture(rejected));
+            }
+            if (inBatch.isEmpty()) {
+                if (i < events.size()) {
+                    // Did not fit into an empty batch.
+                    sends.add(CompletableFuture.completedFuture(List.of(PublishResult.failed(events.get(i).eventId(),
+                            new IllegalArgumentException("Message exceeds the maximum batch size ("
+                                    + batch.getMaxSizeInBytes() + " bytes)")))));
+                    i++;
+                }
+                packed[0] = i;
+                return pack(events, packed, sends);
+            }
+            CompletableFuture<List<PublishResult>> sent = send(batch, inBatch);
+            sends.add(sent);
+            packed[0] = i;
+            // send() never completes exceptionally, so a failed batch does not stop the ones after it.
+            return sent.thenCompose(ignored -> pack(events, packed, sends));
+        });
+    }
+
+    private CompletableFuture<List<PublishResult>> send(ServiceBusMessageBatch batch, List<OutboundEvent> inBatch) {
+        return sender.sendMessages(batch).toFuture()
+                .handle((v, ex) -> ex == null
+                        ? inBatch.stream().map(e -> PublishResult.sent(e.eventId())).toList()
+                        : failAll(inBatch, 0, unwrap(ex)));
+    }
+
+    private boolean acquire(int permits) {
+        try {
+            return inFlight.tryAcquire(permits, acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ServiceBusMessage toMessage(OutboundEvent e) {
+        return QuoteIssuedMessages.toMessage(e.eventId(), e.quoteId(), e.cloudEventJson());
+    }
+
+    private static List<PublishResult> failAll(List<OutboundEvent> events, int from, Exception error) {
+        return events.subList(from, events.size()).stream()
+                .map(e -> PublishResult.failed(e.eventId(), error))
+                .toList();
+    }
+
+    private static Exception unwrap(Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        return cause instanceof Exception ex ? ex : new IllegalStateException(cause);
+    }
+}
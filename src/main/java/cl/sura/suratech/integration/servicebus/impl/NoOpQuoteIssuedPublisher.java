@@ -6,6 +6,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @ConditionalOnProperty(
         name = "app.messaging.servicebus.enabled",
@@ -20,4 +22,12 @@ public class NoOpQuoteIssuedPublisher implements QuoteIssuedPublisher {
     public void publishCloudEventJson(String eventId, String quoteId, String cloudEventJson) {
         log.info("🧪 NoOp publisher: simulated publish eventId={}, quoteId={}", eventId, quoteId);
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<PublishResult> publishBatch(List<OutboundEvent> events) {
+        log.info("🧪 NoOp publisher: simulated batch publish count={}", events.size());
+        return events.stream()
+                .map(e -> PublishResult.sent(e.eventId()))
+                .toList();
+    }
+}
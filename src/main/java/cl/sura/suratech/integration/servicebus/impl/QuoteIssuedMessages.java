@@ -0,0 +1,21 @@
+package cl.sura.suratech.integration.servicebus.impl;
+
+import com.azure.messaging.servicebus.ServiceBusMessage;
+
+final class QuoteIssuedMessages {
+
+    private QuoteIssuedMessages() {
+    }
+
+    static ServiceBusMessage toMessage(String eventId, String quoteId, byte[] cloudEventJson) {
+        ServiceBusMessage msg = new ServiceBusMessage(cloudEventJson)
+                .setContentType("application/cloudevents+json");
+
+        msg.setMessageId(eventId);
+
+        msg.getApplicationProperties().put("ce_type", "com.suratech.quote.issued.v1");
+        msg.getApplicationProperties().put("quote_id", quoteId);
+        msg.getApplicationProperties().put("schema_version", 1);
+        return msg;
+    }
+}
@@ -1,17 +1,20 @@
 package cl.sura.suratech.integration.servicebus.impl;
 
 import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
+import com.azure.core.exception.AzureException;
 import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
 import com.azure.messaging.servicebus.ServiceBusSenderClient;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
-@ConditionalOnProperty(
-        name = "app.messaging.servicebus.enabled",
-        havingValue = "true"
+@ConditionalOnExpression(
+        "${app.messaging.servicebus.enabled:false} and '${app.messaging.servicebus.sender:sync}' == 'sync'"
 )
 public class QuoteIssuedPublisherImpl implements QuoteIssuedPublisher {
 
@@ -23,15 +26,59 @@ public class QuoteIssuedPublisherImpl implements QuoteIssuedPublisher {
 
     @Override
     public void publishCloudEventJson(String eventId, String quoteId, String cloudEventJson) {
-        ServiceBusMessage msg = new ServiceBusMessage(cloudEventJson.getBytes(StandardCharsets.UTF_8))
-                .setContentType("application/cloudevents+json");
+        sender.sendMessage(QuoteIssuedMessages.toMessage(eventId, quoteId, cloudEventJson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public List<PublishResult> publishBatch(List<OutboundEvent> events) {
+        List<PublishResult> results = new ArrayList<>(events.size());
+        ServiceBusMessageBatch batch = sender.createMessageBatch();
+        List<OutboundEvent> inBatch = new ArrayList<>();
 
-        msg.setMessageId(eventId);
+        for (OutboundEvent e : events) {
+            ServiceBusMessage msg = QuoteIssuedMessages.toMessage(e.eventId(), e.quoteId(), e.cloudEventJson());
+            try {
+                if (batch.tryAddMessage(msg)) {
+                    inBatch.add(e);
+                    continue;
+                }
 
-        msg.getApplicationProperties().put("ce_type", "com.suratech.quote.issued.v1");
-        msg.getApplicationProperties().put("quote_id", quoteId);
-        msg.getApplicationProperties().put("schema_version", 1);
+                // Batch is at the size limit: ship it and start a new one with this message.
+                if (!inBatch.isEmpty()) {
+                    send(batch, inBatch, results);
+                    batch = sender.createMessageBatch();
+                    inBatch = new ArrayList<>();
+                }
+                if (batch.tryAddMessage(msg)) {
+                    inBatch.add(e);
+                } else {
+                    results.add(PublishResult.failed(e.eventId(), new IllegalArgumentException(
+                            "Message exceeds the maximum batch size (" + batch.getMaxSizeInBytes() + " bytes)")));
+                }
+            } catch (AzureException ex) {
+                // A message larger than a whole batch makes tryAddMessage throw (LINK_PAYLOAD_SIZE_EXCEEDED) rather
+                // than return false. Fail just that event; the batch is unchanged and keeps filling.
+                results.add(PublishResult.failed(e.eventId(), ex));
+            }
+        }
+
+        if (!inBatch.isEmpty()) {
+            send(batch, inBatch, results);
+        }
+        return results;
+    }
 
-        sender.sendMessage(msg);
+    private void send(ServiceBusMessageBatch batch, List<OutboundEvent> inBatch, List<PublishResult> results) {
+        // A Service Bus batch is accepted or rejected as a whole.
+        try {
+            sender.sendMessages(batch);
+            for (OutboundEvent e : inBatch) {
+                results.add(PublishResult.sent(e.eventId()));
+            }
+        } catch (RuntimeException ex) {
+            for (OutboundEvent e : inBatch) {
+                results.add(PublishResult.failed(e.eventId(), ex));
+            }
+        }
     }
-}
\ No newline at end of file
+}
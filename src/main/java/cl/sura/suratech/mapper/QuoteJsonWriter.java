@@ -0,0 +1,143 @@
+package cl.sura.suratech.mapper;
+
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.entity.QuoteItemEntity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+
+// Writes a QuoteEntity in the QuoteResponse JSON shape straight to a generator: no QuoteResponse/Item records, no
+// metadata Map, no reflection-driven property walk. Output is byte-for-byte what the configured ObjectMapper produces
+// for mapper.toResponse(entity) (QuoteJsonWriterTest pins that), so either path can fill the same caches and ETags.
+@Component
+public class QuoteJsonWriter {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString DOCUMENT_ID = new SerializedString("documentId");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString CURRENCY = new SerializedString("currency");
+    private static final SerializableString CUSTOMER = new SerializedString("customer");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString ITEMS = new SerializedString("items");
+    private static final SerializableString SKU = new SerializedString("sku");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString QUANTITY = new SerializedString("quantity");
+    private static final SerializableString UNIT_PRICE = new SerializedString("unitPrice");
+    private static final SerializableString TAX_RATE = new SerializedString("taxRate");
+    private static final SerializableString LINE_TOTAL = new SerializedString("lineTotal");
+    private static final SerializableString TAX_AMOUNT = new SerializedString("taxAmount");
+    private static final SerializableString TOTALS = new SerializedString("totals");
+    private static final SerializableString SUBTOTAL = new SerializedString("subtotal");
+    private static final SerializableString TAX_TOTAL = new SerializedString("taxTotal");
+    private static final SerializableString GRAND_TOTAL = new SerializedString("grandTotal");
+    private static final SerializableString EXPIRES_AT = new SerializedString("expiresAt");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString METADATA = new SerializedString("metadata");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter timestampWriter;
+
+    public QuoteJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.timestampWriter = objectMapper.writerFor(OffsetDateTime.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public byte[] toBytes(QuoteEntity quote) {
+        // Sized for a typical quote; ByteArrayBuilder grows in segments, so large ones don't copy repeatedly.
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(1024)) {
+            write(quote, buffer);
+            return buffer.toByteArray();
+        }
+    }
+
+    public void write(QuoteEntity quote, OutputStream out) {
+        try (JsonGenerator gen = objectMapper.createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            write(quote, gen);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write quote " + quote.getId(), e);
+        }
+    }
+
+    public void write(QuoteEntity quote, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeString(quote.getId().toString());
+        gen.writeFieldName(DOCUMENT_ID);
+        gen.writeString(quote.getDocumentId());
+        gen.writeFieldName(STATUS);
+        gen.writeString(quote.getStatus());
+        gen.writeFieldName(CURRENCY);
+        gen.writeString(quote.getCurrency());
+
+        gen.writeFieldName(CUSTOMER);
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeString(quote.getCustomerId());
+        gen.writeFieldName(EMAIL);
+        gen.writeString(quote.getCustomerEmail());
+        gen.writeEndObject();
+
+        gen.writeFieldName(ITEMS);
+        gen.writeStartArray(quote.getItems(), quote.getItems().size());
+        for (QuoteItemEntity item : quote.getItems()) {
+            gen.writeStartObject();
+            gen.writeFieldName(SKU);
+            gen.writeString(item.getSku());
+            gen.writeFieldName(NAME);
+            gen.writeString(item.getName());
+            gen.writeFieldName(QUANTITY);
+            gen.writeNumber(item.getQuantity());
+            gen.writeFieldName(UNIT_PRICE);
+            gen.writeNumber(item.getUnitPrice());
+            gen.writeFieldName(TAX_RATE);
+            gen.writeNumber(item.getTaxRate());
+            gen.writeFieldName(LINE_TOTAL);
+            gen.writeNumber(item.getLineTotal());
+            gen.writeFieldName(TAX_AMOUNT);
+            gen.writeNumber(item.getTaxAmount());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName(TOTALS);
+        gen.writeStartObject();
+        gen.writeFieldName(SUBTOTAL);
+        gen.writeNumber(quote.getSubtotal());
+        gen.writeFieldName(TAX_TOTAL);
+        gen.writeNumber(quote.getTaxTotal());
+        gen.writeFieldName(GRAND_TOTAL);
+        gen.writeNumber(quote.getGrandTotal());
+        gen.writeEndObject();
+
+        gen.writeFieldName(EXPIRES_AT);
+        timestamp(gen, quote.getExpiresAt());
+        gen.writeFieldName(CREATED_AT);
+        timestamp(gen, quote.getCreatedAt());
+
+        gen.writeFieldName(METADATA);
+        String metadata = quote.getPayloadJson();
+        gen.writeRawValue(metadata == null || metadata.isBlank() ? "{}" : metadata);
+        gen.writeEndObject();
+    }
+
+    // Delegated so date formatting follows the configured ObjectMapper (spring.jackson.*), exactly as the DTO path.
+    private void timestamp(JsonGenerator gen, OffsetDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            timestampWriter.writeValue(gen, value);
+        }
+    }
+}
@@ -1,18 +1,21 @@
 package cl.sura.suratech.mapper;
 
 import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.dto.RawJson;
 import cl.sura.suratech.entity.QuoteEntity;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
 import java.util.Map;
 
 @Component
 public class QuoteMapper {
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
+
+    public QuoteMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
 
     public QuoteResponse toResponse(QuoteEntity quoteEntity) {
         return new QuoteResponse(
@@ -29,7 +32,8 @@ public class QuoteMapper {
                 new QuoteResponse.Totals(quoteEntity.getSubtotal(), quoteEntity.getTaxTotal(), quoteEntity.getGrandTotal()),
                 quoteEntity.getExpiresAt(),
                 quoteEntity.getCreatedAt(),
-                fromJson(quoteEntity.getPayloadJson())
+                // payload_json is a JSON column: pass it through as-is instead of parsing it into a Map.
+                RawJson.of(quoteEntity.getPayloadJson())
         );
     }
 
@@ -41,13 +45,4 @@ public class QuoteMapper {
             throw new IllegalStateException("metadata json error", e);
         }
     }
-
-    private Map<String, String> fromJson(String json) {
-        try {
-            if (json == null || json.isBlank()) return Collections.emptyMap();
-            return objectMapper.readValue(json, new TypeReference<>() {});
-        } catch (Exception e) {
-            return Collections.emptyMap();
-        }
-    }
-}
\ No newline at end of file
+}
@@ -2,7 +2,61 @@ package cl.sura.suratech.repository;
 
 import cl.sura.suratech.entity.IdempotencyKeyEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
-public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, UUID> { }
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, UUID> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+           DELETE FROM idempotency_keys
+           WHERE expires_at < :cutoff
+           ORDER BY expires_at
+           LIMIT :limit
+           """, nativeQuery = true)
+    int deleteExpiredChunk(@Param("cutoff") OffsetDateTime cutoff, @Param("limit") int limit);
+
+    // Clears the way for a new claim on an expired key. A concurrent claimant that replaced the row first leaves
+    // nothing to delete, so the caller backs off instead of overwriting a live claim.
+    @Modifying
+    @Transactional
+    @Query("""
+           delete from IdempotencyKeyEntity e
+           where e.idempotencyKey = :key
+             and e.expiresAt <= :now
+           """)
+    int deleteIfExpired(@Param("key") UUID key, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           update IdempotencyKeyEntity e
+           set e.status = cl.sura.suratech.entity.IdempotencyKeyEntity.Status.COMPLETED,
+               e.quoteId = :quoteId,
+               e.responseSnapshot = :snapshot,
+               e.createdAt = :now,
+               e.expiresAt = :expiresAt
+           where e.idempotencyKey = :key
+             and e.status = cl.sura.suratech.entity.IdempotencyKeyEntity.Status.PENDING
+           """)
+    int completeClaim(@Param("key") UUID key,
+                      @Param("quoteId") UUID quoteId,
+                      @Param("snapshot") byte[] snapshot,
+                      @Param("now") OffsetDateTime now,
+                      @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           delete from IdempotencyKeyEntity e
+           where e.idempotencyKey = :key
+             and e.status = cl.sura.suratech.entity.IdempotencyKeyEntity.Status.PENDING
+           """)
+    int releaseClaim(@Param("key") UUID key);
+}
@@ -4,14 +4,23 @@ import cl.sura.suratech.entity.OutboxEventEntity;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
-public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, UUID> {
+
+    // Hibernate's LockOptions.SKIP_LOCKED; rendered as FOR UPDATE SKIP LOCKED on MySQL 8.
+    String SKIP_LOCKED = "-2";
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
@@ -26,4 +35,138 @@ public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity,
             @Param("now") OffsetDateTime now,
             Pageable pageable
     );
-}
\ No newline at end of file
+
+    // Ordered along ix_outbox_status_next_created so InnoDB walks the index and stops at the limit; ordering by
+    // createdAt alone would filesort and lock every ready row, serializing replicas again.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("""
+           select e
+           from OutboxEventEntity e
+           where e.status = :status
+             and e.nextAttemptAt <= :now
+           order by e.nextAttemptAt asc, e.createdAt asc
+           """)
+    List<OutboxEventEntity> claimBatchReadyToProcess(
+            @Param("status") OutboxEventEntity.Status status,
+            @Param("now") OffsetDateTime now,
+            Pageable pageable
+    );
+
+    // Only rows still NEW: if the poller already claimed a row, its own outcome wins.
+    @Modifying
+    @Transactional
+    @Query("""
+           update OutboxEventEntity e
+           set e.status = cl.sura.suratech.entity.OutboxEventEntity.Status.SENT,
+               e.lastError = null
+           where e.id in :ids
+             and e.status = cl.sura.suratech.entity.OutboxEventEntity.Status.NEW
+           """)
+    int markSentIfNew(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           update OutboxEventEntity e
+           set e.status = cl.sura.suratech.entity.OutboxEventEntity.Status.SENT,
+               e.lastError = null,
+               e.leaseOwner = null,
+               e.leaseUntil = null
+           where e.id in :ids
+             and e.status = cl.sura.suratech.entity.OutboxEventEntity.Status.PROCESSING
+             and e.leaseOwner = :owner
+           """)
+    int acknowledgeSent(@Param("ids") Collection<UUID> ids, @Param("owner") String owner);
+
+    @Modifying
+    @Transactional
+    @Query("""
+           update OutboxEventEntity e
+           set e.status = :status,
+               e.attempts = :attempts,
+               e.nextAttemptAt = :nextAttemptAt,
+               e.lastError = :lastError,
+               e.leaseOwner = null,
+               e.leaseUntil = null
+           where e.id = :id
+             and e.status = cl.sura.suratech.entity.OutboxEventEntity.Status.PROCESSING
+             and e.leaseOwner = :owner
+           """)
+    int acknowledgeFailed(
+            @Param("id") UUID id,
+            @Param("owner") String owner,
+            @Param("status") OutboxEventEntity.Status status,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") OffsetDateTime nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+
+    // Rows left PROCESSING without a lease predate the lease model; they are just as stuck, so release them too.
+    @Modifying
+    @Transactional
+    @Query("""
+           update OutboxEventEntity e
+           set e.status = cl.sura.suratech.entity.OutboxEventEntity.Status.NEW,
+               e.leaseOwner = null,
+               e.leaseUntil = null
+           where e.status = cl.sura.suratech.entity.OutboxEventEntity.Status.PROCESSING
+             and (e.leaseUntil < :now or e.leaseUntil is null)
+           """)
+    int releaseExpiredLeases(@Param("now") OffsetDateTime now);
+
+    // Retention: SENT/FAILED rows whose last scheduled attempt is older than the cutoff. next_attempt_at rather than
+    // created_at keeps the scan on ix_outbox_status_next_created and never touches rows still being retried. Ids stay
+    // raw BINARY(16) bytes: they only go back into the native statements below.
+    @Query(value = """
+           SELECT id
+           FROM outbox_event
+           WHERE status = :status
+             AND next_attempt_at < :cutoff
+           ORDER BY next_attempt_at
+           LIMIT :limit
+           FOR UPDATE SKIP LOCKED
+           """, nativeQuery = true)
+    List<byte[]> lockExpiredIds(
+            @Param("status") String status,
+            @Param("cutoff") OffsetDateTime cutoff,
+            @Param("limit") int limit
+    );
+
+    @Modifying
+    @Query(value = """
+           INSERT INTO outbox_event_archive
+               (id, event_id, event_type, aggregate_type, aggregate_id, payload, payload_encoding, attempts, created_at,
+                archived_at)
+           SELECT id, event_id, event_type, aggregate_type, aggregate_id, payload, payload_encoding, attempts, created_at,
+                  :now
+           FROM outbox_event
+           WHERE id IN (:ids)
+           """, nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<byte[]> ids, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query(value = """
+           INSERT INTO outbox_event_dead_letter
+               (id, event_id, event_type, aggregate_type, aggregate_id, payload, payload_encoding, attempts, last_error,
+                created_at, dead_lettered_at)
+           SELECT id, event_id, event_type, aggregate_type, aggregate_id, payload, payload_encoding, attempts, last_error,
+                  created_at, :now
+           FROM outbox_event
+           WHERE id IN (:ids)
+           """, nativeQuery = true)
+    int copyToDeadLetter(@Param("ids") Collection<byte[]> ids, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<byte[]> ids);
+
+    // InnoDB statistics estimate: free to read, unlike COUNT(*) over a large table.
+    @Query(value = """
+           SELECT COALESCE(table_rows, 0) AS table_rows, COALESCE(data_length + index_length, 0) AS total_bytes
+           FROM information_schema.tables
+           WHERE table_schema = DATABASE()
+             AND table_name = 'outbox_event'
+           """, nativeQuery = true)
+    List<Object[]> tableSizeEstimate();
+}
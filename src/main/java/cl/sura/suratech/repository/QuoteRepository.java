@@ -1,8 +1,39 @@
 package cl.sura.suratech.repository;
 
 import cl.sura.suratech.entity.QuoteEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface QuoteRepository extends JpaRepository<QuoteEntity, UUID> { }
+public interface QuoteRepository extends JpaRepository<QuoteEntity, UUID> {
+
+    // SQL_TASK.md strategy as a single statement: the inner ranking only reads (document_id, created_at, id), so it
+    // is answered from ix_quotes_doc_created_id without touching table rows. A bound IN list replaces the temp table
+    // so no DDL runs on pooled connections.
+    String LATEST_ID_PER_DOCUMENT = """
+            SELECT BIN_TO_UUID(ranked.id)
+            FROM (
+                SELECT q.id,
+                       ROW_NUMBER() OVER (PARTITION BY q.document_id ORDER BY q.created_at DESC, q.id DESC) AS rn
+                FROM quotes q
+                WHERE q.document_id IN (:documentIds)
+            ) ranked
+            WHERE ranked.rn = 1
+            """;
+
+    // Quote and items in one query; the lookup path always serializes the items.
+    @EntityGraph(attributePaths = "items")
+    Optional<QuoteEntity> findWithItemsById(UUID id);
+
+    @Query(value = LATEST_ID_PER_DOCUMENT, nativeQuery = true)
+    List<String> findLatestIdPerDocument(@Param("documentIds") Collection<String> documentIds);
+
+    @Query("select distinct q from QuoteEntity q left join fetch q.items where q.id in :ids")
+    List<QuoteEntity> findAllWithItemsByIdIn(@Param("ids") Collection<UUID> ids);
+}
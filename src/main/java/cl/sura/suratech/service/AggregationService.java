@@ -1,5 +1,7 @@
 package cl.sura.suratech.service;
 
+import cl.sura.suratech.common.CurrencyRules;
+import cl.sura.suratech.common.Money;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 
 import java.util.List;
@@ -7,16 +9,29 @@ import java.util.List;
 public interface AggregationService {
     AggregationResult aggregate(QuoteCreateRequest request);
 
-    record AggregationResult(List<ItemComputed> items, double subtotal, double taxTotal, double grandTotal) {}
+    // Amounts are exact minor units of `currency` (see Money); the double accessors are for the API/event edge only.
+    record AggregationResult(CurrencyRules currency, List<ItemComputed> items,
+                             long subtotalMinor, long taxTotalMinor, long grandTotalMinor) {
+        public double subtotal() {
+            return Money.toMajor(subtotalMinor, currency);
+        }
+
+        public double taxTotal() {
+            return Money.toMajor(taxTotalMinor, currency);
+        }
+
+        public double grandTotal() {
+            return Money.toMajor(grandTotalMinor, currency);
+        }
+    }
 
     record ItemComputed(
             String sku,
             String name,
             int quantity,
-            double unitPrice,
-            double taxRate,
-            double lineTotal,
-            double taxAmount
+            long unitPriceMinor,
+            long taxRatePpm,
+            long lineTotalMinor,
+            long taxAmountMinor
     ) {}
 }
-
@@ -3,11 +3,39 @@ package cl.sura.suratech.service;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.dto.QuoteResponse;
 
+import java.util.List;
 import java.util.UUID;
-import java.util.function.Supplier;
+import java.util.function.Consumer;
 
 public interface IdempotencyService {
-    IdempotencyResult getOrCompute(UUID key, QuoteCreateRequest request, Supplier<QuoteResponse> supplier);
+    IdempotencyResult getOrCompute(UUID key, QuoteCreateRequest request, StagedComputation computation);
 
-    record IdempotencyResult(QuoteResponse quote, boolean replayed) {}
+    // Same contract per entry as getOrCompute, with one key lookup for the whole batch and the remaining entries
+    // computed together. Conflicts and failures are reported per entry instead of thrown.
+    List<BatchEntryResult> getOrComputeBatch(List<KeyedRequest> entries, BatchComputation computation);
+
+    // Replays served from a stored snapshot carry the original JSON bytes in responseBody and no quote.
+    record IdempotencyResult(QuoteResponse quote, byte[] responseBody, boolean replayed) {
+        public IdempotencyResult(QuoteResponse quote, boolean replayed) {
+            this(quote, null, replayed);
+        }
+    }
+
+    record KeyedRequest(UUID key, QuoteCreateRequest request) {}
+
+    record BatchEntryResult(UUID key, Outcome outcome, QuoteResponse quote, String error) {}
+
+    enum Outcome { CREATED, REPLAYED, CONFLICT, FAILED }
+
+    @FunctionalInterface
+    interface StagedComputation {
+        QuoteResponse compute(Consumer<QuoteResponse> inPersistTransaction);
+    }
+
+    @FunctionalInterface
+    interface BatchComputation {
+        List<QuoteApplicationService.BatchOutcome> compute(
+                List<QuoteCreateRequest> requests,
+                Consumer<List<QuoteApplicationService.Created>> inPersistTransaction);
+    }
 }
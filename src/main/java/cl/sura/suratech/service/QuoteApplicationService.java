@@ -3,6 +3,19 @@ package cl.sura.suratech.service;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.dto.QuoteResponse;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface QuoteApplicationService {
     QuoteResponse createQuote(QuoteCreateRequest request);
+
+    QuoteResponse createQuote(QuoteCreateRequest request, Consumer<QuoteResponse> inPersistTransaction);
+
+    // Bulk variant: aggregation runs concurrently, persistence in a few chunked transactions. inPersistTransaction gets
+    // each chunk's quotes (with their request index) inside that chunk's transaction. One outcome per request, in order.
+    List<BatchOutcome> createQuotes(List<QuoteCreateRequest> requests, Consumer<List<Created>> inPersistTransaction);
+
+    record Created(int index, QuoteResponse quote) {}
+
+    record BatchOutcome(QuoteResponse quote, RuntimeException error) {}
 }
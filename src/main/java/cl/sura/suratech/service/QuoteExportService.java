@@ -0,0 +1,15 @@
+package cl.sura.suratech.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+
+public interface QuoteExportService {
+
+    // Writes every matching quote (with items) as one JSON line, in (documentId, createdAt, id) order. Returns the
+    // number of quotes written.
+    long exportNdjson(ExportFilter filter, OutputStream out) throws IOException;
+
+    // All fields optional; createdFrom is inclusive, createdTo exclusive.
+    record ExportFilter(OffsetDateTime createdFrom, OffsetDateTime createdTo, String documentId) {}
+}
@@ -1,8 +1,17 @@
 package cl.sura.suratech.service;
 
 import cl.sura.suratech.dto.QuoteResponse;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface QuoteLookupService {
     QuoteResponse getQuoteResponse(UUID quoteId);
-}
\ No newline at end of file
+
+    SerializedQuote getSerializedQuote(UUID quoteId);
+
+    List<QuoteResponse> getLatestByDocumentIds(Collection<String> documentIds);
+
+    // The JSON body exactly as served, with a strong ETag derived from those bytes.
+    record SerializedQuote(byte[] body, String etag) {}
+}
@@ -4,9 +4,11 @@ import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.service.AggregationService;
 import cl.sura.suratech.service.impl.client.PricingClient;
 import cl.sura.suratech.service.impl.client.TaxClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 @Service
+@ConditionalOnProperty(name = "app.aggregation.mode", havingValue = "sequential", matchIfMissing = true)
 public class AggregationServiceImpl implements AggregationService {
     private final PricingClient pricingClient;
     private final TaxClient taxClient;
@@ -21,10 +23,13 @@ public class AggregationServiceImpl implements AggregationService {
         var priced = pricingClient.price(request);
         var tax = taxClient.calculateTaxes(priced);
 
-        double subtotal = priced.items().stream().mapToDouble(ItemComputed::lineTotal).sum();
-        double taxTotal = tax.taxTotal();
-        double grandTotal = subtotal + taxTotal;
+        long subtotal = 0;
+        for (ItemComputed item : priced.items()) {
+            subtotal = Math.addExact(subtotal, item.lineTotalMinor());
+        }
+        long taxTotal = tax.taxTotalMinor();
 
-        return new AggregationResult(priced.items(), subtotal, taxTotal, grandTotal);
+        return new AggregationResult(priced.currency(), priced.items(),
+                subtotal, taxTotal, Math.addExact(subtotal, taxTotal));
     }
 }
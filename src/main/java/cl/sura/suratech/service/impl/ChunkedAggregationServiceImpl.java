@@ -0,0 +1,151 @@
+package cl.sura.suratech.service.impl;
+
+import cl.sura.suratech.common.CurrencyRules;
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.AggregationService;
+import cl.sura.suratech.service.impl.client.PricingClient;
+import cl.sura.suratech.service.impl.client.TaxClient;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Service
+@ConditionalOnProperty(name = "app.aggregation.mode", havingValue = "chunked")
+public class ChunkedAggregationServiceImpl implements AggregationService {
+
+    private final PricingClient pricingClient;
+    private final TaxClient taxClient;
+    private final int chunkSize;
+
+    public ChunkedAggregationServiceImpl(PricingClient pricingClient,
+                                         TaxClient taxClient,
+                                         @Value("${app.aggregation.chunk-size:50}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("app.aggregation.chunk-size must be >= 1");
+        }
+        this.pricingClient = pricingClient;
+        this.taxClient = taxClient;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public AggregationResult aggregate(QuoteCreateRequest request) {
+        List<QuoteCreateRequest> chunks = split(request);
+        CurrencyRules currency = CurrencyRules.of(request.currency());
+        if (chunks.size() == 1) {
+            return combine(currency, List.of(priceAndTax(request)));
+        }
+        return combine(currency, fanOut(chunks));
+    }
+
+    // Each chunk is priced and then taxed on its own virtual thread, so tax for a chunk starts as soon as that
+    // chunk is priced. The executor is scoped to this call: the first failure cancels every sibling, and close()
+    // joins them all before we return (the same shape as StructuredTaskScope.ShutdownOnFailure, without preview APIs).
+    private List<ChunkResult> fanOut(List<QuoteCreateRequest> chunks) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        ChunkResult[] results = new ChunkResult[chunks.size()];
+        List<Future<IndexedResult>> futures = new ArrayList<>(chunks.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<IndexedResult> completion = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < chunks.size(); i++) {
+                int index = i;
+                QuoteCreateRequest chunk = chunks.get(i);
+                futures.add(completion.submit(() -> withMdc(mdc, () -> new IndexedResult(index, priceAndTax(chunk)))));
+            }
+
+            for (int done = 0; done < chunks.size(); done++) {
+                try {
+                    IndexedResult r = completion.take().get();
+                    results[r.index()] = r.result();
+                } catch (ExecutionException ex) {
+                    cancelAll(futures);
+                    throw rethrow(ex.getCause());
+                } catch (InterruptedException ex) {
+                    cancelAll(futures);
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Aggregation interrupted", ex);
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    private ChunkResult priceAndTax(QuoteCreateRequest chunk) {
+        var priced = pricingClient.price(chunk);
+        var tax = taxClient.calculateTaxes(priced);
+        return new ChunkResult(priced.items(), tax.taxTotalMinor());
+    }
+
+    private List<QuoteCreateRequest> split(QuoteCreateRequest request) {
+        List<QuoteCreateRequest.Item> items = request.items();
+        if (items.size() <= chunkSize) {
+            return List.of(request);
+        }
+        List<QuoteCreateRequest> chunks = new ArrayList<>((items.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            chunks.add(new QuoteCreateRequest(
+                    request.documentId(),
+                    request.customer(),
+                    request.currency(),
+                    items.subList(from, Math.min(from + chunkSize, items.size())),
+                    request.expiresAt(),
+                    request.metadata()
+            ));
+        }
+        return chunks;
+    }
+
+    // Exact minor-unit sums, so the chunked totals are identical to the sequential ones whatever the chunk size.
+    private static AggregationResult combine(CurrencyRules currency, List<ChunkResult> chunks) {
+        List<ItemComputed> items = new ArrayList<>();
+        long subtotal = 0;
+        long taxTotal = 0;
+        for (ChunkResult chunk : chunks) {
+            items.addAll(chunk.items());
+            for (ItemComputed item : chunk.items()) {
+                subtotal = Math.addExact(subtotal, item.lineTotalMinor());
+            }
+            taxTotal = Math.addExact(taxTotal, chunk.taxTotalMinor());
+        }
+        return new AggregationResult(currency, List.copyOf(items),
+                subtotal, taxTotal, Math.addExact(subtotal, taxTotal));
+    }
+
+    private static <T> T withMdc(Map<String, String> mdc, Callable<T> task) throws Exception {
+        if (mdc != null) MDC.setContextMap(mdc);
+        try {
+            return task.call();
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> f : futures) {
+            f.cancel(true);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException re) return re;
+        if (cause instanceof Error err) throw err;
+        return new IllegalStateException("Aggregation chunk failed", cause);
+    }
+
+    private record ChunkResult(List<ItemComputed> items, long taxTotalMinor) {}
+
+    private record IndexedResult(int index, ChunkResult result) {}
+}
@@ -0,0 +1,123 @@
+package cl.sura.suratech.service.impl;
+
+import cl.sura.suratech.common.ClusterJobLock;
+import cl.sura.suratech.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(
+        name = "app.idempotency.purge.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class IdempotencyKeyPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyPurgeJob.class);
+
+    static final String LOCK_NAME = "suratech.idempotency_keys.purge";
+    private static final long MAX_PAUSE_MS = 5_000L;
+
+    private final IdempotencyKeyRepository repo;
+    private final ClusterJobLock clusterJobLock;
+
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMs;
+    private final long slowChunkMs;
+
+    private final Counter purgedRows;
+    private final Timer chunkTimer;
+
+    public IdempotencyKeyPurgeJob(
+            IdempotencyKeyRepository repo,
+            ClusterJobLock clusterJobLock,
+            MeterRegistry meterRegistry,
+            @Value("${app.idempotency.purge.chunk-size:1000}") int chunkSize,
+            @Value("${app.idempotency.purge.max-chunks-per-run:200}") int maxChunksPerRun,
+            @Value("${app.idempotency.purge.pause-ms:20}") long pauseMs,
+            @Value("${app.idempotency.purge.slow-chunk-ms:250}") long slowChunkMs
+    ) {
+        this.repo = repo;
+        this.clusterJobLock = clusterJobLock;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMs = pauseMs;
+        this.slowChunkMs = slowChunkMs;
+        this.purgedRows = Counter.builder("idempotency.purge.rows")
+                .description("Expired idempotency keys deleted")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("idempotency.purge.chunk")
+                .description("Time spent deleting one chunk of expired idempotency keys")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.idempotency.purge.fixed-delay:60000}",
+            initialDelayString = "${app.idempotency.purge.initial-delay:30000}"
+    )
+    public void tick() {
+        boolean ran = clusterJobLock.runExclusively(LOCK_NAME, this::purgeExpired);
+        if (!ran) {
+            log.debug("idempotency.purge skipped: another replica holds {}", LOCK_NAME);
+        }
+    }
+
+    void purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now();
+        long total = 0;
+        long pause = pauseMs;
+
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            long start = System.nanoTime();
+            int deleted;
+            try {
+                deleted = repo.deleteExpiredChunk(cutoff, chunkSize);
+            } catch (PessimisticLockingFailureException | QueryTimeoutException ex) {
+                pause = Math.min(Math.max(pause * 2, 100L), MAX_PAUSE_MS);
+                log.warn("idempotency.purge lock pressure, backing off {}ms", pause, ex);
+                if (!sleep(pause)) break;
+                continue;
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            chunkTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            purgedRows.increment(deleted);
+            total += deleted;
+
+            if (deleted < chunkSize) break;
+
+            // A slow chunk means the primary is contended (row locks, redo/replication backlog): yield at least
+            // as long as the chunk took. Fast chunks fall back to the base pause.
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            pause = elapsedMs > slowChunkMs ? Math.min(Math.max(pause * 2, elapsedMs), MAX_PAUSE_MS) : pauseMs;
+            if (!sleep(pause)) break;
+        }
+
+        if (total > 0) {
+            log.info("idempotency.purge deleted={} cutoff={}", total, cutoff);
+        }
+    }
+
+    private static boolean sleep(long millis) {
+        if (millis <= 0) return true;
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,74 +1,431 @@
 package cl.sura.suratech.service.impl;
 
+import cl.sura.suratech.common.TransactionStages;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.dto.QuoteResponse;
 import cl.sura.suratech.entity.IdempotencyKeyEntity;
 import cl.sura.suratech.exception.IdempotencyConflictException;
+import cl.sura.suratech.exception.IdempotencyInProgressException;
 import cl.sura.suratech.repository.IdempotencyKeyRepository;
 import cl.sura.suratech.service.IdempotencyService;
+import cl.sura.suratech.service.QuoteApplicationService;
 import cl.sura.suratech.service.QuoteLookupService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
 import java.security.MessageDigest;
+import java.time.Duration;
 import java.time.OffsetDateTime;
-import java.util.HexFormat;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Supplier;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyServiceImpl.class);
+
     private final IdempotencyKeyRepository repo;
     private final QuoteLookupService quoteLookupService;
+    private final TransactionStages stages;
+    private final RequestFingerprinter fingerprinter;
+    private final ObjectMapper objectMapper;
     private final long ttlSeconds;
+    private final Duration claimLease;
+    private final long claimWaitNanos;
+    private final long claimPollMs;
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+    private final Counter coalesced;
+    private final Counter claimWaits;
+    private final Counter claimTimeouts;
+    private final ConcurrentMap<UUID, InFlight> inFlight = new ConcurrentHashMap<>();
 
     public IdempotencyServiceImpl(IdempotencyKeyRepository repo,
                                      QuoteLookupService quoteLookupService,
-                                     @Value("${idempotency.ttlSeconds}") long ttlSeconds) {
+                                     TransactionStages stages,
+                                     RequestFingerprinter fingerprinter,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${idempotency.ttlSeconds}") long ttlSeconds,
+                                     @Value("${app.idempotency.claim.lease-ms:30000}") long claimLeaseMs,
+                                     @Value("${app.idempotency.claim.wait-ms:2000}") long claimWaitMs,
+                                     @Value("${app.idempotency.claim.poll-ms:50}") long claimPollMs) {
         this.repo = repo;
         this.quoteLookupService = quoteLookupService;
+        this.stages = stages;
+        this.fingerprinter = fingerprinter;
+        this.objectMapper = objectMapper;
         this.ttlSeconds = ttlSeconds;
+        this.claimLease = Duration.ofMillis(claimLeaseMs);
+        this.claimWaitNanos = TimeUnit.MILLISECONDS.toNanos(claimWaitMs);
+        this.claimPollMs = claimPollMs;
+        this.snapshotHits = replayCounter(meterRegistry, "hit");
+        this.snapshotMisses = replayCounter(meterRegistry, "miss");
+        this.coalesced = concurrentCounter(meterRegistry, "coalesced");
+        this.claimWaits = concurrentCounter(meterRegistry, "waited");
+        this.claimTimeouts = concurrentCounter(meterRegistry, "in_progress");
     }
 
     @Override
-    @Transactional
-    public IdempotencyResult getOrCompute(UUID key, QuoteCreateRequest request, Supplier<QuoteResponse> supplier) {
-        String hash = sha256(request.toString());
-
-        Optional<IdempotencyKeyEntity> existingOpt = repo.findById(key);
-        if (existingOpt.isPresent()) {
-            var existing = existingOpt.get();
-            if (existing.getExpiresAt().isAfter(OffsetDateTime.now())) {
-                if (!existing.getRequestHash().equals(hash)) {
-                    throw new IdempotencyConflictException(key.toString());
+    public IdempotencyResult getOrCompute(UUID key, QuoteCreateRequest request, StagedComputation computation) {
+        byte[] fingerprint = fingerprinter.fingerprint(request);
+
+        // Single flight per pod: a concurrent retry of the same key waits for the first caller's outcome instead of
+        // pricing and inserting the quote a second time.
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            return follow(key, fingerprint, leader);
+        }
+
+        try {
+            IdempotencyResult result = claimOrReplay(key, fingerprint, computation);
+            mine.result().complete(result);
+            return result;
+        } catch (Throwable ex) {
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private IdempotencyResult follow(UUID key, byte[] fingerprint, InFlight leader) {
+        if (!MessageDigest.isEqual(leader.fingerprint(), fingerprint)) {
+            throw new IdempotencyConflictException(key.toString());
+        }
+        coalesced.increment();
+        try {
+            IdempotencyResult shared = leader.result().join();
+            return new IdempotencyResult(shared.quote(), shared.responseBody(), true);
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    // Cross-pod single flight: the first request inserts a PENDING row before computing, so a duplicate on another
+    // pod finds the claim and polls for the result (or gets 409 in-progress) instead of computing again.
+    private IdempotencyResult claimOrReplay(UUID key, byte[] fingerprint, StagedComputation computation) {
+        long deadline = System.nanoTime() + claimWaitNanos;
+        boolean waited = false;
+        while (true) {
+            Lookup lookup = stages.inReadOnlyTransaction("idempotency_check",
+                    () -> classify(key, fingerprint, repo.findById(key).orElse(null)));
+            if (lookup.replay() != null) {
+                return lookup.replay();
+            }
+            if (!lookup.pending() && claim(key, fingerprint, lookup.expired())) {
+                return computeClaimed(key, computation);
+            }
+
+            if (!waited) {
+                waited = true;
+                claimWaits.increment();
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                claimTimeouts.increment();
+                throw new IdempotencyInProgressException(key.toString());
+            }
+            try {
+                Thread.sleep(claimPollMs);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyInProgressException(key.toString());
+            }
+        }
+    }
+
+    private boolean claim(UUID key, byte[] fingerprint, boolean replaceExpired) {
+        try {
+            return stages.inTransaction("idempotency_claim", () -> {
+                OffsetDateTime now = OffsetDateTime.now();
+                if (replaceExpired && repo.deleteIfExpired(key, now) == 0) {
+                    return false;
                 }
-                QuoteResponse replay = quoteLookupService.getQuoteResponse(existing.getQuoteId());
-                return new IdempotencyResult(replay, true);
+                repo.saveAndFlush(pendingRecord(key, fingerprint, now));
+                return true;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // Lost the insert race to a concurrent claimant.
+            return false;
+        }
+    }
+
+    private IdempotencyResult computeClaimed(UUID key, StagedComputation computation) {
+        try {
+            QuoteResponse created = computation.compute(response -> completeClaim(key, response));
+            return new IdempotencyResult(created, false);
+        } catch (IdempotencyInProgressException ex) {
+            // The claim was taken over while this request computed; the row belongs to the new claimant.
+            throw ex;
+        } catch (RuntimeException ex) {
+            // Nothing was persisted: drop the claim so the client's retry computes instead of waiting out the lease.
+            releaseClaims(List.of(key), ex);
+            throw ex;
+        }
+    }
+
+    private void releaseClaims(List<UUID> keys, RuntimeException failure) {
+        try {
+            stages.inTransaction("idempotency_release", () -> {
+                keys.forEach(repo::releaseClaim);
+                return null;
+            });
+        } catch (RuntimeException releaseFailure) {
+            log.warn("idempotency.claim_release_failed keys={}", keys, releaseFailure);
+            if (failure != null) failure.addSuppressed(releaseFailure);
+        }
+    }
+
+    private void completeClaim(UUID key, QuoteResponse created) {
+        OffsetDateTime now = OffsetDateTime.now();
+        int updated = repo.completeClaim(key, UUID.fromString(created.id()), snapshot(created),
+                now, now.plusSeconds(ttlSeconds));
+        if (updated == 0) {
+            // Our claim outlived its lease and another request replaced it; roll this quote back rather than leave
+            // it orphaned next to the other claimant's.
+            throw new IdempotencyInProgressException(key.toString());
+        }
+    }
+
+    @Override
+    public List<BatchEntryResult> getOrComputeBatch(List<KeyedRequest> entries, BatchComputation computation) {
+        int size = entries.size();
+        byte[][] fingerprints = new byte[size][];
+        for (int i = 0; i < size; i++) {
+            fingerprints[i] = fingerprinter.fingerprint(entries.get(i).request());
+        }
+        BatchEntryResult[] results = new BatchEntryResult[size];
+        Set<UUID> expired = new HashSet<>();
+
+        stages.inReadOnlyTransaction("idempotency_check", () -> {
+            Set<UUID> keys = new HashSet<>();
+            entries.forEach(e -> keys.add(e.key()));
+            Map<UUID, IdempotencyKeyEntity> existing = new HashMap<>();
+            repo.findAllById(keys).forEach(row -> existing.put(row.getIdempotencyKey(), row));
+
+            for (int i = 0; i < size; i++) {
+                UUID key = entries.get(i).key();
+                IdempotencyKeyEntity row = existing.get(key);
+                if (row == null) continue;
+                try {
+                    Lookup lookup = classify(key, fingerprints[i], row);
+                    if (lookup.replay() != null) {
+                        results[i] = new BatchEntryResult(key, Outcome.REPLAYED, replayedQuote(lookup.replay()), null);
+                    } else if (lookup.pending()) {
+                        results[i] = new BatchEntryResult(key, Outcome.CONFLICT, null,
+                                new IdempotencyInProgressException(key.toString()).getMessage());
+                    } else {
+                        expired.add(key);
+                    }
+                } catch (IdempotencyConflictException ex) {
+                    results[i] = new BatchEntryResult(key, Outcome.CONFLICT, null, ex.getMessage());
+                }
+            }
+            return null;
+        });
+
+        // A key repeated inside the batch behaves like a retry of its first occurrence: replay if the body matches,
+        // conflict otherwise. Only first occurrences are computed.
+        List<Integer> pending = new ArrayList<>();
+        Map<UUID, Integer> firstOccurrence = new HashMap<>();
+        Map<Integer, Integer> duplicates = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (results[i] != null) continue;
+            UUID key = entries.get(i).key();
+            Integer first = firstOccurrence.putIfAbsent(key, i);
+            if (first == null) {
+                pending.add(i);
+            } else if (MessageDigest.isEqual(fingerprints[first], fingerprints[i])) {
+                duplicates.put(i, first);
+            } else {
+                results[i] = new BatchEntryResult(key, Outcome.CONFLICT, null,
+                        new IdempotencyConflictException(key.toString()).getMessage());
+            }
+        }
+
+        // Claimed like the single path before anything is priced, so a concurrent request for the same key (bulk or
+        // single, any pod) waits for this one or conflicts instead of computing it again.
+        Map<UUID, byte[]> toClaim = new LinkedHashMap<>();
+        pending.forEach(i -> toClaim.put(entries.get(i).key(), fingerprints[i]));
+        Set<UUID> claimed = toClaim.isEmpty() ? Set.of() : claimAll(toClaim, expired);
+        List<Integer> computable = new ArrayList<>();
+        for (int i : pending) {
+            UUID key = entries.get(i).key();
+            if (claimed.contains(key)) {
+                computable.add(i);
+            } else {
+                results[i] = new BatchEntryResult(key, Outcome.CONFLICT, null,
+                        new IdempotencyInProgressException(key.toString()).getMessage());
+            }
+        }
+        if (!computable.isEmpty()) {
+            computeClaimedBatch(entries, computable, computation, results);
+        }
+
+        duplicates.forEach((i, first) -> {
+            BatchEntryResult original = results[first];
+            results[i] = original.outcome() == Outcome.CREATED
+                    ? new BatchEntryResult(original.key(), Outcome.REPLAYED, original.quote(), null)
+                    : original;
+        });
+        return List.of(results);
+    }
+
+    // One transaction for the whole batch; if any insert loses a race, each key is claimed on its own so only that one
+    // is lost. An expired row another request replaced first is not claimed.
+    private Set<UUID> claimAll(Map<UUID, byte[]> keys, Set<UUID> expired) {
+        if (keys.size() > 1) {
+            try {
+                return stages.inTransaction("idempotency_claim", () -> {
+                    OffsetDateTime now = OffsetDateTime.now();
+                    Set<UUID> claimed = new HashSet<>();
+                    List<IdempotencyKeyEntity> claims = new ArrayList<>(keys.size());
+                    keys.forEach((key, fingerprint) -> {
+                        if (expired.contains(key) && repo.deleteIfExpired(key, now) == 0) return;
+                        claims.add(pendingRecord(key, fingerprint, now));
+                        claimed.add(key);
+                    });
+                    repo.saveAllAndFlush(claims);
+                    return claimed;
+                });
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("idempotency.batch_claim_failed size={} claiming individually", keys.size());
+            }
+        }
+        Set<UUID> claimed = new HashSet<>();
+        keys.forEach((key, fingerprint) -> {
+            if (claim(key, fingerprint, expired.contains(key))) claimed.add(key);
+        });
+        return claimed;
+    }
+
+    private void computeClaimedBatch(List<KeyedRequest> entries, List<Integer> claimed, BatchComputation computation,
+                                     BatchEntryResult[] results) {
+        List<QuoteCreateRequest> requests = claimed.stream().map(i -> entries.get(i).request()).toList();
+        List<UUID> keys = claimed.stream().map(i -> entries.get(i).key()).toList();
+        List<QuoteApplicationService.BatchOutcome> outcomes;
+        try {
+            outcomes = computation.compute(requests, created ->
+                    created.forEach(c -> completeClaim(keys.get(c.index()), c.quote())));
+        } catch (RuntimeException ex) {
+            releaseClaims(keys, ex);
+            throw ex;
+        }
+
+        List<UUID> unused = new ArrayList<>();
+        for (int j = 0; j < claimed.size(); j++) {
+            UUID key = keys.get(j);
+            RuntimeException error = outcomes.get(j).error();
+            if (error == null) {
+                results[claimed.get(j)] = new BatchEntryResult(key, Outcome.CREATED, outcomes.get(j).quote(), null);
+            } else if (error instanceof IdempotencyInProgressException) {
+                // The claim was taken over while this entry computed; the row belongs to the new claimant.
+                results[claimed.get(j)] = new BatchEntryResult(key, Outcome.CONFLICT, null, error.getMessage());
+            } else {
+                results[claimed.get(j)] = new BatchEntryResult(key, Outcome.FAILED, null, errorMessage(error));
+                unused.add(key);
             }
         }
+        if (!unused.isEmpty()) {
+            releaseClaims(unused, null);
+        }
+    }
+
+    private Lookup classify(UUID key, byte[] fingerprint, IdempotencyKeyEntity existing) {
+        if (existing == null) return Lookup.NONE;
+
+        // Expired rows include PENDING claims whose owner died before completing; they can be claimed again.
+        if (!existing.getExpiresAt().isAfter(OffsetDateTime.now())) return Lookup.EXPIRED;
+
+        // Rows written before request_fingerprint existed have no fingerprint to compare; replay them rather than
+        // risk a duplicate quote, until they age out of the TTL window.
+        byte[] stored = existing.getRequestFingerprint();
+        if (stored != null && !MessageDigest.isEqual(stored, fingerprint)) {
+            throw new IdempotencyConflictException(key.toString());
+        }
 
-        QuoteResponse created = supplier.get();
+        if (existing.isPending()) return Lookup.PENDING;
 
+        if (existing.getResponseSnapshot() != null) {
+            snapshotHits.increment();
+            return new Lookup(new IdempotencyResult(null, existing.getResponseSnapshot(), true), false, false);
+        }
+        snapshotMisses.increment();
+        return new Lookup(new IdempotencyResult(quoteLookupService.getQuoteResponse(existing.getQuoteId()), true), false, false);
+    }
+
+    private IdempotencyKeyEntity pendingRecord(UUID key, byte[] fingerprint, OffsetDateTime now) {
         IdempotencyKeyEntity entity = new IdempotencyKeyEntity();
         entity.setIdempotencyKey(key);
-        entity.setRequestHash(hash);
-        entity.setQuoteId(UUID.fromString(created.id()));
-        entity.setCreatedAt(OffsetDateTime.now());
-        entity.setExpiresAt(OffsetDateTime.now().plusSeconds(ttlSeconds));
-        repo.save(entity);
+        entity.setRequestFingerprint(fingerprint);
+        entity.setStatus(IdempotencyKeyEntity.Status.PENDING);
+        entity.setCreatedAt(now);
+        entity.setExpiresAt(now.plus(claimLease));
+        return entity;
+    }
+
+    private QuoteResponse replayedQuote(IdempotencyResult replay) {
+        if (replay.quote() != null) return replay.quote();
+        try {
+            return objectMapper.readValue(replay.responseBody(), QuoteResponse.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read stored quote response", e);
+        }
+    }
 
-        return new IdempotencyResult(created, false);
+    private static String errorMessage(RuntimeException ex) {
+        return ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
     }
 
-    private String sha256(String input) {
+    private byte[] snapshot(QuoteResponse response) {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            return HexFormat.of().formatHex(md.digest(input.getBytes(StandardCharsets.UTF_8)));
-        } catch (Exception e) {
-            throw new IllegalStateException("Hash error", e);
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to snapshot quote response", e);
         }
     }
+
+    private static Counter replayCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.replay.snapshot")
+                .description("Idempotent replays served from the stored response snapshot (hit) or rebuilt from the quote (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter concurrentCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("idempotency.concurrent")
+                .description("Requests that found their Idempotency-Key already in flight: shared this pod's computation "
+                        + "(coalesced), waited on another pod's claim (waited), or gave up waiting with 409 (in_progress)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Either a replay to return, an expired row to replace with a new claim, or a live claim held by another request;
+    // all empty for a new key.
+    private record Lookup(IdempotencyResult replay, boolean expired, boolean pending) {
+        static final Lookup NONE = new Lookup(null, false, false);
+        static final Lookup EXPIRED = new Lookup(null, true, false);
+        static final Lookup PENDING = new Lookup(null, false, true);
+    }
+
+    private record InFlight(byte[] fingerprint, CompletableFuture<IdempotencyResult> result) {}
 }
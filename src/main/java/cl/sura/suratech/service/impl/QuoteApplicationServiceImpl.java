@@ -1,5 +1,8 @@
 package cl.sura.suratech.service.impl;
 
+import cl.sura.suratech.common.IdGenerator;
+import cl.sura.suratech.common.Money;
+import cl.sura.suratech.common.TransactionStages;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.dto.QuoteResponse;
 import cl.sura.suratech.entity.QuoteEntity;
@@ -10,37 +13,171 @@ import cl.sura.suratech.mapper.QuoteMapper;
 import cl.sura.suratech.repository.QuoteRepository;
 import cl.sura.suratech.service.AggregationService;
 import cl.sura.suratech.service.QuoteApplicationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 @Service
 public class QuoteApplicationServiceImpl implements QuoteApplicationService {
 
+    private static final Logger log = LoggerFactory.getLogger(QuoteApplicationServiceImpl.class);
+
     private final AggregationService aggregationService;
     private final QuoteRepository quoteRepository;
     private final QuoteIssuedOutboxService quoteIssuedOutboxService;
     private final QuoteMapper mapper;
+    private final TransactionStages stages;
+    private final IdGenerator idGenerator;
+    private final int aggregateConcurrency;
+    private final int persistChunkSize;
 
     public QuoteApplicationServiceImpl(AggregationService aggregationService,
                                        QuoteRepository quoteRepository,
                                        QuoteIssuedOutboxService quoteIssuedOutboxService,
-                                       QuoteMapper mapper) {
+                                       QuoteMapper mapper,
+                                       TransactionStages stages,
+                                       IdGenerator idGenerator,
+                                       @Value("${app.quotes.bulk.aggregate-concurrency:16}") int aggregateConcurrency,
+                                       @Value("${app.quotes.bulk.persist-chunk-size:100}") int persistChunkSize) {
         this.aggregationService = aggregationService;
         this.quoteRepository = quoteRepository;
         this.quoteIssuedOutboxService = quoteIssuedOutboxService;
         this.mapper = mapper;
+        this.stages = stages;
+        this.idGenerator = idGenerator;
+        this.aggregateConcurrency = aggregateConcurrency;
+        this.persistChunkSize = persistChunkSize;
     }
 
     @Override
-    @Transactional
     public QuoteResponse createQuote(QuoteCreateRequest request) {
-        var agg = aggregationService.aggregate(request);
+        return createQuote(request, response -> {});
+    }
+
+    @Override
+    public QuoteResponse createQuote(QuoteCreateRequest request, Consumer<QuoteResponse> inPersistTransaction) {
+        // Pricing/tax may retry with backoff; keep that outside any transaction so no pooled connection waits on it.
+        var agg = stages.withoutTransaction("aggregate", () -> aggregationService.aggregate(request));
+
+        return stages.inTransaction("persist", () -> {
+            QuoteResponse response = persist(request, agg);
+            inPersistTransaction.accept(response);
+            return response;
+        });
+    }
+
+    @Override
+    public List<BatchOutcome> createQuotes(List<QuoteCreateRequest> requests, Consumer<List<Created>> inPersistTransaction) {
+        BatchOutcome[] outcomes = new BatchOutcome[requests.size()];
+        AggregationService.AggregationResult[] aggs = aggregateAll(requests, outcomes);
 
-        UUID quoteId = UUID.randomUUID();
+        List<Integer> ready = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (aggs[i] != null) ready.add(i);
+        }
+        for (int from = 0; from < ready.size(); from += persistChunkSize) {
+            persistChunk(requests, aggs, ready.subList(from, Math.min(from + persistChunkSize, ready.size())),
+                    inPersistTransaction, outcomes);
+        }
+        return List.of(outcomes);
+    }
+
+    // Same shape as the single path: every pricing/tax call happens before any transaction opens. The semaphore keeps
+    // a burst within the client concurrency limits (which reject rather than queue) instead of failing most of the batch.
+    private AggregationService.AggregationResult[] aggregateAll(List<QuoteCreateRequest> requests, BatchOutcome[] outcomes) {
+        AggregationService.AggregationResult[] aggs = new AggregationService.AggregationResult[requests.size()];
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Semaphore permits = new Semaphore(aggregateConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests.size(); i++) {
+                int index = i;
+                executor.submit(() -> {
+                    if (mdc != null) MDC.setContextMap(mdc);
+                    try {
+                        permits.acquire();
+                        try {
+                            aggs[index] = stages.withoutTransaction("aggregate",
+                                    () -> aggregationService.aggregate(requests.get(index)));
+                        } finally {
+                            permits.release();
+                        }
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        outcomes[index] = new BatchOutcome(null, new IllegalStateException("Aggregation interrupted", ex));
+                    } catch (RuntimeException ex) {
+                        outcomes[index] = new BatchOutcome(null, ex);
+                    } finally {
+                        MDC.clear();
+                    }
+                });
+            }
+        }
+        return aggs;
+    }
+
+    private void persistChunk(List<QuoteCreateRequest> requests,
+                              AggregationService.AggregationResult[] aggs,
+                              List<Integer> chunk,
+                              Consumer<List<Created>> inPersistTransaction,
+                              BatchOutcome[] outcomes) {
+        try {
+            List<Created> created = stages.inTransaction("persist", () -> {
+                OffsetDateTime now = OffsetDateTime.now();
+                List<QuoteEntity> entities = new ArrayList<>(chunk.size());
+                List<QuoteIssuedEvent> events = new ArrayList<>(chunk.size());
+                for (int i : chunk) {
+                    QuoteEntity entity = toEntity(requests.get(i), aggs[i], now);
+                    entities.add(entity);
+                    events.add(toEvent(entity, aggs[i], now));
+                }
+
+                quoteRepository.saveAll(entities);
+                quoteIssuedOutboxService.enqueueQuoteIssuedAll(events);
+
+                List<Created> responses = new ArrayList<>(chunk.size());
+                for (int k = 0; k < chunk.size(); k++) {
+                    responses.add(new Created(chunk.get(k), mapper.toResponse(entities.get(k))));
+                }
+                inPersistTransaction.accept(responses);
+                return responses;
+            });
+            created.forEach(c -> outcomes[c.index()] = new BatchOutcome(c.quote(), null));
+        } catch (RuntimeException ex) {
+            if (chunk.size() == 1) {
+                outcomes[chunk.get(0)] = new BatchOutcome(null, ex);
+                return;
+            }
+            // One bad entry (e.g. its idempotency key was claimed by a concurrent request) rolls back the whole
+            // chunk; retry entry by entry so only that entry fails.
+            log.warn("quotes.bulk.chunk_failed size={} retrying individually", chunk.size(), ex);
+            for (int i : chunk) {
+                persistChunk(requests, aggs, List.of(i), inPersistTransaction, outcomes);
+            }
+        }
+    }
+
+    private QuoteResponse persist(QuoteCreateRequest request, AggregationService.AggregationResult agg) {
         OffsetDateTime now = OffsetDateTime.now();
+        QuoteEntity saved = quoteRepository.save(toEntity(request, agg, now));
+        quoteIssuedOutboxService.enqueueQuoteIssued(toEvent(saved, agg, now));
+        return mapper.toResponse(saved);
+    }
+
+    private QuoteEntity toEntity(QuoteCreateRequest request, AggregationService.AggregationResult agg, OffsetDateTime now) {
+        UUID quoteId = idGenerator.next();
 
         QuoteEntity entity = new QuoteEntity();
         entity.setId(quoteId);
@@ -52,6 +189,9 @@ public class QuoteApplicationServiceImpl implements QuoteApplicationService {
         entity.setSubtotal(agg.subtotal());
         entity.setTaxTotal(agg.taxTotal());
         entity.setGrandTotal(agg.grandTotal());
+        entity.setSubtotalMinor(agg.subtotalMinor());
+        entity.setTaxTotalMinor(agg.taxTotalMinor());
+        entity.setGrandTotalMinor(agg.grandTotalMinor());
         entity.setExpiresAt(request.expiresAt());
         entity.setCreatedAt(now);
         entity.setUpdatedAt(now);
@@ -63,38 +203,39 @@ public class QuoteApplicationServiceImpl implements QuoteApplicationService {
             item.setSku(it.sku());
             item.setName(it.name());
             item.setQuantity(it.quantity());
-            item.setUnitPrice(it.unitPrice());
-            item.setTaxRate(it.taxRate());
-            item.setLineTotal(it.lineTotal());
-            item.setTaxAmount(it.taxAmount());
+            item.setUnitPrice(Money.toMajor(it.unitPriceMinor(), agg.currency()));
+            item.setTaxRate(Money.toRate(it.taxRatePpm()));
+            item.setLineTotal(Money.toMajor(it.lineTotalMinor(), agg.currency()));
+            item.setTaxAmount(Money.toMajor(it.taxAmountMinor(), agg.currency()));
+            item.setUnitPriceMinor(it.unitPriceMinor());
+            item.setTaxRatePpm(it.taxRatePpm());
+            item.setLineTotalMinor(it.lineTotalMinor());
+            item.setTaxAmountMinor(it.taxAmountMinor());
             entity.getItems().add(item);
         }
+        return entity;
+    }
 
-        QuoteEntity saved = quoteRepository.save(entity);
-
-        var event = new QuoteIssuedEvent(
+    private static QuoteIssuedEvent toEvent(QuoteEntity saved, AggregationService.AggregationResult agg, OffsetDateTime now) {
+        return new QuoteIssuedEvent(
                 saved.getId().toString(),
                 now,
                 new QuoteIssuedEvent.Customer(saved.getCustomerId()),
                 saved.getCurrency(),
-                new QuoteIssuedEvent.Totals(saved.getSubtotal(), saved.getTaxTotal(), saved.getGrandTotal()),
+                new QuoteIssuedEvent.Totals(agg.subtotal(), agg.taxTotal(), agg.grandTotal()),
                 agg.items().stream()
                         .map(it -> new QuoteIssuedEvent.Item(
                                 it.sku(),
                                 it.name(),
                                 it.quantity(),
-                                it.unitPrice(),
-                                it.taxRate(),
-                                it.lineTotal(),
-                                it.taxAmount()
+                                Money.toMajor(it.unitPriceMinor(), agg.currency()),
+                                Money.toRate(it.taxRatePpm()),
+                                Money.toMajor(it.lineTotalMinor(), agg.currency()),
+                                Money.toMajor(it.taxAmountMinor(), agg.currency())
                         ))
                         .toList(),
                 null,
                 1
         );
-
-        quoteIssuedOutboxService.enqueueQuoteIssued(event);
-
-        return mapper.toResponse(saved);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+package cl.sura.suratech.service.impl;
+
+import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.dto.RawJson;
+import cl.sura.suratech.service.QuoteExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Keyset pages over ix_quotes_doc_created_id: each page is a fresh, short autocommit query that seeks past the last
+// (document_id, created_at, id) written, so no connection or cursor stays open while the client reads and at most
+// one page of quotes (plus its items) is ever in memory, however large the export is.
+@Service
+public class QuoteExportServiceImpl implements QuoteExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteExportServiceImpl.class);
+
+    private static final String QUOTE_COLUMNS = """
+            SELECT id, document_id, status, currency, customer_id, customer_email, subtotal, tax_total, grand_total,
+                   expires_at, created_at, payload_json
+            FROM quotes
+            """;
+
+    private static final String ITEM_COLUMNS = """
+            SELECT quote_id, sku, name, quantity, unit_price, tax_rate, line_total, tax_amount
+            FROM quote_items
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+    private final Counter exportedRows;
+    private final int pageSize;
+
+    public QuoteExportServiceImpl(DataSource dataSource,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.quotes.export.page-size:500}") int pageSize,
+                                  @Value("${app.quotes.export.fetch-size:500}") int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+        // Flushing after every line would turn each quote into its own socket write; we flush once per page instead.
+        this.lineWriter = objectMapper.writerFor(QuoteResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.exportedRows = Counter.builder("quotes.export.rows")
+                .description("Quotes written by the NDJSON export")
+                .register(meterRegistry);
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public long exportNdjson(ExportFilter filter, OutputStream out) throws IOException {
+        long written = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Cursor cursor = null;
+            while (true) {
+                List<QuoteRow> page = nextPage(filter, cursor);
+                if (page.isEmpty()) break;
+
+                Map<UUID, List<QuoteResponse.Item>> items = itemsOf(page);
+                for (QuoteRow quote : page) {
+                    lineWriter.writeValue(json, quote.toResponse(items.getOrDefault(quote.id(), List.of())));
+                    json.writeRaw('\n');
+                }
+                json.flush();
+                written += page.size();
+                exportedRows.increment(page.size());
+
+                if (page.size() < pageSize) break;
+                QuoteRow last = page.get(page.size() - 1);
+                cursor = new Cursor(last.documentId(), last.createdAt(), last.rawId());
+            }
+        }
+        log.info("quotes.export.completed rows={} filter={}", written, filter);
+        return written;
+    }
+
+    private List<QuoteRow> nextPage(ExportFilter filter, Cursor cursor) {
+        StringBuilder sql = new StringBuilder(QUOTE_COLUMNS).append("WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.documentId() != null) {
+            sql.append(" AND document_id = ?");
+            args.add(filter.documentId());
+        }
+        if (filter.createdFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(filter.createdTo());
+        }
+        if (cursor != null) {
+            // Expanded form of (document_id, created_at, id) > (?, ?, ?) so the range optimizer can seek on the index.
+            sql.append(" AND (document_id > ? OR (document_id = ? AND (created_at > ? OR (created_at = ? AND id > ?))))");
+            args.add(cursor.documentId());
+            args.add(cursor.documentId());
+            args.add(cursor.createdAt());
+            args.add(cursor.createdAt());
+            args.add(cursor.id());
+        }
+        sql.append(" ORDER BY document_id, created_at, id LIMIT ?");
+        args.add(pageSize);
+
+        return jdbc.query(sql.toString(), (rs, n) -> quoteRow(rs), args.toArray());
+    }
+
+    private Map<UUID, List<QuoteResponse.Item>> itemsOf(List<QuoteRow> page) {
+        String placeholders = String.join(", ", Collections.nCopies(page.size(), "?"));
+        Object[] ids = page.stream().map(QuoteRow::rawId).toArray();
+
+        Map<UUID, List<QuoteResponse.Item>> items = new HashMap<>(page.size() * 2);
+        jdbc.query(ITEM_COLUMNS + "WHERE quote_id IN (" + placeholders + ") ORDER BY id", rs -> {
+            items.computeIfAbsent(uuid(rs.getBytes("quote_id")), id -> new ArrayList<>()).add(new QuoteResponse.Item(
+                    rs.getString("sku"),
+                    rs.getString("name"),
+                    rs.getInt("quantity"),
+                    rs.getDouble("unit_price"),
+                    rs.getDouble("tax_rate"),
+                    rs.getDouble("line_total"),
+                    rs.getDouble("tax_amount")));
+        }, ids);
+        return items;
+    }
+
+    private QuoteRow quoteRow(ResultSet rs) throws SQLException {
+        byte[] rawId = rs.getBytes("id");
+        return new QuoteRow(
+                rawId,
+                uuid(rawId),
+                rs.getString("document_id"),
+                rs.getString("status"),
+                rs.getString("currency"),
+                rs.getString("customer_id"),
+                rs.getString("customer_email"),
+                rs.getDouble("subtotal"),
+                rs.getDouble("tax_total"),
+                rs.getDouble("grand_total"),
+                rs.getObject("expires_at", OffsetDateTime.class),
+                rs.getObject("created_at", OffsetDateTime.class),
+                RawJson.of(rs.getString("payload_json")));
+    }
+
+    private static UUID uuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private record Cursor(String documentId, OffsetDateTime createdAt, byte[] id) {}
+
+    private record QuoteRow(byte[] rawId, UUID id, String documentId, String status, String currency,
+                            String customerId, String customerEmail, double subtotal, double taxTotal,
+                            double grandTotal, OffsetDateTime expiresAt, OffsetDateTime createdAt,
+                            RawJson metadata) {
+
+        QuoteResponse toResponse(List<QuoteResponse.Item> items) {
+            return new QuoteResponse(
+                    id.toString(),
+                    documentId,
+                    status,
+                    currency,
+                    new QuoteResponse.Customer(customerId, customerEmail),
+                    items,
+                    new QuoteResponse.Totals(subtotal, taxTotal, grandTotal),
+                    expiresAt,
+                    createdAt,
+                    metadata);
+        }
+    }
+}
@@ -1,30 +1,129 @@
 package cl.sura.suratech.service.impl;
 
+import cl.sura.suratech.common.TransactionStages;
 import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.exception.QuoteNotFoundException;
 import cl.sura.suratech.repository.QuoteRepository;
 import cl.sura.suratech.service.QuoteLookupService;
+import cl.sura.suratech.mapper.QuoteJsonWriter;
 import cl.sura.suratech.mapper.QuoteMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
 public class QuoteLookupServiceImpl implements QuoteLookupService {
 
+    public static final String CACHE_NAME = "quotes.lookup";
+
     private final QuoteRepository quoteRepository;
     private final QuoteMapper mapper;
+    private final TransactionStages stages;
+    private final QuoteJsonWriter jsonWriter;
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<UUID, SerializedQuote> serialized;
 
     public QuoteLookupServiceImpl(QuoteRepository quoteRepository,
-                                  QuoteMapper mapper) {
+                                  QuoteMapper mapper,
+                                  TransactionStages stages,
+                                  QuoteJsonWriter jsonWriter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.quotes.cache.max-bytes:67108864}") long maxBytes,
+                                  @Value("${app.quotes.cache.expire-after-write-ms:3600000}") long expireAfterWriteMs) {
         this.quoteRepository = quoteRepository;
         this.mapper = mapper;
+        this.stages = stages;
+        this.jsonWriter = jsonWriter;
+        // Issued quotes never change, so entries only leave on size pressure or the safety TTL. Bounded by the bytes
+        // actually held rather than entry count, since item count (and body size) varies by two orders of magnitude.
+        // Async so that loads run on their own virtual thread: a synchronous loader runs inside the map's bin lock
+        // (synchronized), which would pin the caller's carrier thread for the whole DB round trip.
+        this.serialized = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((UUID id, SerializedQuote q) -> q.body().length)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .executor(loadExecutor)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, serialized, CACHE_NAME);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public QuoteResponse getQuoteResponse(UUID quoteId) {
-        var quote = quoteRepository.findById(quoteId)
-                .orElseThrow(() -> new IllegalStateException("Quote not found: " + quoteId));
+        return mapper.toResponse(find(quoteId));
+    }
+
+    @Override
+    public SerializedQuote getSerializedQuote(UUID quoteId) {
+        // Misses load in a short read-only transaction, once per id however many callers miss together; hits touch
+        // no connection at all. A failed load (including not-found) is never cached.
+        CompletableFuture<SerializedQuote> quote = serialized.get(quoteId, (id, executor) -> CompletableFuture.supplyAsync(
+                () -> stages.inReadOnlyTransaction("lookup", () -> serialize(find(id))), executor));
+        try {
+            return quote.join();
+        } catch (CompletionException ex) {
+            // Caffeine drops failed futures asynchronously; remove it now so the next call retries the load.
+            serialized.asMap().remove(quoteId, quote);
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loadExecutor.shutdown();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QuoteResponse> getLatestByDocumentIds(Collection<String> documentIds) {
+        // Two statements regardless of batch size: rank ids on the index, then fetch those quotes with their items.
+        List<UUID> ids = quoteRepository.findLatestIdPerDocument(documentIds.stream().distinct().toList()).stream()
+                .map(UUID::fromString)
+                .toList();
+        if (ids.isEmpty()) return List.of();
+
+        return quoteRepository.findAllWithItemsByIdIn(ids).stream()
+                .sorted(Comparator.comparing(QuoteEntity::getDocumentId))
+                .map(mapper::toResponse)
+                .toList();
+    }
+
+    private QuoteEntity find(UUID quoteId) {
+        return quoteRepository.findWithItemsById(quoteId)
+                .orElseThrow(() -> new QuoteNotFoundException(quoteId));
+    }
+
+    private SerializedQuote serialize(QuoteEntity quote) {
+        byte[] body = jsonWriter.toBytes(quote);
+        return new SerializedQuote(body, etag(body));
+    }
 
-        return mapper.toResponse(quote);
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
-}
\ No newline at end of file
+}
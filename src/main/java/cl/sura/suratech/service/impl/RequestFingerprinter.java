@@ -0,0 +1,177 @@
+package cl.sura.suratech.service.impl;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Canonical SHA-256 of a QuoteCreateRequest. Fields are streamed straight into the digest (length-prefixed, with
+// null markers) instead of hashing record toString(), metadata is hashed in key order, and timestamps are hashed
+// as instants, so equivalent bodies always produce the same 32-byte fingerprint.
+@Component
+public class RequestFingerprinter {
+
+    public static final int FINGERPRINT_BYTES = 32;
+
+    private static final int POOL_SLOTS = 16;
+    private static final int BUFFER_BYTES = 512;
+
+    private final MessageDigest prototype;
+    private final AtomicReferenceArray<Hasher> pool = new AtomicReferenceArray<>(POOL_SLOTS);
+
+    public RequestFingerprinter() {
+        try {
+            this.prototype = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public byte[] fingerprint(QuoteCreateRequest request) {
+        Hasher h = acquire();
+        try {
+            h.string(request.documentId());
+            customer(h, request.customer());
+            h.string(request.currency());
+            items(h, request.items());
+            instant(h, request.expiresAt());
+            metadata(h, request.metadata());
+            return h.finish();
+        } finally {
+            release(h);
+        }
+    }
+
+    private static void customer(Hasher h, QuoteCreateRequest.Customer customer) {
+        if (h.nullMarker(customer)) return;
+        h.string(customer.id());
+        h.string(customer.email());
+    }
+
+    private static void items(Hasher h, List<QuoteCreateRequest.Item> items) {
+        if (h.nullMarker(items)) return;
+        h.int32(items.size());
+        for (QuoteCreateRequest.Item item : items) {
+            if (h.nullMarker(item)) continue;
+            h.string(item.sku());
+            h.string(item.name());
+            if (!h.nullMarker(item.quantity())) h.int32(item.quantity());
+            if (!h.nullMarker(item.unitPrice())) h.decimal(item.unitPrice());
+            if (!h.nullMarker(item.taxRate())) h.decimal(item.taxRate());
+        }
+    }
+
+    private static void instant(Hasher h, OffsetDateTime value) {
+        if (h.nullMarker(value)) return;
+        h.int64(value.toEpochSecond());
+        h.int32(value.getNano());
+    }
+
+    private static void metadata(Hasher h, Map<String, String> metadata) {
+        if (h.nullMarker(metadata)) return;
+        String[] keys = metadata.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        h.int32(keys.length);
+        for (String key : keys) {
+            h.string(key);
+            h.string(metadata.get(key));
+        }
+    }
+
+    private Hasher acquire() {
+        int start = ThreadLocalRandom.current().nextInt(POOL_SLOTS);
+        for (int i = 0; i < POOL_SLOTS; i++) {
+            Hasher h = pool.getAndSet((start + i) % POOL_SLOTS, null);
+            if (h != null) return h;
+        }
+        return new Hasher(cloneDigest());
+    }
+
+    private void release(Hasher h) {
+        h.reset();
+        int start = ThreadLocalRandom.current().nextInt(POOL_SLOTS);
+        for (int i = 0; i < POOL_SLOTS; i++) {
+            if (pool.compareAndSet((start + i) % POOL_SLOTS, null, h)) return;
+        }
+    }
+
+    private MessageDigest cloneDigest() {
+        try {
+            return (MessageDigest) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest is not cloneable", e);
+        }
+    }
+
+    private static final class Hasher {
+        private final MessageDigest digest;
+        private final byte[] buffer = new byte[BUFFER_BYTES];
+        private int pos;
+
+        private Hasher(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        boolean nullMarker(Object value) {
+            ensure(1);
+            buffer[pos++] = (byte) (value == null ? 0 : 1);
+            return value == null;
+        }
+
+        void string(String value) {
+            if (nullMarker(value)) return;
+            int length = value.length();
+            int32(length);
+            for (int i = 0; i < length; i++) {
+                ensure(2);
+                char c = value.charAt(i);
+                buffer[pos++] = (byte) (c >>> 8);
+                buffer[pos++] = (byte) c;
+            }
+        }
+
+        void decimal(double value) {
+            // +0.0 folds -0.0 into 0.0 so numerically equal JSON values hash the same.
+            int64(Double.doubleToLongBits(value + 0.0));
+        }
+
+        void int32(int value) {
+            ensure(4);
+            buffer[pos++] = (byte) (value >>> 24);
+            buffer[pos++] = (byte) (value >>> 16);
+            buffer[pos++] = (byte) (value >>> 8);
+            buffer[pos++] = (byte) value;
+        }
+
+        void int64(long value) {
+            int32((int) (value >>> 32));
+            int32((int) value);
+        }
+
+        byte[] finish() {
+            flush();
+            return digest.digest();
+        }
+
+        void reset() {
+            pos = 0;
+            digest.reset();
+        }
+
+        private void ensure(int bytes) {
+            if (pos + bytes > buffer.length) flush();
+        }
+
+        private void flush() {
+            digest.update(buffer, 0, pos);
+            pos = 0;
+        }
+    }
+}
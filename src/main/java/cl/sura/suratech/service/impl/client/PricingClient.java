@@ -1,11 +1,19 @@
 package cl.sura.suratech.service.impl.client;
 
+import cl.sura.suratech.common.CurrencyRules;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.service.AggregationService;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface PricingClient {
     PricingResult price(QuoteCreateRequest request);
-    record PricingResult(List<AggregationService.ItemComputed> items) {}
+
+    // Catalog unit price per SKU in minor units of the currency, independent of any quote. SKUs the catalog does not
+    // know are absent from the result.
+    Map<String, Long> unitPrices(String currency, Set<String> skus);
+
+    record PricingResult(CurrencyRules currency, List<AggregationService.ItemComputed> items) {}
 }
@@ -0,0 +1,53 @@
+package cl.sura.suratech.service.impl.client;
+
+import cl.sura.suratech.service.impl.client.impl.BatchingPricingClient;
+import cl.sura.suratech.service.impl.client.impl.CachingPricingClient;
+import cl.sura.suratech.service.impl.client.impl.PricingClientHttpImpl;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+@ConditionalOnExpression("${app.pricing.cache.enabled:false} or ${app.pricing.batch.enabled:false}")
+public class PricingClientConfig {
+
+    // Decorates the Resilience4j-proxied backend bean, so cache misses, refreshes and batches still go through its
+    // circuit breaker, retry and concurrency limit. The cache sits outside the batcher: only misses are batched. Both
+    // price quotes from the backend's catalog lookup (unitPrices), so they need app.pricing.base-url and are only
+    // correct when the backend's unit price depends on (sku, currency) alone.
+    @Bean
+    @Primary
+    PricingClient decoratedPricingClient(
+            PricingClientHttpImpl backend,
+            MeterRegistry meterRegistry,
+            @Value("${app.pricing.base-url:}") String baseUrl,
+            @Value("${app.pricing.batch.enabled:false}") boolean batchEnabled,
+            @Value("${app.pricing.batch.window-ms:2}") long batchWindowMs,
+            @Value("${app.pricing.batch.max-skus:256}") int batchMaxSkus,
+            @Value("${app.pricing.cache.enabled:false}") boolean cacheEnabled,
+            @Value("${app.pricing.cache.max-size:50000}") long maxSize,
+            @Value("${app.pricing.cache.ttl-ms:3600000}") long ttlMs,
+            @Value("${app.pricing.cache.refresh-after-ms:600000}") long refreshAfterMs
+    ) {
+        if (baseUrl.isBlank()) {
+            throw new IllegalStateException("app.pricing.base-url is required when the pricing cache or batching is enabled");
+        }
+        PricingClient client = backend;
+        if (batchEnabled) {
+            client = new BatchingPricingClient(client, meterRegistry, Duration.ofMillis(batchWindowMs), batchMaxSkus);
+        }
+        if (cacheEnabled) {
+            client = new CachingPricingClient(client, meterRegistry, maxSize,
+                    Duration.ofMillis(ttlMs), Duration.ofMillis(refreshAfterMs),
+                    Executors.newVirtualThreadPerTaskExecutor(), Ticker.systemTicker());
+        }
+        return client;
+    }
+}
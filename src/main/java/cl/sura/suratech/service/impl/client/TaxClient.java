@@ -2,5 +2,5 @@ package cl.sura.suratech.service.impl.client;
 
 public interface TaxClient {
     TaxResult calculateTaxes(PricingClient.PricingResult priced);
-    record TaxResult(double taxTotal) {}
+    record TaxResult(long taxTotalMinor) {}
 }
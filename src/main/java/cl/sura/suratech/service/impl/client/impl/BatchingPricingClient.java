@@ -0,0 +1,178 @@
+package cl.sura.suratech.service.impl.client.impl;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.impl.client.PricingClient;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Coalesces catalog lookups from concurrent quotes into one unitPrices call per currency. The first caller to find no
+// open batch opens one and waits up to the window for others to join; whoever closes the batch (the window's owner when
+// it elapses, or the caller that pushes it to max-skus) asks the backend for each distinct SKU once, on its own thread,
+// and completes every waiting caller; each quote is then priced from the catalog prices. The backend's
+// concurrency-limit permit, retries and circuit-breaker outcome are therefore spent per batch. No background thread: an
+// idle client costs nothing.
+public class BatchingPricingClient implements PricingClient {
+
+    public static final String METRIC_PREFIX = "pricing.batch";
+
+    private final PricingClient backend;
+    private final long windowNanos;
+    private final int maxSkus;
+    private final DistributionSummary batchSkus;
+    private final DistributionSummary batchRequests;
+    private final Timer queueDelay;
+
+    // A lock rather than synchronized: callers are virtual threads, and the critical sections are map updates only.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Batch> open = new HashMap<>();
+
+    public BatchingPricingClient(PricingClient backend, MeterRegistry meterRegistry, Duration window, int maxSkus) {
+        this.backend = backend;
+        this.windowNanos = window.toNanos();
+        this.maxSkus = maxSkus;
+        this.batchSkus = DistributionSummary.builder(METRIC_PREFIX + ".skus")
+                .description("Distinct SKUs sent to the pricing backend per batched call")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchRequests = DistributionSummary.builder(METRIC_PREFIX + ".requests")
+                .description("Pricing lookups served by one batched backend call")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder(METRIC_PREFIX + ".queue.delay")
+                .description("Time a pricing lookup waited for its batch to be sent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public PricingResult price(QuoteCreateRequest request) {
+        return SkuPrices.apply(request, unitPrices(request.currency(), SkuPrices.skus(request)));
+    }
+
+    @Override
+    public Map<String, Long> unitPrices(String currency, Set<String> skus) {
+        Waiter waiter = new Waiter(skus, new CompletableFuture<>(), System.nanoTime());
+        Batch batch;
+        boolean owner;
+        boolean full;
+
+        lock.lock();
+        try {
+            batch = open.get(currency);
+            owner = batch == null;
+            if (owner) {
+                batch = new Batch(currency);
+                open.put(currency, batch);
+            }
+            batch.add(waiter);
+            full = batch.skus.size() >= maxSkus;
+            if (full) {
+                open.remove(currency, batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full) {
+            flush(batch);
+            return join(waiter);
+        }
+        if (!owner) {
+            return join(waiter);
+        }
+
+        // Window owner: come back when the batch was sent by someone else, or when the window elapses.
+        try {
+            return waiter.result().get(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            if (close(batch)) {
+                flush(batch);
+            }
+            return join(waiter);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            // Still send the batch: the other callers in it are waiting on this thread.
+            if (close(batch)) {
+                flush(batch);
+            }
+            throw new IllegalStateException("Interrupted while waiting for a pricing batch", ex);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new CompletionException(ex.getCause());
+        }
+    }
+
+    private boolean close(Batch batch) {
+        lock.lock();
+        try {
+            return open.remove(batch.currency, batch);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Runs once per batch, after it was removed from the open map, so nothing is added to it concurrently.
+    private void flush(Batch batch) {
+        long sentAt = System.nanoTime();
+        for (Waiter w : batch.waiters) {
+            queueDelay.record(sentAt - w.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        batchSkus.record(batch.skus.size());
+        batchRequests.record(batch.waiters.size());
+
+        Map<String, Long> prices;
+        try {
+            prices = backend.unitPrices(batch.currency, batch.skus);
+        } catch (Throwable ex) {
+            batch.waiters.forEach(w -> w.result().completeExceptionally(ex));
+            throw ex;
+        }
+        for (Waiter w : batch.waiters) {
+            Map<String, Long> own = new HashMap<>(w.skus().size() * 2);
+            for (String sku : w.skus()) {
+                Long price = prices.get(sku);
+                if (price != null) own.put(sku, price);
+            }
+            w.result().complete(own);
+        }
+    }
+
+    private static Map<String, Long> join(Waiter waiter) {
+        try {
+            return waiter.result().join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private record Waiter(Set<String> skus, CompletableFuture<Map<String, Long>> result, long enqueuedAt) {}
+
+    private static final class Batch {
+        private final String currency;
+        private final List<Waiter> waiters = new ArrayList<>();
+        private final Set<String> skus = new LinkedHashSet<>();
+
+        private Batch(String currency) {
+            this.currency = currency;
+        }
+
+        private void add(Waiter waiter) {
+            waiters.add(waiter);
+            skus.addAll(waiter.skus());
+        }
+    }
+}
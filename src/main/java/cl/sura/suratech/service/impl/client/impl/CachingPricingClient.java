@@ -0,0 +1,87 @@
+package cl.sura.suratech.service.impl.client.impl;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.impl.client.PricingClient;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+// Catalog unit prices per (sku, currency) in front of the pricing backend. Only SKUs missing from the cache are looked
+// up, in one catalog call per quote; lines and tax are then computed locally from the cached unit price and the
+// request's quantity and tax rate, exactly as the backend does. Entries older than refresh-after are reloaded from the
+// catalog in the background on their next read (the stale price is served meanwhile), so hot SKUs never take a cold
+// miss; entries not read for a full TTL expire. Size-bounded with Caffeine's W-TinyLFU (frequency-aware LRU).
+public class CachingPricingClient implements PricingClient {
+
+    public static final String CACHE_NAME = "pricing.sku";
+
+    private final PricingClient backend;
+    private final LoadingCache<SkuKey, Long> prices;
+
+    public CachingPricingClient(PricingClient backend,
+                                MeterRegistry meterRegistry,
+                                long maxSize,
+                                Duration ttl,
+                                Duration refreshAfter,
+                                Executor refreshExecutor,
+                                Ticker ticker) {
+        this.backend = backend;
+        this.prices = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(new CatalogLoader());
+        CaffeineCacheMetrics.monitor(meterRegistry, prices, CACHE_NAME);
+    }
+
+    @Override
+    public PricingResult price(QuoteCreateRequest request) {
+        return SkuPrices.apply(request, unitPrices(request.currency(), SkuPrices.skus(request)));
+    }
+
+    @Override
+    public Map<String, Long> unitPrices(String currency, Set<String> skus) {
+        List<SkuKey> keys = skus.stream().map(sku -> new SkuKey(sku, currency)).toList();
+        Map<String, Long> bySku = new HashMap<>(keys.size() * 2);
+        prices.getAll(keys).forEach((key, price) -> bySku.put(key.sku(), price));
+        return bySku;
+    }
+
+    // Misses of one lookup share a currency, so loadAll is one catalog call; refresh-ahead reloads through load().
+    // A SKU the catalog no longer knows is not cached (and dropped on refresh).
+    private final class CatalogLoader implements CacheLoader<SkuKey, Long> {
+
+        @Override
+        public Long load(SkuKey key) {
+            return backend.unitPrices(key.currency(), Set.of(key.sku())).get(key.sku());
+        }
+
+        @Override
+        public Map<SkuKey, Long> loadAll(Set<? extends SkuKey> keys) {
+            Map<String, Set<String>> byCurrency = new HashMap<>();
+            for (SkuKey key : keys) {
+                byCurrency.computeIfAbsent(key.currency(), c -> new LinkedHashSet<>()).add(key.sku());
+            }
+            Map<SkuKey, Long> loaded = new HashMap<>(keys.size() * 2);
+            byCurrency.forEach((currency, skus) -> backend.unitPrices(currency, skus)
+                    .forEach((sku, price) -> loaded.put(new SkuKey(sku, currency), price)));
+            return loaded;
+        }
+    }
+
+    private record SkuKey(String sku, String currency) {}
+}
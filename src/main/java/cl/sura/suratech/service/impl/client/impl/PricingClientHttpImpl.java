@@ -1,30 +1,121 @@
 package cl.sura.suratech.service.impl.client.impl;
 
+import cl.sura.suratech.common.AdaptiveConcurrencyLimit;
+import cl.sura.suratech.common.CurrencyRules;
+import cl.sura.suratech.common.Money;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.service.AggregationService;
 import cl.sura.suratech.service.impl.client.PricingClient;
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 public class PricingClientHttpImpl implements PricingClient {
 
+    private final String baseUrl;
+    private final RestClient catalog;
+
+    public PricingClientHttpImpl(RestClient.Builder restClientBuilder,
+                                 @Value("${app.pricing.base-url:}") String baseUrl,
+                                 @Value("${app.pricing.timeout-ms:2000}") long timeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build());
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+        this.baseUrl = baseUrl;
+        this.catalog = restClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
     @Override
     @CircuitBreaker(name = "pricing")
     @Retry(name = "pricing")
-    @Bulkhead(name = "pricing", type = Bulkhead.Type.SEMAPHORE)
+    @AdaptiveConcurrencyLimit(name = "pricing")
     public PricingResult price(QuoteCreateRequest request) {
-        var items = request.items().stream().map(it -> {
-            double lineTotal = it.quantity() * it.unitPrice();
-            double taxRate = it.taxRate() == null ? 0 : it.taxRate();
-            return new AggregationService.ItemComputed(
-                    it.sku(), it.name(), it.quantity(), it.unitPrice(), taxRate,
-                    lineTotal, lineTotal * taxRate
-            );
-        }).toList();
-
-        return new PricingResult(items);
+        CurrencyRules currency = CurrencyRules.of(request.currency());
+        List<QuoteCreateRequest.Item> in = request.items();
+        int n = in.size();
+
+        // Inputs are converted to minor units / ppm once; lines and tax are then exact long arithmetic.
+        int[] quantities = new int[n];
+        long[] unitPrices = new long[n];
+        long[] rates = new long[n];
+        for (int i = 0; i < n; i++) {
+            QuoteCreateRequest.Item it = in.get(i);
+            quantities[i] = it.quantity();
+            unitPrices[i] = Money.toMinor(it.unitPrice(), currency);
+            rates[i] = it.taxRate() == null ? 0 : Money.toRatePpm(it.taxRate());
+        }
+        long[] lineTotals = new long[n];
+        long[] taxAmounts = new long[n];
+        Money.lines(quantities, unitPrices, lineTotals, n);
+        Money.taxes(lineTotals, rates, taxAmounts, n, currency.rounding());
+
+        List<AggregationService.ItemComputed> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            QuoteCreateRequest.Item it = in.get(i);
+            items.add(new AggregationService.ItemComputed(
+                    it.sku(), it.name(), quantities[i], unitPrices[i], rates[i], lineTotals[i], taxAmounts[i]));
+        }
+        return new PricingResult(currency, items);
     }
+
+    // GET {base-url}/prices?currency=CLP&sku=A&sku=B -> {"prices":[{"sku":"A","unitPrice":9990.0}, ...]}
+    @Override
+    @CircuitBreaker(name = "pricing")
+    @Retry(name = "pricing")
+    @AdaptiveConcurrencyLimit(name = "pricing")
+    public Map<String, Long> unitPrices(String currency, Set<String> skus) {
+        if (baseUrl.isBlank()) {
+            throw new IllegalStateException("app.pricing.base-url is not set");
+        }
+        if (skus.isEmpty()) return Map.of();
+
+        // SKUs go in as URI variables so that reserved characters are encoded.
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("currency", currency);
+        Object[] skuParams = new Object[skus.size()];
+        int i = 0;
+        for (String sku : skus) {
+            variables.put("sku" + i, sku);
+            skuParams[i] = "{sku" + i + "}";
+            i++;
+        }
+        CatalogPrices response = catalog.get()
+                .uri(uri -> uri.path("/prices")
+                        .queryParam("currency", "{currency}")
+                        .queryParam("sku", skuParams)
+                        .build(variables))
+                .retrieve()
+                .body(CatalogPrices.class);
+
+        CurrencyRules rules = CurrencyRules.of(currency);
+        Map<String, Long> prices = new HashMap<>(skus.size() * 2);
+        if (response != null && response.prices() != null) {
+            for (CatalogPrice price : response.prices()) {
+                if (price.unitPrice() != null && skus.contains(price.sku())) {
+                    prices.put(price.sku(), Money.toMinor(price.unitPrice(), rules));
+                }
+            }
+        }
+        return prices;
+    }
+
+    record CatalogPrices(List<CatalogPrice> prices) {}
+
+    record CatalogPrice(String sku, Double unitPrice) {}
 }
@@ -0,0 +1,47 @@
+package cl.sura.suratech.service.impl.client.impl;
+
+import cl.sura.suratech.common.CurrencyRules;
+import cl.sura.suratech.common.Money;
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.AggregationService;
+import cl.sura.suratech.service.impl.client.PricingClient;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Shared by the pricing decorators that ask the backend for catalog unit prices only (cache misses, deduplicated
+// batches): lines and tax are then computed per quote from the unit price and the quote's own quantity and tax rate,
+// exactly as the backend computes them.
+final class SkuPrices {
+
+    private SkuPrices() {
+    }
+
+    static Set<String> skus(QuoteCreateRequest request) {
+        Set<String> skus = new LinkedHashSet<>();
+        for (QuoteCreateRequest.Item it : request.items()) {
+            skus.add(it.sku());
+        }
+        return skus;
+    }
+
+    static PricingClient.PricingResult apply(QuoteCreateRequest request, Map<String, Long> unitPrices) {
+        CurrencyRules currency = CurrencyRules.of(request.currency());
+        List<QuoteCreateRequest.Item> in = request.items();
+        List<AggregationService.ItemComputed> items = new ArrayList<>(in.size());
+        for (QuoteCreateRequest.Item it : in) {
+            Long unitPrice = unitPrices.get(it.sku());
+            if (unitPrice == null) {
+                throw new IllegalStateException("Pricing backend returned no price for SKU " + it.sku());
+            }
+            long rate = it.taxRate() == null ? 0 : Money.toRatePpm(it.taxRate());
+            long line = Money.line(it.quantity(), unitPrice);
+            items.add(new AggregationService.ItemComputed(
+                    it.sku(), it.name(), it.quantity(), unitPrice, rate, line, Money.tax(line, rate, currency.rounding())));
+        }
+        return new PricingClient.PricingResult(currency, items);
+    }
+}
@@ -1,9 +1,9 @@
 package cl.sura.suratech.service.impl.client.impl;
 
+import cl.sura.suratech.common.AdaptiveConcurrencyLimit;
 import cl.sura.suratech.service.AggregationService;
 import cl.sura.suratech.service.impl.client.PricingClient;
 import cl.sura.suratech.service.impl.client.TaxClient;
-import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.stereotype.Component;
@@ -14,9 +14,13 @@ public class TaxClientHttpImpl implements TaxClient {
     @Override
     @CircuitBreaker(name = "tax")
     @Retry(name = "tax")
-    @Bulkhead(name = "tax", type = Bulkhead.Type.SEMAPHORE)
+    @AdaptiveConcurrencyLimit(name = "tax")
     public TaxResult calculateTaxes(PricingClient.PricingResult priced) {
-        double total = priced.items().stream().mapToDouble(AggregationService.ItemComputed::taxAmount).sum();
+        // Tax is rounded per line by pricing; the total is the exact sum of those rounded lines.
+        long total = 0;
+        for (AggregationService.ItemComputed item : priced.items()) {
+            total = Math.addExact(total, item.taxAmountMinor());
+        }
         return new TaxResult(total);
     }
 }
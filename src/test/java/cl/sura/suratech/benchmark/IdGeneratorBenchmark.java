@@ -0,0 +1,59 @@
+package cl.sura.suratech.benchmark;
+
+import cl.sura.suratech.common.impl.RandomUuidIdGenerator;
+import cl.sura.suratech.common.impl.UuidV7IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Run: mvn test-compile, then launch main() from the IDE (or org.openjdk.jmh.Main with the test classpath).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private final UuidV7IdGenerator v7 = new UuidV7IdGenerator();
+    private final RandomUuidIdGenerator random = new RandomUuidIdGenerator();
+
+    @Benchmark
+    public UUID uuidV7() {
+        return v7.next();
+    }
+
+    @Benchmark
+    public UUID randomV4() {
+        return random.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID uuidV7_contended() {
+        return v7.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UUID randomV4_contended() {
+        return random.next();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(IdGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package cl.sura.suratech.benchmark;
+
+import cl.sura.suratech.common.CurrencyRules;
+import cl.sura.suratech.common.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Line, tax and totals for a max-size quote (200 items, USD). Run main() or org.openjdk.jmh.Main with "-prof gc":
+// fixedPoint should report gc.alloc.rate.norm ~0 B/op, bigDecimal several objects per line.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final int ITEMS = 200;
+    private static final CurrencyRules USD = CurrencyRules.of("USD");
+
+    private final int[] quantities = new int[ITEMS];
+    private final double[] unitPrices = new double[ITEMS];
+    private final double[] taxRates = new double[ITEMS];
+
+    private final long[] unitPricesMinor = new long[ITEMS];
+    private final long[] ratesPpm = new long[ITEMS];
+    private final long[] lineTotals = new long[ITEMS];
+    private final long[] taxAmounts = new long[ITEMS];
+
+    private final BigDecimal[] unitPricesDecimal = new BigDecimal[ITEMS];
+    private final BigDecimal[] taxRatesDecimal = new BigDecimal[ITEMS];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ITEMS; i++) {
+            quantities[i] = 1 + i % 9;
+            unitPrices[i] = 1_990.5 + i * 0.37;
+            taxRates[i] = i % 3 == 0 ? 0.0 : 0.19;
+            unitPricesMinor[i] = Money.toMinor(unitPrices[i], USD);
+            ratesPpm[i] = Money.toRatePpm(taxRates[i]);
+            unitPricesDecimal[i] = BigDecimal.valueOf(unitPrices[i]);
+            taxRatesDecimal[i] = BigDecimal.valueOf(taxRates[i]);
+        }
+    }
+
+    // The previous arithmetic: fast, but totals are not exact cents.
+    @Benchmark
+    public void doubles(Blackhole bh) {
+        double subtotal = 0;
+        double taxTotal = 0;
+        for (int i = 0; i < ITEMS; i++) {
+            double line = quantities[i] * unitPrices[i];
+            subtotal += line;
+            taxTotal += line * taxRates[i];
+        }
+        bh.consume(subtotal);
+        bh.consume(taxTotal + subtotal);
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole bh) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal taxTotal = BigDecimal.ZERO;
+        for (int i = 0; i < ITEMS; i++) {
+            BigDecimal line = unitPricesDecimal[i].multiply(BigDecimal.valueOf(quantities[i]));
+            subtotal = subtotal.add(line);
+            taxTotal = taxTotal.add(line.multiply(taxRatesDecimal[i]).setScale(USD.scale(), USD.rounding()));
+        }
+        bh.consume(subtotal);
+        bh.consume(taxTotal.add(subtotal));
+    }
+
+    @Benchmark
+    public void fixedPoint(Blackhole bh) {
+        Money.lines(quantities, unitPricesMinor, lineTotals, ITEMS);
+        Money.taxes(lineTotals, ratesPpm, taxAmounts, ITEMS, USD.rounding());
+        long subtotal = Money.sum(lineTotals, ITEMS);
+        long taxTotal = Money.sum(taxAmounts, ITEMS);
+        bh.consume(subtotal);
+        bh.consume(Math.addExact(subtotal, taxTotal));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
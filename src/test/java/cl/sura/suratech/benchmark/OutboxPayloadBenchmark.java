@@ -0,0 +1,87 @@
+package cl.sura.suratech.benchmark;
+
+import cl.sura.suratech.integration.events.CloudEvent;
+import cl.sura.suratech.integration.events.QuoteIssuedEvent;
+import cl.sura.suratech.integration.outbox.OutboxPayloadCodec;
+import cl.sura.suratech.integration.outbox.QuoteIssuedOutboxService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Outbox payload path for a 200-item QuoteIssued event, from event object to the bytes handed to the bus.
+// "tree" is the previous path (valueToTree -> JSON column -> toString -> getBytes); "bytes" writes UTF-8 once.
+// Run main() or org.openjdk.jmh.Main with "-prof gc" and compare gc.alloc.rate.norm (bytes allocated per event).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutboxPayloadBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final OutboxPayloadCodec identity = new OutboxPayloadCodec("none", 2048);
+    private final OutboxPayloadCodec gzip = new OutboxPayloadCodec("gzip", 2048);
+    private CloudEvent<QuoteIssuedEvent> event;
+
+    @Setup
+    public void setUp() {
+        List<QuoteIssuedEvent.Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(new QuoteIssuedEvent.Item("SKU-%04d".formatted(i), "Item number " + i, 1 + i % 9,
+                    1_990.5 + i, 0.19, (1 + i % 9) * (1_990.5 + i), (1 + i % 9) * (1_990.5 + i) * 0.19));
+        }
+        OffsetDateTime now = OffsetDateTime.parse("2026-03-01T12:00:00Z");
+        QuoteIssuedEvent data = new QuoteIssuedEvent("0190f5a2-7c1e-7d3a-9b7e-2f1f5e0c8a11", now,
+                new QuoteIssuedEvent.Customer("CUST-12345"), "CLP",
+                new QuoteIssuedEvent.Totals(2_000_000, 380_000, 2_380_000), items, null, 1);
+        event = CloudEvent.v1(QuoteIssuedOutboxService.EVENT_TYPE, QuoteIssuedOutboxService.EVENT_SOURCE,
+                "0190f5a2-7c1e-7d3a-9b7e-2f1f5e0c8a12", now, "quotes/" + data.quoteId(), "application/json", null, data);
+    }
+
+    @Benchmark
+    public byte[] tree() throws Exception {
+        JsonNode node = objectMapper.valueToTree(event);
+        String column = objectMapper.writeValueAsString(node);
+        JsonNode reloaded = objectMapper.readTree(column);
+        return reloaded.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] bytes() throws Exception {
+        OutboxPayloadCodec.Encoded stored = identity.encode(objectMapper.writeValueAsBytes(event));
+        return identity.decode(stored.bytes(), stored.encoding());
+    }
+
+    @Benchmark
+    public byte[] bytesGzip() throws Exception {
+        OutboxPayloadCodec.Encoded stored = gzip.encode(objectMapper.writeValueAsBytes(event));
+        return gzip.decode(stored.bytes(), stored.encoding());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OutboxPayloadBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,133 @@
+package cl.sura.suratech.benchmark;
+
+import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.entity.QuoteItemEntity;
+import cl.sura.suratech.mapper.QuoteJsonWriter;
+import cl.sura.suratech.mapper.QuoteMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> JSON bytes for a loaded quote (the GET /{id} cache-miss path). Run main() or org.openjdk.jmh.Main with
+// "-prof gc" and compare gc.alloc.rate.norm (bytes per quote):
+//   mapMetadataDto  - the previous mapper: metadata parsed into a Map, QuoteResponse/Item records, reflective write
+//   rawMetadataDto  - QuoteMapper as it is now (records, metadata passed through raw)
+//   streamingWriter - QuoteJsonWriter, items written straight from the entity
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuoteSerializationBenchmark {
+
+    private static final TypeReference<Map<String, String>> METADATA = new TypeReference<>() {};
+
+    @Param({"1", "200"})
+    public int items;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final QuoteMapper mapper = new QuoteMapper(objectMapper);
+    private final QuoteJsonWriter writer = new QuoteJsonWriter(objectMapper);
+    private QuoteEntity quote;
+
+    @Setup
+    public void setUp() throws Exception {
+        Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            metadata.put("key-" + i, "value-" + i);
+        }
+        OffsetDateTime now = OffsetDateTime.parse("2026-02-23T12:00:00Z");
+
+        quote = new QuoteEntity();
+        quote.setId(UUID.randomUUID());
+        quote.setDocumentId("DOC-2026-000001");
+        quote.setStatus("ISSUED");
+        quote.setCurrency("CLP");
+        quote.setCustomerId("CUST-12345");
+        quote.setCustomerEmail("customer@example.com");
+        quote.setSubtotal(1_990_500.0);
+        quote.setTaxTotal(378_195.0);
+        quote.setGrandTotal(2_368_695.0);
+        quote.setExpiresAt(now.plusDays(30));
+        quote.setCreatedAt(now);
+        quote.setUpdatedAt(now);
+        quote.setPayloadJson(objectMapper.writeValueAsString(metadata));
+        for (int i = 0; i < items; i++) {
+            QuoteItemEntity item = new QuoteItemEntity();
+            item.setQuote(quote);
+            item.setSku("SKU-%04d".formatted(i));
+            item.setName("Item number " + i);
+            item.setQuantity(1 + i % 9);
+            item.setUnitPrice(1_990.5 + i);
+            item.setTaxRate(0.19);
+            item.setLineTotal((1_990.5 + i) * (1 + i % 9));
+            item.setTaxAmount((1_990.5 + i) * (1 + i % 9) * 0.19);
+            quote.getItems().add(item);
+        }
+    }
+
+    @Benchmark
+    public byte[] mapMetadataDto() throws Exception {
+        return objectMapper.writeValueAsBytes(new MapMetadataResponse(
+                quote.getId().toString(),
+                quote.getDocumentId(),
+                quote.getStatus(),
+                quote.getCurrency(),
+                new QuoteResponse.Customer(quote.getCustomerId(), quote.getCustomerEmail()),
+                quote.getItems().stream().map(i -> new QuoteResponse.Item(
+                        i.getSku(), i.getName(), i.getQuantity(),
+                        i.getUnitPrice(), i.getTaxRate(),
+                        i.getLineTotal(), i.getTaxAmount()
+                )).toList(),
+                new QuoteResponse.Totals(quote.getSubtotal(), quote.getTaxTotal(), quote.getGrandTotal()),
+                quote.getExpiresAt(),
+                quote.getCreatedAt(),
+                objectMapper.readValue(quote.getPayloadJson(), METADATA)));
+    }
+
+    @Benchmark
+    public byte[] rawMetadataDto() throws Exception {
+        return objectMapper.writeValueAsBytes(mapper.toResponse(quote));
+    }
+
+    @Benchmark
+    public byte[] streamingWriter() {
+        return writer.toBytes(quote);
+    }
+
+    // QuoteResponse as it was before metadata became RawJson.
+    public record MapMetadataResponse(String id, String documentId, String status, String currency,
+                                      QuoteResponse.Customer customer, List<QuoteResponse.Item> items,
+                                      QuoteResponse.Totals totals, OffsetDateTime expiresAt,
+                                      OffsetDateTime createdAt, Map<String, String> metadata) {}
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(QuoteSerializationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,79 @@
+package cl.sura.suratech.benchmark;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.impl.RequestFingerprinter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Max-size request (200 items, 50 metadata entries). Run main() or org.openjdk.jmh.Main with "-prof gc"
+// to compare gc.alloc.rate.norm (bytes per fingerprint) as well as time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestFingerprintBenchmark {
+
+    private final RequestFingerprinter fingerprinter = new RequestFingerprinter();
+    private QuoteCreateRequest request;
+
+    @Setup
+    public void setUp() {
+        List<QuoteCreateRequest.Item> items = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            items.add(new QuoteCreateRequest.Item("SKU-%04d".formatted(i), "Item number " + i, 1 + i % 9, 1_990.5 + i, 0.19));
+        }
+        Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            metadata.put("key-" + i, "value-" + i);
+        }
+        request = new QuoteCreateRequest(
+                "DOC-2026-000001",
+                new QuoteCreateRequest.Customer("CUST-12345", "customer@example.com"),
+                "CLP",
+                items,
+                OffsetDateTime.parse("2026-03-01T12:00:00Z"),
+                metadata
+        );
+    }
+
+    @Benchmark
+    public String toStringSha256Hex() throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(md.digest(request.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public byte[] canonicalFingerprint() {
+        return fingerprinter.fingerprint(request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RequestFingerprintBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
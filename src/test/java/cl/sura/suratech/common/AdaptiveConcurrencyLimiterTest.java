@@ -0,0 +1,205 @@
+package cl.sura.suratech.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final AdaptiveConcurrencyLimiter.Settings DEFAULTS =
+            new AdaptiveConcurrencyLimiter.Settings(50, 5, 200, 1.5, 0.8, 10);
+
+    // Offered load: 10 calls per ms, far more than any backend below can serve at its base latency.
+    private static final int ARRIVALS_PER_MS = 10;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void simulate_whenBackendDegradesAndRecovers_thenLimitFollowsCapacity_andLatencyStaysNearBaseline() {
+        // Arrange
+        Simulation sim = new Simulation(new AdaptiveConcurrencyLimiter("pricing", DEFAULTS, registry));
+
+        // Act + Assert: healthy backend, 100 calls in parallel at 20ms
+        double healthyLatency = sim.run(5_000, new StubBackend(100, 20));
+        assertThat(sim.limiter.limit()).isBetween(100, 160);
+        assertThat(healthyLatency).isLessThan(35.0);
+
+        // Degraded: only 20 in parallel at 100ms. A static limit of ~150 would queue calls for ~750ms.
+        double droppedBefore = dropped();
+        double degradedLatency = sim.run(8_000, new StubBackend(20, 100));
+        assertThat(sim.limiter.limit()).isLessThanOrEqualTo(30);
+        assertThat(degradedLatency).isLessThan(150.0);
+        assertThat(dropped()).isGreaterThan(droppedBefore);
+
+        // Recovered
+        double recoveredLatency = sim.run(6_000, new StubBackend(100, 20));
+        assertThat(sim.limiter.limit()).isGreaterThan(100);
+        assertThat(recoveredLatency).isLessThan(35.0);
+    }
+
+    @Test
+    void simulate_whenBackendIsPermanentlySlower_thenBaselineAdapts_andLimitSettlesNearItsCapacity() {
+        // Arrange
+        Simulation sim = new Simulation(new AdaptiveConcurrencyLimiter("tax", DEFAULTS, registry));
+        sim.run(5_000, new StubBackend(100, 20));
+
+        // Act
+        double latency = sim.run(25_000, new StubBackend(20, 100));
+
+        // Assert: no longer pinned at min-limit once 100ms is the new normal
+        assertThat(sim.limiter.limit()).isBetween(10, 30);
+        assertThat(latency).isLessThan(150.0);
+        assertThat(registry.get("client.concurrency.baseline").tag("name", "tax").gauge().value())
+                .isGreaterThan(0.05);
+    }
+
+    @Test
+    void simulate_whenBackendShedsLoadWithFastFailures_thenFailuresBackOffTheLimit_toNearItsCapacity() {
+        // Arrange: successes stay at base latency, so latency alone would never shrink the limit
+        Simulation sim = new Simulation(new AdaptiveConcurrencyLimiter("pricing", DEFAULTS, registry));
+
+        // Act
+        sim.run(10_000, StubBackend.shedding(40, 20));
+
+        // Assert
+        assertThat(sim.limiter.limit()).isBetween(30, 45);
+        assertThat(sim.failureShare()).isLessThan(0.05);
+    }
+
+    @Test
+    void onFailure_whenWindowHasAFailure_thenLimitBacksOffOnce_andBaselineIsUntouched() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("tax",
+                new AdaptiveConcurrencyLimiter.Settings(10, 1, 100, 1.5, 0.5, 10), registry);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+
+        // Act: one window of ten calls, three failed fast and seven at the usual latency
+        for (int i = 0; i < 3; i++) {
+            limiter.onFailure();
+        }
+        for (int i = 0; i < 7; i++) {
+            limiter.onSuccess(20_000_000L);
+        }
+
+        // Assert
+        assertThat(limiter.limit()).isEqualTo(5);
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(registry.get("client.concurrency.baseline").tag("name", "tax").gauge().value()).isZero();
+    }
+
+    @Test
+    void tryAcquire_whenMinEqualsMax_thenBehavesLikeAStaticBulkhead_andExposesMetrics() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("pricing",
+                new AdaptiveConcurrencyLimiter.Settings(2, 2, 2, 1.5, 0.8, 1), registry);
+
+        // Act
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // Assert
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(registry.get("client.concurrency.in.flight").tag("name", "pricing").gauge().value()).isEqualTo(2);
+        assertThat(dropped()).isEqualTo(1);
+
+        limiter.onFailure();
+        limiter.onSuccess(1_000_000L);
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.onSuccess(10_000_000_000L);
+        }
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(registry.get("client.concurrency.limit").tag("name", "pricing").gauge().value()).isEqualTo(2);
+    }
+
+    private double dropped() {
+        return registry.find("client.concurrency.dropped").counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    // Local backend stub that injects latency: base latency up to its capacity, growing linearly with the calls
+    // queued beyond it; or, when shedding, failing calls beyond it after 1ms (e.g. a 503) instead of queuing them.
+    private record StubBackend(int capacity, double baseLatencyMs, boolean sheds) {
+        StubBackend(int capacity, double baseLatencyMs) {
+            this(capacity, baseLatencyMs, false);
+        }
+
+        static StubBackend shedding(int capacity, double baseLatencyMs) {
+            return new StubBackend(capacity, baseLatencyMs, true);
+        }
+
+        boolean fails(int inFlight) {
+            return sheds && inFlight > capacity;
+        }
+
+        double latencyMs(int inFlight) {
+            if (sheds) return fails(inFlight) ? 1.0 : baseLatencyMs;
+            return baseLatencyMs * Math.max(1.0, (double) inFlight / capacity);
+        }
+    }
+
+    private record Call(double completesAtMs, double latencyMs, boolean failed) {}
+
+    // Discrete-event simulation on a virtual millisecond clock, so the run is deterministic and takes no real time.
+    private static final class Simulation {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final PriorityQueue<Call> pending = new PriorityQueue<>(Comparator.comparingDouble(Call::completesAtMs));
+        private long nowMs;
+        private int lastSecondAdmitted;
+        private int lastSecondFailed;
+
+        private Simulation(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        // Returns the average latency of the successful calls admitted during the last second of the run.
+        private double run(long durationMs, StubBackend backend) {
+            long endMs = nowMs + durationMs;
+            double latencySum = 0;
+            int succeeded = 0;
+            lastSecondAdmitted = 0;
+            lastSecondFailed = 0;
+            for (; nowMs < endMs; nowMs++) {
+                while (!pending.isEmpty() && pending.peek().completesAtMs() <= nowMs) {
+                    Call call = pending.poll();
+                    if (call.failed()) {
+                        limiter.onFailure();
+                    } else {
+                        limiter.onSuccess((long) (call.latencyMs() * 1_000_000));
+                    }
+                }
+                for (int i = 0; i < ARRIVALS_PER_MS; i++) {
+                    if (!limiter.tryAcquire()) {
+                        continue;
+                    }
+                    boolean failed = backend.fails(limiter.inFlight());
+                    double latencyMs = backend.latencyMs(limiter.inFlight());
+                    pending.add(new Call(nowMs + latencyMs, latencyMs, failed));
+                    if (nowMs >= endMs - 1_000) {
+                        lastSecondAdmitted++;
+                        if (failed) {
+                            lastSecondFailed++;
+                        } else {
+                            latencySum += latencyMs;
+                            succeeded++;
+                        }
+                    }
+                }
+            }
+            return latencySum / succeeded;
+        }
+
+        // Share of the calls admitted during the last second of the last run that failed.
+        private double failureShare() {
+            return (double) lastSecondFailed / lastSecondAdmitted;
+        }
+    }
+}
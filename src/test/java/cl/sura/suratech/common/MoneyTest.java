@@ -0,0 +1,116 @@
+package cl.sura.suratech.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private static final CurrencyRules CLP = CurrencyRules.of("CLP");
+    private static final CurrencyRules USD = CurrencyRules.of("USD");
+
+    @Test
+    void currencyRules_whenIsoCurrency_thenScaleFollowsMinorUnit_andRoundingIsPerCurrency() {
+        assertThat(CLP.scale()).isZero();
+        assertThat(CLP.rounding()).isEqualTo(RoundingMode.HALF_UP);
+        assertThat(USD.scale()).isEqualTo(2);
+        assertThat(USD.factor()).isEqualTo(100);
+        assertThat(USD.rounding()).isEqualTo(RoundingMode.HALF_EVEN);
+        assertThat(CurrencyRules.of("USD")).isSameAs(USD);
+        assertThat(CurrencyRules.isKnown("EUR")).isTrue();
+        assertThat(CurrencyRules.isKnown("ZZZ")).isFalse();
+    }
+
+    @Test
+    void toMinor_whenDecimalHasNoExactDouble_thenReadsTheIntendedAmount() {
+        assertThat(Money.toMinor(19.99, USD)).isEqualTo(1999);
+        assertThat(Money.toMinor(0.1 + 0.2, USD)).isEqualTo(30);
+        assertThat(Money.toMinor(999_999_999.99, USD)).isEqualTo(99_999_999_999L);
+        assertThat(Money.toMinor(10_000.0, CLP)).isEqualTo(10_000);
+        assertThat(Money.toRatePpm(0.19)).isEqualTo(190_000);
+    }
+
+    @Test
+    void toMinor_whenInputHasMoreDecimalsThanTheCurrency_thenRoundsWithTheCurrencyMode() {
+        assertThat(Money.toMinor(1_990.5, CLP)).isEqualTo(1_991);
+        assertThat(Money.toMinor(0.125, USD)).isEqualTo(12);
+        assertThat(Money.toMinor(0.135, USD)).isEqualTo(14);
+    }
+
+    @Test
+    void divide_whenRemainder_thenAppliesRoundingMode() {
+        assertThat(Money.divide(25, 10, RoundingMode.HALF_UP)).isEqualTo(3);
+        assertThat(Money.divide(25, 10, RoundingMode.HALF_DOWN)).isEqualTo(2);
+        assertThat(Money.divide(25, 10, RoundingMode.HALF_EVEN)).isEqualTo(2);
+        assertThat(Money.divide(35, 10, RoundingMode.HALF_EVEN)).isEqualTo(4);
+        assertThat(Money.divide(21, 10, RoundingMode.UP)).isEqualTo(3);
+        assertThat(Money.divide(29, 10, RoundingMode.DOWN)).isEqualTo(2);
+        assertThat(Money.divide(30, 10, RoundingMode.UNNECESSARY)).isEqualTo(3);
+        assertThatThrownBy(() -> Money.divide(31, 10, RoundingMode.UNNECESSARY)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void tax_whenComparedWithBigDecimal_thenMatchesForEveryModeIncludingAmountsBeyond63BitProducts() {
+        // Arrange
+        Random random = new Random(42);
+        RoundingMode[] modes = {RoundingMode.HALF_UP, RoundingMode.HALF_EVEN, RoundingMode.HALF_DOWN,
+                RoundingMode.UP, RoundingMode.DOWN};
+
+        for (int i = 0; i < 10_000; i++) {
+            long amount = i % 2 == 0 ? random.nextLong(1_000_000) : random.nextLong(1L << 60);
+            long rate = random.nextLong(Money.RATE_SCALE + 1);
+            RoundingMode mode = modes[i % modes.length];
+
+            // Act
+            long tax = Money.tax(amount, rate, mode);
+
+            // Assert
+            long expected = BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(rate))
+                    .divide(BigDecimal.valueOf(Money.RATE_SCALE), 0, mode).longValueExact();
+            assertThat(tax).as("%d * %d ppm, %s", amount, rate, mode).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void kernels_whenManyLines_thenTotalsAreExact_whereDoublesDrift() {
+        // Arrange: 0.10 USD, 1000 lines
+        int n = 1_000;
+        int[] quantities = new int[n];
+        long[] unitPrices = new long[n];
+        long[] rates = new long[n];
+        long[] lines = new long[n];
+        long[] taxes = new long[n];
+        double doubleSubtotal = 0;
+        for (int i = 0; i < n; i++) {
+            quantities[i] = 1;
+            unitPrices[i] = Money.toMinor(0.10, USD);
+            rates[i] = Money.toRatePpm(0.19);
+            doubleSubtotal += 0.10;
+        }
+
+        // Act
+        Money.lines(quantities, unitPrices, lines, n);
+        Money.taxes(lines, rates, taxes, n, USD.rounding());
+        long subtotal = Money.sum(lines, n);
+        long taxTotal = Money.sum(taxes, n);
+
+        // Assert: 0.10 * 0.19 = 0.019 -> 0.02 per line
+        assertThat(subtotal).isEqualTo(10_000);
+        assertThat(Money.toMajor(subtotal, USD)).isEqualTo(100.0);
+        assertThat(taxTotal).isEqualTo(2_000);
+        assertThat(doubleSubtotal).isNotEqualTo(100.0);
+    }
+
+    @Test
+    void operations_whenNegativeOrOverflowing_thenFailInsteadOfWrapping() {
+        assertThatThrownBy(() -> Money.toMinor(-1.0, USD)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.tax(-100, 190_000, RoundingMode.HALF_UP)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Money.line(Integer.MAX_VALUE, Long.MAX_VALUE / 2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.sum(new long[]{Long.MAX_VALUE, 1}, 2)).isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -0,0 +1,78 @@
+package cl.sura.suratech.common.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7IdGeneratorTest {
+
+    @Test
+    void next_thenHasVersion7AndRfcVariant_andEmbedsClockMillis() {
+        long millis = 1_771_848_000_000L;
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(() -> millis);
+
+        UUID id = generator.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(millis);
+    }
+
+    @Test
+    void next_whenClockStallsOrGoesBackwards_thenStillStrictlyIncreasing() {
+        AtomicLong clock = new AtomicLong(1_771_848_000_000L);
+        UuidV7IdGenerator generator = new UuidV7IdGenerator(clock::get);
+
+        UUID previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) clock.addAndGet(-1_000);
+            UUID current = generator.next();
+            assertThat(compareUnsigned(current, previous)).isPositive();
+            assertThat(current.toString()).isGreaterThan(previous.toString());
+            previous = current;
+        }
+    }
+
+    @Test
+    void next_whenCalledFromManyVirtualThreads_thenUniqueAndMonotonicPerThread() throws Exception {
+        UuidV7IdGenerator generator = new UuidV7IdGenerator();
+        int threads = 64;
+        int perThread = 2_000;
+
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) ids.add(generator.next());
+                    return ids;
+                }));
+            }
+        }
+
+        Set<UUID> all = new HashSet<>();
+        for (Future<List<UUID>> f : futures) {
+            List<UUID> ids = f.get();
+            for (int i = 1; i < ids.size(); i++) {
+                assertThat(compareUnsigned(ids.get(i), ids.get(i - 1))).isPositive();
+            }
+            all.addAll(ids);
+        }
+        assertThat(all).hasSize(threads * perThread);
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
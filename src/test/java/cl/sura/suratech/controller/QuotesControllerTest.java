@@ -4,8 +4,12 @@ import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.dto.QuoteResponse;
 import cl.sura.suratech.exception.ApiExceptionHandler;
 import cl.sura.suratech.exception.IdempotencyConflictException;
+import cl.sura.suratech.exception.IdempotencyInProgressException;
+import cl.sura.suratech.exception.QuoteNotFoundException;
 import cl.sura.suratech.service.IdempotencyService;
 import cl.sura.suratech.service.QuoteApplicationService;
+import cl.sura.suratech.service.QuoteExportService;
+import cl.sura.suratech.service.QuoteLookupService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -13,12 +17,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static cl.sura.suratech.common.Constants.HDR_IDEMPOTENCY_KEY;
 import static cl.sura.suratech.common.Constants.HDR_IDEMPOTENCY_STATUS;
@@ -27,11 +37,14 @@ import static cl.sura.suratech.testsupport.QuoteTestData.invalidCreateRequest_mi
 import static cl.sura.suratech.testsupport.QuoteTestData.quoteResponse;
 import static cl.sura.suratech.testsupport.QuoteTestData.randomIdempotencyKeyV4;
 import static cl.sura.suratech.testsupport.QuoteTestData.validCreateRequest;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -44,6 +57,8 @@ class QuotesControllerTest {
 
     @MockBean QuoteApplicationService quoteApplicationService;
     @MockBean IdempotencyService idempotencyService;
+    @MockBean QuoteLookupService quoteLookupService;
+    @MockBean QuoteExportService quoteExportService;
 
     @Test
     void createQuote_whenValidRequest_thenReturns201_andCallsService() throws Exception {
@@ -54,13 +69,13 @@ class QuotesControllerTest {
         OffsetDateTime createdAt = OffsetDateTime.parse("2026-02-23T12:00Z");
         QuoteResponse created = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", createdAt);
 
-        when(quoteApplicationService.createQuote(any(QuoteCreateRequest.class))).thenReturn(created);
+        when(quoteApplicationService.createQuote(any(QuoteCreateRequest.class), any())).thenReturn(created);
 
         when(idempotencyService.getOrCompute(eq(idempotencyKey), eq(request), any()))
                 .thenAnswer(inv -> {
-                    @SuppressWarnings("unchecked")
-                    Supplier<QuoteResponse> supplier = inv.getArgument(2, Supplier.class);
-                    QuoteResponse result = supplier.get();
+                    IdempotencyService.StagedComputation computation =
+                            inv.getArgument(2, IdempotencyService.StagedComputation.class);
+                    QuoteResponse result = computation.compute(response -> {});
                     return new IdempotencyService.IdempotencyResult(result, false);
                 });
 
@@ -80,7 +95,7 @@ class QuotesControllerTest {
                 .andExpect(jsonPath("$.id", is(created.id())))
                 .andExpect(jsonPath("$.createdAt", is(createdAt.toInstant().toString())));
 
-        verify(quoteApplicationService, times(1)).createQuote(eq(request));
+        verify(quoteApplicationService, times(1)).createQuote(eq(request), any());
     }
 
     @Test
@@ -112,11 +127,40 @@ class QuotesControllerTest {
 
         verifyNoInteractions(quoteApplicationService);
 
-        ArgumentCaptor<Supplier<QuoteResponse>> supplierCaptor = ArgumentCaptor.forClass(Supplier.class);
-        verify(idempotencyService, times(1)).getOrCompute(eq(idempotencyKey), eq(request), supplierCaptor.capture());
+        ArgumentCaptor<IdempotencyService.StagedComputation> computationCaptor =
+                ArgumentCaptor.forClass(IdempotencyService.StagedComputation.class);
+        verify(idempotencyService, times(1)).getOrCompute(eq(idempotencyKey), eq(request), computationCaptor.capture());
         verifyNoMoreInteractions(idempotencyService);
     }
 
+    @Test
+    void createQuote_whenReplayFromSnapshot_thenReturns200_withStoredBodyVerbatim() throws Exception {
+        // Arrange
+        UUID idempotencyKey = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+
+        OffsetDateTime createdAt = OffsetDateTime.parse("2026-02-23T12:00Z");
+        byte[] snapshot = objectMapper.writeValueAsBytes(quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", createdAt));
+
+        when(idempotencyService.getOrCompute(eq(idempotencyKey), eq(request), any()))
+                .thenReturn(new IdempotencyService.IdempotencyResult(null, snapshot, true));
+
+        // Act + Assert
+        mockMvc.perform(
+                        post("/api/v1/quotes")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .header(HDR_IDEMPOTENCY_KEY, idempotencyKey.toString())
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string(HDR_IDEMPOTENCY_STATUS, "replayed"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(snapshot));
+
+        verifyNoInteractions(quoteApplicationService);
+    }
+
     @Test
     void createQuote_whenSameKeyDifferentBody_thenReturns409_andDoesNotCallService() throws Exception {
         // Arrange
@@ -142,6 +186,30 @@ class QuotesControllerTest {
         verifyNoInteractions(quoteApplicationService);
     }
 
+    @Test
+    void createQuote_whenSameKeyStillInProgress_thenReturns409InProgress_withRetryAfter() throws Exception {
+        // Arrange
+        UUID idempotencyKey = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+
+        when(idempotencyService.getOrCompute(eq(idempotencyKey), eq(request), any()))
+                .thenThrow(new IdempotencyInProgressException(idempotencyKey.toString()));
+
+        // Act + Assert
+        mockMvc.perform(
+                        post("/api/v1/quotes")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .header(HDR_IDEMPOTENCY_KEY, idempotencyKey.toString())
+                                .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isConflict())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.code", is("IDEMPOTENCY_IN_PROGRESS")));
+
+        verifyNoInteractions(quoteApplicationService);
+    }
+
     @Test
     void createQuote_whenMissingIdempotencyKeyHeader_thenReturns400() throws Exception {
         // Arrange
@@ -182,4 +250,181 @@ class QuotesControllerTest {
         verifyNoInteractions(idempotencyService);
         verifyNoInteractions(quoteApplicationService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void createQuote_whenCurrencyIsNotIso4217_thenReturns422_beforePricingIsCalled() throws Exception {
+        // Arrange: passes the [A-Z]{3} pattern but is not a currency
+        QuoteCreateRequest valid = validCreateRequest();
+        QuoteCreateRequest unknownCurrency = new QuoteCreateRequest(valid.documentId(), valid.customer(), "ZZZ",
+                valid.items(), valid.expiresAt(), valid.metadata());
+
+        // Act + Assert
+        mockMvc.perform(
+                        post("/api/v1/quotes")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .header(HDR_IDEMPOTENCY_KEY, randomIdempotencyKeyV4().toString())
+                                .content(objectMapper.writeValueAsString(unknownCurrency))
+                )
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code", is("VALIDATION_ERROR")))
+                .andExpect(jsonPath("$.fieldErrors[0].field", is("currency")))
+                .andExpect(jsonPath("$.fieldErrors[0].reason", is("must be an ISO 4217 currency code")));
+
+        verifyNoInteractions(idempotencyService);
+        verifyNoInteractions(quoteApplicationService);
+    }
+
+    @Test
+    void getQuote_whenExists_thenReturns200_withCachedBodyAndStrongEtag() throws Exception {
+        // Arrange
+        UUID quoteId = UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa");
+        byte[] body = objectMapper.writeValueAsBytes(quoteResponse(quoteId.toString(), OffsetDateTime.parse("2026-02-23T12:00Z")));
+        when(quoteLookupService.getSerializedQuote(quoteId))
+                .thenReturn(new QuoteLookupService.SerializedQuote(body, "\"abc123\""));
+
+        // Act + Assert
+        mockMvc.perform(get("/api/v1/quotes/{id}", quoteId).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(body));
+    }
+
+    @Test
+    void getQuote_whenIfNoneMatchMatches_thenReturns304_withoutBody() throws Exception {
+        // Arrange
+        UUID quoteId = UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa");
+        when(quoteLookupService.getSerializedQuote(quoteId))
+                .thenReturn(new QuoteLookupService.SerializedQuote("{}".getBytes(), "\"abc123\""));
+
+        // Act + Assert
+        mockMvc.perform(get("/api/v1/quotes/{id}", quoteId)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header("If-None-Match", "\"other\", \"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getQuote_whenUnknownId_thenReturns404() throws Exception {
+        // Arrange
+        UUID quoteId = UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa");
+        when(quoteLookupService.getSerializedQuote(quoteId)).thenThrow(new QuoteNotFoundException(quoteId));
+
+        // Act + Assert
+        mockMvc.perform(get("/api/v1/quotes/{id}", quoteId).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code", is("QUOTE_NOT_FOUND")));
+    }
+
+    @Test
+    void latestByDocument_whenValidBatch_thenReturnsQuotesFromOneServiceCall() throws Exception {
+        // Arrange
+        List<String> documentIds = List.of("DOC-2026-000001", "DOC-2026-000002");
+        QuoteResponse latest = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", OffsetDateTime.parse("2026-02-23T12:00Z"));
+        when(quoteLookupService.getLatestByDocumentIds(documentIds)).thenReturn(List.of(latest));
+
+        // Act + Assert
+        mockMvc.perform(post("/api/v1/quotes/latest-by-document")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("documentIds", documentIds))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quotes.length()", is(1)))
+                .andExpect(jsonPath("$.quotes[0].id", is(latest.id())));
+
+        verify(quoteLookupService, times(1)).getLatestByDocumentIds(documentIds);
+    }
+
+    @Test
+    void latestByDocument_whenMoreThan500Ids_thenReturns422_andDoesNotQuery() throws Exception {
+        // Arrange
+        List<String> documentIds = IntStream.range(0, 501).mapToObj(i -> "DOC-%06d".formatted(i)).toList();
+
+        // Act + Assert
+        mockMvc.perform(post("/api/v1/quotes/latest-by-document")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("documentIds", documentIds))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code", is("VALIDATION_ERROR")));
+
+        verifyNoInteractions(quoteLookupService);
+    }
+
+    @Test
+    void createQuotes_whenBulk_thenReturns200_withOneResultPerEntryInOrder() throws Exception {
+        // Arrange
+        UUID first = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a01");
+        UUID second = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a02");
+        QuoteCreateRequest request = validCreateRequest();
+        QuoteResponse created = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", OffsetDateTime.parse("2026-02-23T12:00Z"));
+
+        when(idempotencyService.getOrComputeBatch(eq(List.of(
+                new IdempotencyService.KeyedRequest(first, request),
+                new IdempotencyService.KeyedRequest(second, request))), any()))
+                .thenReturn(List.of(
+                        new IdempotencyService.BatchEntryResult(first, IdempotencyService.Outcome.CREATED, created, null),
+                        new IdempotencyService.BatchEntryResult(second, IdempotencyService.Outcome.CONFLICT, null, "reuse")));
+
+        // Act + Assert
+        mockMvc.perform(post("/api/v1/quotes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("entries", List.of(
+                                Map.of("idempotencyKey", first, "quote", request),
+                                Map.of("idempotencyKey", second, "quote", request))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].idempotencyKey", is(first.toString())))
+                .andExpect(jsonPath("$.results[0].status", is("created")))
+                .andExpect(jsonPath("$.results[0].quote.id", is(created.id())))
+                .andExpect(jsonPath("$.results[1].status", is("conflict")))
+                .andExpect(jsonPath("$.results[1].error", is("reuse")));
+    }
+
+    @Test
+    void exportQuotes_whenFiltered_thenStreamsNdjson_withParsedFilter() throws Exception {
+        // Arrange
+        when(quoteExportService.exportNdjson(any(), any())).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(1, OutputStream.class);
+            out.write("{\"id\":\"a\"}\n{\"id\":\"b\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/api/v1/quotes/export")
+                        .param("createdFrom", "2026-01-01T00:00:00Z")
+                        .param("createdTo", "2026-02-01T00:00:00Z")
+                        .param("documentId", "DOC-2026-000001"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("application/x-ndjson")))
+                .andExpect(content().string("{\"id\":\"a\"}\n{\"id\":\"b\"}\n"));
+
+        ArgumentCaptor<QuoteExportService.ExportFilter> filter = ArgumentCaptor.forClass(QuoteExportService.ExportFilter.class);
+        verify(quoteExportService).exportNdjson(filter.capture(), any());
+        assertThat(filter.getValue().createdFrom()).isEqualTo(OffsetDateTime.parse("2026-01-01T00:00:00Z"));
+        assertThat(filter.getValue().createdTo()).isEqualTo(OffsetDateTime.parse("2026-02-01T00:00:00Z"));
+        assertThat(filter.getValue().documentId()).isEqualTo("DOC-2026-000001");
+    }
+
+    @Test
+    void exportQuotes_whenRangeIsEmpty_thenReturns422_andDoesNotStream() throws Exception {
+        // Act + Assert
+        mockMvc.perform(get("/api/v1/quotes/export")
+                        .param("createdFrom", "2026-02-01T00:00:00Z")
+                        .param("createdTo", "2026-01-01T00:00:00Z"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code", is("VALIDATION_ERROR")))
+                .andExpect(jsonPath("$.fieldErrors[0].field", is("createdTo")));
+
+        verifyNoInteractions(quoteExportService);
+    }
+}
@@ -0,0 +1,69 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.PublishResult;
+import cl.sura.suratech.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxImmediateDispatcherTest {
+
+    private final OutboxEventRepository repo = mock(OutboxEventRepository.class);
+    private final QuoteIssuedPublisher publisher = mock(QuoteIssuedPublisher.class);
+    private static final byte[] JSON = "{}".getBytes(StandardCharsets.UTF_8);
+    private static final UUID FIRST = UUID.fromString("0190a5c8-0000-7000-8000-000000000001");
+    private static final UUID SECOND = UUID.fromString("0190a5c8-0000-7000-8000-000000000002");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final OutboxPayloadCodec codec = new OutboxPayloadCodec("none", 2048);
+
+    private final OutboxImmediateDispatcher dispatcher =
+            new OutboxImmediateDispatcher(
+                    repo, new OutboxLaneDispatcher(publisher, registry, 1), codec, registry, 100, 50, 10_000);
+
+    @AfterEach
+    void stop() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void submit_whenPublishSucceeds_thenMarksOnlySentRows_andRecordsCommitToPublish() {
+        // Arrange
+        when(publisher.publishBatch(anyList())).thenReturn(List.of(
+                PublishResult.sent("evt-1"),
+                PublishResult.failed("evt-2", new IllegalStateException("throttled"))));
+        dispatcher.start();
+
+        // Act
+        dispatcher.submit(FIRST, "evt-1", "quote-1", JSON, OutboxPayloadCodec.IDENTITY);
+        dispatcher.submit(SECOND, "evt-2", "quote-2", JSON, OutboxPayloadCodec.IDENTITY);
+
+        // Assert: the failed row stays NEW for the poller
+        verify(repo, timeout(2_000)).markSentIfNew(List.of(FIRST));
+        assertThat(registry.get(OutboxImmediateDispatcher.COMMIT_TO_PUBLISH_METRIC).tag("path", "immediate").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void submit_whenQueueIsFull_thenDropsToThePoller_withoutBlocking() {
+        OutboxImmediateDispatcher tiny = new OutboxImmediateDispatcher(
+                repo, new OutboxLaneDispatcher(publisher, registry, 1), codec, registry, 1, 50, 10_000);
+
+        tiny.submit(FIRST, "evt-1", "quote-1", JSON, OutboxPayloadCodec.IDENTITY);
+        tiny.submit(SECOND, "evt-2", "quote-2", JSON, OutboxPayloadCodec.IDENTITY);
+
+        assertThat(registry.get("outbox.dispatch.dropped").counter().count()).isEqualTo(1.0);
+    }
+}
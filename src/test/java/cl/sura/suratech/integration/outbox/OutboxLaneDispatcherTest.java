@@ -0,0 +1,173 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.OutboundEvent;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.PublishResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxLaneDispatcherTest {
+
+    private static final byte[] JSON = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void publish_whenManyAggregates_thenLanesRunConcurrently_andKeepPerAggregateOrder() {
+        // Arrange: 4 aggregates x 5 events, interleaved; each lane send takes 50ms
+        Queue<OutboundEvent> published = new ConcurrentLinkedQueue<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        QuoteIssuedPublisher slow = recordingPublisher(published, inFlight, maxInFlight, Duration.ofMillis(50));
+        OutboxLaneDispatcher dispatcher = new OutboxLaneDispatcher(slow, registry, 4);
+
+        List<OutboundEvent> events = new ArrayList<>();
+        for (int seq = 0; seq < 5; seq++) {
+            for (String quote : List.of("quote-a", "quote-b", "quote-c", "quote-d")) {
+                events.add(new OutboundEvent(quote + "-" + seq, quote, JSON));
+            }
+        }
+
+        // Act
+        List<PublishResult> results = dispatcher.publish(events);
+
+        // Assert
+        assertThat(results).hasSize(20).allMatch(PublishResult::isSent);
+        assertThat(maxInFlight.get()).isBetween(2, 4);
+        for (String quote : List.of("quote-a", "quote-b", "quote-c", "quote-d")) {
+            assertThat(published.stream().filter(e -> e.quoteId().equals(quote)).map(OutboundEvent::eventId))
+                    .containsExactly(quote + "-0", quote + "-1", quote + "-2", quote + "-3", quote + "-4");
+        }
+        assertThat(registry.get("outbox.publish.latency").timer().count()).isEqualTo(20);
+    }
+
+    @Test
+    void publish_whenOneLaneThrows_thenOnlyThatLanesEventsFail() {
+        OutboxLaneDispatcher probe = new OutboxLaneDispatcher(new StubPublisher() {
+            @Override
+            public List<PublishResult> publishBatch(List<OutboundEvent> events) {
+                return List.of();
+            }
+        }, registry, 2);
+        String laneZero = aggregateInLane(probe, 0);
+        String laneOne = aggregateInLane(probe, 1);
+
+        QuoteIssuedPublisher flaky = new StubPublisher() {
+            @Override
+            public List<PublishResult> publishBatch(List<OutboundEvent> events) {
+                if (events.get(0).quoteId().equals(laneZero)) throw new IllegalStateException("throttled");
+                return events.stream().map(e -> PublishResult.sent(e.eventId())).toList();
+            }
+        };
+        OutboxLaneDispatcher dispatcher = new OutboxLaneDispatcher(flaky, registry, 2);
+
+        List<PublishResult> results = dispatcher.publish(List.of(
+                new OutboundEvent("evt-0", laneZero, JSON),
+                new OutboundEvent("evt-1", laneOne, JSON)));
+
+        assertThat(results).filteredOn(PublishResult::isSent).extracting(PublishResult::eventId).containsExactly("evt-1");
+        assertThat(results).filteredOn(r -> !r.isSent()).extracting(PublishResult::eventId).containsExactly("evt-0");
+    }
+
+    @Test
+    void publishAsync_whenPipelined_thenLaterClaimWaitsForTheLanesPreviousSend_andOtherLanesOverlap() throws Exception {
+        // Arrange: a pipelined publisher whose sends complete only when the test says so
+        Queue<List<OutboundEvent>> handedOver = new ConcurrentLinkedQueue<>();
+        Queue<CompletableFuture<List<PublishResult>>> acks = new ConcurrentLinkedQueue<>();
+        Semaphore sends = new Semaphore(0);
+        QuoteIssuedPublisher pipelined = new StubPublisher() {
+            @Override
+            public List<PublishResult> publishBatch(List<OutboundEvent> events) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<List<PublishResult>> publishBatchAsync(List<OutboundEvent> events) {
+                handedOver.add(events);
+                CompletableFuture<List<PublishResult>> ack = new CompletableFuture<>();
+                acks.add(ack);
+                sends.release();
+                return ack.thenApply(v -> events.stream().map(e -> PublishResult.sent(e.eventId())).toList());
+            }
+
+            @Override
+            public boolean isPipelined() {
+                return true;
+            }
+
+            @Override
+            public int availableCapacity() {
+                return 10;
+            }
+        };
+        OutboxLaneDispatcher dispatcher = new OutboxLaneDispatcher(pipelined, registry, 2);
+        String laneZero = aggregateInLane(dispatcher, 0);
+        String laneOne = aggregateInLane(dispatcher, 1);
+
+        // Act: two claims for the same aggregate, then one for another lane
+        CompletableFuture<List<PublishResult>> first = dispatcher.publishAsync(List.of(new OutboundEvent("evt-0", laneZero, JSON)));
+        CompletableFuture<List<PublishResult>> second = dispatcher.publishAsync(List.of(new OutboundEvent("evt-1", laneZero, JSON)));
+        CompletableFuture<List<PublishResult>> other = dispatcher.publishAsync(List.of(new OutboundEvent("evt-2", laneOne, JSON)));
+
+        // Assert: evt-1 is held back (and counted against capacity) until evt-0's send completes; evt-2 is not
+        assertThat(sends.tryAcquire(2, 5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handedOver).extracting(lane -> lane.get(0).eventId()).containsExactlyInAnyOrder("evt-0", "evt-2");
+        assertThat(dispatcher.availableCapacity()).isEqualTo(9);
+
+        acks.forEach(ack -> ack.complete(null));
+        assertThat(sends.tryAcquire(1, 5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handedOver).extracting(lane -> lane.get(0).eventId()).endsWith("evt-1");
+        acks.forEach(ack -> ack.complete(null));
+
+        assertThat(first.join()).extracting(PublishResult::eventId).containsExactly("evt-0");
+        assertThat(second.join()).extracting(PublishResult::eventId).containsExactly("evt-1");
+        assertThat(other.join()).allMatch(PublishResult::isSent);
+        assertThat(dispatcher.availableCapacity()).isEqualTo(10);
+    }
+
+    private static String aggregateInLane(OutboxLaneDispatcher dispatcher, int lane) {
+        for (int i = 0; ; i++) {
+            String candidate = "quote-" + i;
+            if (dispatcher.laneOf(candidate) == lane) return candidate;
+        }
+    }
+
+    private static QuoteIssuedPublisher recordingPublisher(Queue<OutboundEvent> published, AtomicInteger inFlight,
+                                                           AtomicInteger maxInFlight, Duration latency) {
+        return new StubPublisher() {
+            @Override
+            public List<PublishResult> publishBatch(List<OutboundEvent> events) {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                published.addAll(events);
+                return events.stream().map(e -> PublishResult.sent(e.eventId())).toList();
+            }
+        };
+    }
+
+    private abstract static class StubPublisher implements QuoteIssuedPublisher {
+        @Override
+        public void publishCloudEventJson(String eventId, String quoteId, String cloudEventJson) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
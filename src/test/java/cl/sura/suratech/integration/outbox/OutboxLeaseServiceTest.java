@@ -0,0 +1,134 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.entity.OutboxEventEntity;
+import cl.sura.suratech.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxLeaseServiceTest {
+
+    @Container
+    static MySQLContainer<?> mysql =
+            new MySQLContainer<>("mysql:8.3")
+                    .withDatabaseName("suratech")
+                    .withUsername("root")
+                    .withPassword("root");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @Autowired OutboxEventRepository outboxRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clean() {
+        outboxRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void claim_thenAcknowledge_whenLeaseHeld_thenRowsEndSentAndReleased() {
+        // Arrange
+        OutboxLeaseService leases = leaseService("pod-a", 60_000);
+        seed(3);
+
+        // Act
+        List<OutboxEventEntity> batch = leases.claim(10);
+        assertThat(outboxRepository.findAll()).allSatisfy(e -> {
+            assertThat(e.getStatus()).isEqualTo(OutboxEventEntity.Status.PROCESSING);
+            assertThat(e.getLeaseOwner()).isEqualTo(leases.owner());
+            assertThat(e.getLeaseUntil()).isAfter(OffsetDateTime.now());
+        });
+        batch.forEach(e -> e.setStatus(OutboxEventEntity.Status.SENT));
+        leases.acknowledge(batch);
+
+        // Assert
+        assertThat(outboxRepository.findAll()).allSatisfy(e -> {
+            assertThat(e.getStatus()).isEqualTo(OutboxEventEntity.Status.SENT);
+            assertThat(e.getLeaseOwner()).isNull();
+            assertThat(e.getLeaseUntil()).isNull();
+        });
+    }
+
+    @Test
+    void reap_whenLeaseExpired_thenRowReturnsToNew_andStaleOwnerCannotAcknowledge() throws Exception {
+        // Arrange: pod-a claims with a lease that expires immediately, then "dies"
+        OutboxLeaseService podA = leaseService("pod-a", 1);
+        OutboxLeaseService podB = leaseService("pod-b", 60_000);
+        seed(2);
+        List<OutboxEventEntity> stale = podA.claim(10);
+        Thread.sleep(50);
+
+        // Act
+        int reaped = podB.reapExpiredLeases();
+        List<OutboxEventEntity> reclaimed = podB.claim(10);
+        stale.forEach(e -> e.setStatus(OutboxEventEntity.Status.SENT));
+        podA.acknowledge(stale);
+
+        // Assert
+        assertThat(reaped).isEqualTo(2);
+        assertThat(reclaimed).hasSize(2);
+        assertThat(outboxRepository.findAll()).allSatisfy(e -> {
+            assertThat(e.getStatus()).isEqualTo(OutboxEventEntity.Status.PROCESSING);
+            assertThat(e.getLeaseOwner()).isEqualTo(podB.owner());
+        });
+    }
+
+    @Test
+    void reap_whenLeaseStillValid_thenLeavesRowAlone() {
+        OutboxLeaseService leases = leaseService("pod-a", 60_000);
+        seed(1);
+        leases.claim(10);
+
+        assertThat(leases.reapExpiredLeases()).isZero();
+    }
+
+    private OutboxLeaseService leaseService(String owner, long leaseMs) {
+        return new OutboxLeaseService(outboxRepository, transactionManager, new SimpleMeterRegistry(),
+                "skip-locked", leaseMs, owner);
+    }
+
+    private void seed(int count) {
+        OffsetDateTime now = OffsetDateTime.now().minusSeconds(1);
+        for (int i = 0; i < count; i++) {
+            OutboxEventEntity e = new OutboxEventEntity();
+            e.setEventId(UUID.randomUUID().toString());
+            e.setEventType("com.suratech.quote.issued.v1");
+            e.setAggregateType("Quote");
+            e.setAggregateId(UUID.randomUUID().toString());
+            e.setPayload("{}".getBytes(StandardCharsets.UTF_8));
+        e.setPayloadEncoding("identity");
+            e.setStatus(OutboxEventEntity.Status.NEW);
+            e.setNextAttemptAt(now);
+            e.setCreatedAt(now);
+            outboxRepository.save(e);
+        }
+    }
+}
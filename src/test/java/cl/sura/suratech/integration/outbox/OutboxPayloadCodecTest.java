@@ -0,0 +1,51 @@
+package cl.sura.suratech.integration.outbox;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboxPayloadCodecTest {
+
+    private static final byte[] LARGE_JSON =
+            ("{\"items\":[" + "{\"sku\":\"SKU-0001\",\"quantity\":1},".repeat(200) + "{}]}").getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void encode_whenCompressionDisabled_thenStoresTheSameBytes() {
+        OutboxPayloadCodec codec = new OutboxPayloadCodec("none", 2048);
+
+        OutboxPayloadCodec.Encoded encoded = codec.encode(LARGE_JSON);
+
+        assertThat(encoded.encoding()).isEqualTo(OutboxPayloadCodec.IDENTITY);
+        assertThat(encoded.bytes()).isSameAs(LARGE_JSON);
+        assertThat(codec.decode(encoded.bytes(), encoded.encoding())).isSameAs(LARGE_JSON);
+    }
+
+    @Test
+    void encode_whenGzipAndLargePayload_thenCompressesAndRoundTrips() {
+        OutboxPayloadCodec codec = new OutboxPayloadCodec("gzip", 2048);
+
+        OutboxPayloadCodec.Encoded encoded = codec.encode(LARGE_JSON);
+
+        assertThat(encoded.encoding()).isEqualTo(OutboxPayloadCodec.GZIP);
+        assertThat(encoded.bytes().length).isLessThan(LARGE_JSON.length / 4);
+        assertThat(codec.decode(encoded.bytes(), encoded.encoding())).isEqualTo(LARGE_JSON);
+    }
+
+    @Test
+    void encode_whenGzipButBelowThreshold_thenStoresPlain() {
+        OutboxPayloadCodec codec = new OutboxPayloadCodec("gzip", 2048);
+        byte[] small = "{}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(codec.encode(small).encoding()).isEqualTo(OutboxPayloadCodec.IDENTITY);
+    }
+
+    @Test
+    void decode_whenUnknownEncoding_thenRejects() {
+        OutboxPayloadCodec codec = new OutboxPayloadCodec("none", 2048);
+
+        assertThatThrownBy(() -> codec.decode(new byte[0], "br")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,190 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.entity.OutboxEventEntity;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.OutboundEvent;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.PublishResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxPublisherJobTest {
+
+    private final OutboxLeaseService leaseService = mock(OutboxLeaseService.class);
+    private final QuoteIssuedPublisher publisher = mock(QuoteIssuedPublisher.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final OutboxPublisherJob job = newJob("poll");
+
+    @BeforeEach
+    void unboundedPublisher() {
+        when(publisher.availableCapacity()).thenReturn(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void tick_whenBatchPartiallyFails_thenAcknowledgesEachRowWithItsOwnResult() {
+        // Arrange
+        OutboxEventEntity ok1 = claimed("evt-1");
+        OutboxEventEntity bad = claimed("evt-2");
+        OutboxEventEntity ok2 = claimed("evt-3");
+        List<OutboxEventEntity> batch = List.of(ok1, bad, ok2);
+        when(leaseService.claim(50)).thenReturn(batch);
+        when(publisher.publishBatch(anyList())).thenReturn(List.of(
+                PublishResult.sent("evt-1"),
+                PublishResult.failed("evt-2", new IllegalArgumentException("too large")),
+                PublishResult.sent("evt-3")));
+
+        // Act
+        job.tick();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboundEvent>> sent = ArgumentCaptor.forClass(List.class);
+        verify(publisher).publishBatch(sent.capture());
+        assertThat(sent.getValue()).extracting(OutboundEvent::eventId).containsExactly("evt-1", "evt-2", "evt-3");
+        verify(leaseService).acknowledge(batch);
+
+        assertThat(ok1.getStatus()).isEqualTo(OutboxEventEntity.Status.SENT);
+        assertThat(ok2.getStatus()).isEqualTo(OutboxEventEntity.Status.SENT);
+        assertThat(bad.getStatus()).isEqualTo(OutboxEventEntity.Status.NEW);
+        assertThat(bad.getAttempts()).isEqualTo(1);
+        assertThat(bad.getLastError()).isEqualTo("too large");
+        assertThat(bad.getNextAttemptAt()).isAfter(OffsetDateTime.now());
+    }
+
+    @Test
+    void tick_whenPublisherThrows_thenEveryClaimedRowIsRetried() {
+        OutboxEventEntity e1 = claimed("evt-1");
+        OutboxEventEntity e2 = claimed("evt-2");
+        e2.setAttempts(2);
+        when(leaseService.claim(anyInt())).thenReturn(List.of(e1, e2));
+        when(publisher.publishBatch(anyList())).thenThrow(new IllegalStateException("connection lost"));
+
+        job.tick();
+
+        assertThat(e1.getStatus()).isEqualTo(OutboxEventEntity.Status.NEW);
+        assertThat(e2.getStatus()).isEqualTo(OutboxEventEntity.Status.FAILED);
+        assertThat(e1.getLastError()).isEqualTo("connection lost");
+        verify(leaseService).acknowledge(List.of(e1, e2));
+    }
+
+    @Test
+    void tick_whenNothingClaimed_thenPublishesAndAcknowledgesNothing() {
+        when(leaseService.claim(anyInt())).thenReturn(List.of());
+
+        job.tick();
+
+        verify(publisher, never()).publishBatch(anyList());
+        verify(leaseService, never()).acknowledge(anyList());
+    }
+
+    @Test
+    void tick_whenSafetyNetPollerFindsNothing_thenBacksOffInsteadOfPollingEveryTick() {
+        OutboxPublisherJob safetyNet = newJob("immediate");
+        when(leaseService.claim(anyInt())).thenReturn(List.of());
+
+        safetyNet.tick();
+        safetyNet.tick();
+        safetyNet.tick();
+
+        verify(leaseService, times(1)).claim(anyInt());
+    }
+
+    @Test
+    void tick_whenPollIsThePrimaryPath_thenPollsEveryTickEvenWhenIdle() {
+        when(leaseService.claim(anyInt())).thenReturn(List.of());
+
+        job.tick();
+        job.tick();
+
+        verify(leaseService, times(2)).claim(anyInt());
+    }
+
+    @Test
+    void tick_whenEventPublished_thenRecordsCommitToPublishLatency() {
+        when(leaseService.claim(anyInt())).thenReturn(List.of(claimed("evt-1")));
+        when(publisher.publishBatch(anyList())).thenReturn(List.of(PublishResult.sent("evt-1")));
+
+        job.tick();
+
+        assertThat(registry.get(OutboxImmediateDispatcher.COMMIT_TO_PUBLISH_METRIC).tag("path", "poller").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void tick_whenInFlightWindowFull_thenClaimsNothingAndCountsBackpressure() {
+        when(publisher.availableCapacity()).thenReturn(0);
+
+        job.tick();
+
+        verify(leaseService, never()).claim(anyInt());
+        assertThat(registry.get("outbox.publish.backpressure").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void tick_whenPublisherIsPipelined_thenAcknowledgesFromTheCompletionCallback() {
+        // Arrange: a window of two messages and a broker that has not answered yet
+        OutboxEventEntity e1 = claimed("evt-1");
+        OutboxEventEntity e2 = claimed("evt-2");
+        CompletableFuture<List<PublishResult>> broker = new CompletableFuture<>();
+        when(publisher.isPipelined()).thenReturn(true);
+        when(publisher.availableCapacity()).thenReturn(2, 0);
+        when(leaseService.claim(2)).thenReturn(List.of(e1, e2));
+        when(publisher.publishBatchAsync(anyList())).thenReturn(broker);
+
+        // Act
+        job.tick();
+        job.tick();
+
+        // Assert: ticks return without waiting, the second finds the window full, and the batch is acknowledged
+        // once the broker answers
+        verify(leaseService, times(1)).claim(anyInt());
+        verify(leaseService, never()).acknowledge(anyList());
+        assertThat(registry.get("outbox.publish.backpressure").counter().count()).isEqualTo(1);
+
+        broker.complete(List.of(PublishResult.sent("evt-1"), PublishResult.sent("evt-2")));
+
+        verify(leaseService, timeout(1_000)).acknowledge(List.of(e1, e2));
+        assertThat(e1.getStatus()).isEqualTo(OutboxEventEntity.Status.SENT);
+        assertThat(e2.getStatus()).isEqualTo(OutboxEventEntity.Status.SENT);
+    }
+
+    private OutboxPublisherJob newJob(String dispatchMode) {
+        return new OutboxPublisherJob(leaseService, new OutboxLaneDispatcher(publisher, registry, 1),
+                new OutboxPayloadCodec("none", 2048), registry,
+                50, 3, 500, true, 1000, 30000, dispatchMode);
+    }
+
+    private static OutboxEventEntity claimed(String eventId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        OutboxEventEntity e = new OutboxEventEntity();
+        e.setEventId(eventId);
+        e.setEventType("com.suratech.quote.issued.v1");
+        e.setAggregateType("Quote");
+        e.setAggregateId("quote-" + eventId);
+        e.setPayload("{}".getBytes(StandardCharsets.UTF_8));
+        e.setPayloadEncoding("identity");
+        e.setStatus(OutboxEventEntity.Status.PROCESSING);
+        e.setLeaseOwner("pod-a");
+        e.setLeaseUntil(now.plusMinutes(1));
+        e.setNextAttemptAt(now);
+        e.setCreatedAt(now);
+        return e;
+    }
+}
@@ -0,0 +1,122 @@
+package cl.sura.suratech.integration.outbox;
+
+import cl.sura.suratech.common.ClusterJobLock;
+import cl.sura.suratech.entity.OutboxEventEntity;
+import cl.sura.suratech.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRetentionJobTest {
+
+    @Container
+    static MySQLContainer<?> mysql =
+            new MySQLContainer<>("mysql:8.3")
+                    .withDatabaseName("suratech")
+                    .withUsername("root")
+                    .withPassword("root");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @Autowired OutboxEventRepository outboxRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired EntityManager entityManager;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void clean() {
+        outboxRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void runRetention_whenArchiveMode_thenMovesOnlyExpiredTerminalRows_inChunks() {
+        // Arrange
+        OffsetDateTime old = OffsetDateTime.now().minusDays(10);
+        OffsetDateTime recent = OffsetDateTime.now().minusHours(1);
+        for (int i = 0; i < 25; i++) seed(OutboxEventEntity.Status.SENT, old);
+        seed(OutboxEventEntity.Status.SENT, recent);
+        for (int i = 0; i < 3; i++) seed(OutboxEventEntity.Status.FAILED, old);
+        seed(OutboxEventEntity.Status.NEW, old);
+        long archiveBefore = count("outbox_event_archive");
+        long deadLetterBefore = count("outbox_event_dead_letter");
+
+        // Act: chunk size 10 -> three SENT chunks
+        job("archive").runRetention();
+
+        // Assert
+        assertThat(count("outbox_event_archive") - archiveBefore).isEqualTo(25);
+        assertThat(count("outbox_event_dead_letter") - deadLetterBefore).isEqualTo(3);
+        assertThat(outboxRepository.findAll())
+                .extracting(OutboxEventEntity::getStatus)
+                .containsExactlyInAnyOrder(OutboxEventEntity.Status.SENT, OutboxEventEntity.Status.NEW);
+        assertThat(registry.get("outbox.retention.rows").tag("action", "archived").counter().count()).isEqualTo(25.0);
+        assertThat(registry.get("outbox.retention.rows").tag("action", "dead_lettered").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void runRetention_whenDeleteMode_thenDropsExpiredSentRowsWithoutArchiving() {
+        seed(OutboxEventEntity.Status.SENT, OffsetDateTime.now().minusDays(10));
+        long archiveBefore = count("outbox_event_archive");
+
+        job("delete").runRetention();
+
+        assertThat(outboxRepository.count()).isZero();
+        assertThat(count("outbox_event_archive")).isEqualTo(archiveBefore);
+        assertThat(registry.get("outbox.retention.rows").tag("action", "deleted").counter().count()).isEqualTo(1.0);
+    }
+
+    private OutboxRetentionJob job(String mode) {
+        return new OutboxRetentionJob(outboxRepository, mock(ClusterJobLock.class), transactionManager, registry,
+                mode, 168, true, 24, 10, 100, 0);
+    }
+
+    private long count(String table) {
+        return ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM " + table).getSingleResult()).longValue();
+    }
+
+    private void seed(OutboxEventEntity.Status status, OffsetDateTime at) {
+        OutboxEventEntity e = new OutboxEventEntity();
+        e.setEventId(UUID.randomUUID().toString());
+        e.setEventType("com.suratech.quote.issued.v1");
+        e.setAggregateType("Quote");
+        e.setAggregateId(UUID.randomUUID().toString());
+        e.setPayload("{}".getBytes(StandardCharsets.UTF_8));
+        e.setPayloadEncoding("identity");
+        e.setStatus(status);
+        e.setAttempts(status == OutboxEventEntity.Status.FAILED ? 10 : 0);
+        e.setLastError(status == OutboxEventEntity.Status.FAILED ? "retries exhausted" : null);
+        e.setNextAttemptAt(at);
+        e.setCreatedAt(at);
+        outboxRepository.save(e);
+    }
+}
@@ -0,0 +1,118 @@
+package cl.sura.suratech.integration.servicebus;
+
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.OutboundEvent;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.PublishResult;
+import cl.sura.suratech.integration.servicebus.impl.AsyncQuoteIssuedPublisherImpl;
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderAsyncClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncQuoteIssuedPublisherImplTest {
+
+    private final ServiceBusSenderAsyncClient sender = mock(ServiceBusSenderAsyncClient.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<CompletableFuture<Void>> broker = new ArrayList<>();
+
+    @Test
+    void publishBatchAsync_whenSeveralBatches_thenSendsThemInOrder_andCompletesFromTheCallbacks() {
+        // Arrange: batches of two; the broker acknowledges only when we complete its futures
+        givenBatchesHolding(2);
+        when(sender.sendMessages(any(ServiceBusMessageBatch.class))).thenAnswer(inv -> {
+            CompletableFuture<Void> ack = new CompletableFuture<>();
+            broker.add(ack);
+            return Mono.fromFuture(ack);
+        });
+        AsyncQuoteIssuedPublisherImpl publisher = new AsyncQuoteIssuedPublisherImpl(sender, registry, 100, 1_000);
+
+        // Act
+        CompletableFuture<List<PublishResult>> pending = publisher.publishBatchAsync(events(5));
+
+        // Assert: one batch on the wire at a time, the caller is not blocked, and all messages hold the window
+        assertThat(broker).hasSize(1);
+        assertThat(pending).isNotDone();
+        assertThat(publisher.availableCapacity()).isEqualTo(95);
+
+        broker.get(0).complete(null);
+        assertThat(broker).hasSize(2);
+        broker.get(1).completeExceptionally(new IllegalStateException("throttled"));
+        assertThat(broker).hasSize(3);
+        broker.get(2).complete(null);
+
+        assertThat(pending.join()).extracting(PublishResult::isSent).containsExactly(true, true, false, false, true);
+        assertThat(publisher.availableCapacity()).isEqualTo(100);
+    }
+
+    @Test
+    void publishBatchAsync_whenWindowFull_thenFailsEventsWithoutSending() {
+        givenBatchesHolding(10);
+        when(sender.sendMessages(any(ServiceBusMessageBatch.class))).thenReturn(Mono.never());
+        AsyncQuoteIssuedPublisherImpl publisher = new AsyncQuoteIssuedPublisherImpl(sender, registry, 3, 10);
+
+        publisher.publishBatchAsync(events(3));
+        List<PublishResult> rejected = publisher.publishBatchAsync(events(1)).join();
+
+        assertThat(publisher.availableCapacity()).isZero();
+        assertThat(rejected).singleElement().satisfies(r -> assertThat(r.isSent()).isFalse());
+        verify(sender, times(1)).sendMessages(any(ServiceBusMessageBatch.class));
+    }
+
+    @Test
+    void publishBatchAsync_whenOneMessageIsLargerThanABatch_thenOnlyThatEventFails_andTheRestAreSent() {
+        ServiceBusException tooLarge = new ServiceBusException(
+                new IllegalArgumentException("LINK_PAYLOAD_SIZE_EXCEEDED"), ServiceBusErrorSource.SEND);
+        givenBatchesHolding(10, "evt-1", tooLarge);
+        when(sender.sendMessages(any(ServiceBusMessageBatch.class))).thenReturn(Mono.empty());
+        AsyncQuoteIssuedPublisherImpl publisher = new AsyncQuoteIssuedPublisherImpl(sender, registry, 100, 1_000);
+
+        List<PublishResult> results = publisher.publishBatchAsync(events(3)).join();
+
+        assertThat(results).filteredOn(PublishResult::isSent).extracting(PublishResult::eventId)
+                .containsExactlyInAnyOrder("evt-0", "evt-2");
+        assertThat(results).filteredOn(r -> !r.isSent()).singleElement()
+                .satisfies(r -> assertThat(r.error()).isSameAs(tooLarge));
+        assertThat(publisher.availableCapacity()).isEqualTo(100);
+    }
+
+    private void givenBatchesHolding(int capacity) {
+        givenBatchesHolding(capacity, null, null);
+    }
+
+    private void givenBatchesHolding(int capacity, String rejectedEventId, RuntimeException rejection) {
+        when(sender.createMessageBatch()).thenAnswer(inv -> {
+            ServiceBusMessageBatch batch = mock(ServiceBusMessageBatch.class);
+            int[] count = {0};
+            when(batch.tryAddMessage(any(ServiceBusMessage.class))).thenAnswer(add -> {
+                ServiceBusMessage msg = add.getArgument(0);
+                if (msg.getMessageId().equals(rejectedEventId)) throw rejection;
+                return count[0]++ < capacity;
+            });
+            when(batch.getMaxSizeInBytes()).thenReturn(256 * 1024);
+            return Mono.just(batch);
+        });
+    }
+
+    private static List<OutboundEvent> events(int count) {
+        List<OutboundEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new OutboundEvent("evt-" + i, "quote-" + i, ("{\"id\":\"evt-" + i + "\"}").getBytes(StandardCharsets.UTF_8)));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,117 @@
+package cl.sura.suratech.integration.servicebus;
+
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.OutboundEvent;
+import cl.sura.suratech.integration.servicebus.QuoteIssuedPublisher.PublishResult;
+import cl.sura.suratech.integration.servicebus.impl.QuoteIssuedPublisherImpl;
+import com.azure.messaging.servicebus.ServiceBusErrorSource;
+import com.azure.messaging.servicebus.ServiceBusException;
+import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
+import com.azure.messaging.servicebus.ServiceBusSenderClient;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuoteIssuedPublisherImplTest {
+
+    private final ServiceBusSenderClient sender = mock(ServiceBusSenderClient.class);
+
+    @Test
+    void publishBatch_whenEventsExceedOneBatch_thenSplitsAtTheSizeLimit_andReportsEveryEvent() {
+        // Arrange: each batch holds two messages
+        givenBatchesHolding(2);
+        QuoteIssuedPublisherImpl publisher = new QuoteIssuedPublisherImpl(sender);
+
+        // Act
+        List<PublishResult> results = publisher.publishBatch(events(5));
+
+        // Assert
+        verify(sender, times(3)).sendMessages(any(ServiceBusMessageBatch.class));
+        assertThat(results).extracting(PublishResult::eventId)
+                .containsExactly("evt-0", "evt-1", "evt-2", "evt-3", "evt-4");
+        assertThat(results).allMatch(PublishResult::isSent);
+    }
+
+    @Test
+    void publishBatch_whenOneSendFails_thenOnlyThatBatchIsReportedFailed() {
+        givenBatchesHolding(2);
+        RuntimeException boom = new IllegalStateException("throttled");
+        doThrow(boom).doNothing().when(sender).sendMessages(any(ServiceBusMessageBatch.class));
+        QuoteIssuedPublisherImpl publisher = new QuoteIssuedPublisherImpl(sender);
+
+        List<PublishResult> results = publisher.publishBatch(events(3));
+
+        assertThat(results).extracting(PublishResult::isSent).containsExactly(false, false, true);
+        assertThat(results.get(0).error()).isSameAs(boom);
+    }
+
+    @Test
+    void publishBatch_whenMessageNeverFits_thenFailsOnlyThatEvent() {
+        givenBatchesHolding(0);
+        QuoteIssuedPublisherImpl publisher = new QuoteIssuedPublisherImpl(sender);
+
+        List<PublishResult> results = publisher.publishBatch(events(1));
+
+        assertThat(results).singleElement().satisfies(r -> {
+            assertThat(r.isSent()).isFalse();
+            assertThat(r.error()).isInstanceOf(IllegalArgumentException.class);
+        });
+    }
+
+    @Test
+    void publishBatch_whenOneMessageIsLargerThanABatch_thenSdkThrowsForIt_andOnlyThatEventFails() {
+        // Arrange: the SDK throws from tryAddMessage for evt-1 instead of returning false
+        ServiceBusException tooLarge = new ServiceBusException(
+                new IllegalArgumentException("LINK_PAYLOAD_SIZE_EXCEEDED"), ServiceBusErrorSource.SEND);
+        givenBatchesHolding(10, "evt-1", tooLarge);
+        QuoteIssuedPublisherImpl publisher = new QuoteIssuedPublisherImpl(sender);
+
+        // Act
+        List<PublishResult> results = publisher.publishBatch(events(3));
+
+        // Assert
+        verify(sender, times(1)).sendMessages(any(ServiceBusMessageBatch.class));
+        assertThat(results).filteredOn(PublishResult::isSent).extracting(PublishResult::eventId)
+                .containsExactlyInAnyOrder("evt-0", "evt-2");
+        assertThat(results).filteredOn(r -> !r.isSent()).singleElement().satisfies(r -> {
+            assertThat(r.eventId()).isEqualTo("evt-1");
+            assertThat(r.error()).isSameAs(tooLarge);
+        });
+    }
+
+    private void givenBatchesHolding(int capacity) {
+        givenBatchesHolding(capacity, null, null);
+    }
+
+    private void givenBatchesHolding(int capacity, String rejectedEventId, RuntimeException rejection) {
+        when(sender.createMessageBatch()).thenAnswer(inv -> {
+            ServiceBusMessageBatch batch = mock(ServiceBusMessageBatch.class);
+            int[] count = {0};
+            when(batch.tryAddMessage(any(ServiceBusMessage.class))).thenAnswer(add -> {
+                ServiceBusMessage msg = add.getArgument(0);
+                if (msg.getMessageId().equals(rejectedEventId)) throw rejection;
+                return count[0]++ < capacity;
+            });
+            when(batch.getMaxSizeInBytes()).thenReturn(256 * 1024);
+            return batch;
+        });
+    }
+
+    private static List<OutboundEvent> events(int count) {
+        List<OutboundEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new OutboundEvent("evt-" + i, "quote-" + i, ("{\"id\":\"evt-" + i + "\"}").getBytes(StandardCharsets.UTF_8)));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,97 @@
+package cl.sura.suratech.mapper;
+
+import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.entity.QuoteItemEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuoteJsonWriterTest {
+
+    // Same defaults as the Boot-configured mapper (ISO dates, JavaTimeModule).
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final QuoteMapper mapper = new QuoteMapper(objectMapper);
+    private final QuoteJsonWriter writer = new QuoteJsonWriter(objectMapper);
+
+    @Test
+    void toBytes_whenFullQuote_thenMatchesObjectMapperOutputForTheDto() throws Exception {
+        // Arrange
+        QuoteEntity quote = quote("{\"channel\":\"web\",\"campaign\":\"spring \\\"26\\\"\"}", 3);
+        quote.setCustomerEmail("customer@example.com");
+        quote.setExpiresAt(OffsetDateTime.parse("2026-03-01T09:00:00-03:00"));
+
+        // Act
+        byte[] streamed = writer.toBytes(quote);
+
+        // Assert
+        assertThat(new String(streamed, StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(mapper.toResponse(quote)));
+    }
+
+    @Test
+    void toBytes_whenNullableFieldsAreNull_thenWritesNulls_andEmptyMetadataObject() throws Exception {
+        // Arrange
+        QuoteEntity quote = quote(null, 0);
+
+        // Act
+        byte[] streamed = writer.toBytes(quote);
+
+        // Assert
+        assertThat(new String(streamed, StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(mapper.toResponse(quote)));
+        QuoteResponse parsed = objectMapper.readValue(streamed, QuoteResponse.class);
+        assertThat(parsed.customer().email()).isNull();
+        assertThat(parsed.expiresAt()).isNull();
+        assertThat(parsed.metadata().json()).isEqualTo("{}");
+    }
+
+    @Test
+    void toResponse_whenMetadataIsNested_thenPassesItThroughVerbatim() throws Exception {
+        // Arrange: not representable as Map<String,String>, which the old mapper silently turned into {}
+        String metadata = "{\"tags\":[\"a\",\"b\"],\"source\":{\"system\":\"crm\"}}";
+        QuoteEntity quote = quote(metadata, 1);
+
+        // Act
+        String json = objectMapper.writeValueAsString(mapper.toResponse(quote));
+
+        // Assert
+        assertThat(objectMapper.readTree(json).get("metadata")).isEqualTo(objectMapper.readTree(metadata));
+    }
+
+    private static QuoteEntity quote(String payloadJson, int items) {
+        OffsetDateTime now = OffsetDateTime.parse("2026-02-23T12:00:00.123456Z");
+        QuoteEntity quote = new QuoteEntity();
+        quote.setId(UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa"));
+        quote.setDocumentId("DOC-2026-000001");
+        quote.setStatus("ISSUED");
+        quote.setCurrency("CLP");
+        quote.setCustomerId("CUST-12345");
+        quote.setSubtotal(30_000.0);
+        quote.setTaxTotal(5_700.0);
+        quote.setGrandTotal(35_700.0);
+        quote.setCreatedAt(now);
+        quote.setUpdatedAt(now);
+        quote.setPayloadJson(payloadJson);
+
+        for (int i = 0; i < items; i++) {
+            QuoteItemEntity item = new QuoteItemEntity();
+            item.setQuote(quote);
+            item.setSku("SKU-%04d".formatted(i));
+            item.setName("Item \"" + i + "\" ñ");
+            item.setQuantity(i + 1);
+            item.setUnitPrice(10_000.5);
+            item.setTaxRate(0.19);
+            item.setLineTotal(10_000.5 * (i + 1));
+            item.setTaxAmount(1_900.095 * (i + 1));
+            quote.getItems().add(item);
+        }
+        return quote;
+    }
+}
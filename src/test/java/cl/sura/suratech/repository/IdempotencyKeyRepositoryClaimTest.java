@@ -0,0 +1,125 @@
+package cl.sura.suratech.repository;
+
+import cl.sura.suratech.entity.IdempotencyKeyEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Each repository call commits on its own, as the claim, poll and complete steps do in IdempotencyServiceImpl.
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyKeyRepositoryClaimTest {
+
+    @Container
+    static MySQLContainer<?> mysql =
+            new MySQLContainer<>("mysql:8.3")
+                    .withDatabaseName("suratech")
+                    .withUsername("root")
+                    .withPassword("root");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @Autowired IdempotencyKeyRepository repo;
+
+    @Test
+    void claim_whenKeyAlreadyClaimed_thenSecondInsertFails() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        repo.saveAndFlush(pendingClaim(key, OffsetDateTime.now().plusSeconds(30)));
+
+        // Act + Assert
+        assertThatThrownBy(() -> repo.saveAndFlush(pendingClaim(key, OffsetDateTime.now().plusSeconds(30))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void completeClaim_whenPending_thenStoresQuote_andOnlyTheFirstCompletionWins() {
+        // Arrange
+        UUID key = UUID.randomUUID();
+        repo.saveAndFlush(pendingClaim(key, OffsetDateTime.now().plusSeconds(30)));
+        UUID quoteId = UUID.randomUUID();
+        byte[] snapshot = "{\"id\":\"x\"}".getBytes(StandardCharsets.UTF_8);
+        OffsetDateTime now = OffsetDateTime.now();
+
+        // Act
+        int first = repo.completeClaim(key, quoteId, snapshot, now, now.plusDays(1));
+        int second = repo.completeClaim(key, UUID.randomUUID(), snapshot, now, now.plusDays(1));
+
+        // Assert
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        IdempotencyKeyEntity row = repo.findById(key).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo(IdempotencyKeyEntity.Status.COMPLETED);
+        assertThat(row.getQuoteId()).isEqualTo(quoteId);
+        assertThat(row.getResponseSnapshot()).isEqualTo(snapshot);
+        assertThat(row.getExpiresAt()).isAfter(now.plusHours(23));
+    }
+
+    @Test
+    void releaseClaim_whenCompleted_thenKeepsRow() {
+        // Arrange
+        UUID pending = UUID.randomUUID();
+        UUID completed = UUID.randomUUID();
+        repo.saveAndFlush(pendingClaim(pending, OffsetDateTime.now().plusSeconds(30)));
+        repo.saveAndFlush(pendingClaim(completed, OffsetDateTime.now().plusSeconds(30)));
+        repo.completeClaim(completed, UUID.randomUUID(), null, OffsetDateTime.now(), OffsetDateTime.now().plusDays(1));
+
+        // Act
+        int releasedPending = repo.releaseClaim(pending);
+        int releasedCompleted = repo.releaseClaim(completed);
+
+        // Assert
+        assertThat(releasedPending).isEqualTo(1);
+        assertThat(releasedCompleted).isZero();
+        assertThat(repo.existsById(pending)).isFalse();
+        assertThat(repo.existsById(completed)).isTrue();
+    }
+
+    @Test
+    void deleteIfExpired_whenClaimStillLeased_thenKeepsIt() {
+        // Arrange
+        UUID stale = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        repo.saveAndFlush(pendingClaim(stale, OffsetDateTime.now().minusSeconds(1)));
+        repo.saveAndFlush(pendingClaim(live, OffsetDateTime.now().plusSeconds(30)));
+
+        // Act + Assert
+        assertThat(repo.deleteIfExpired(stale, OffsetDateTime.now())).isEqualTo(1);
+        assertThat(repo.deleteIfExpired(live, OffsetDateTime.now())).isZero();
+        assertThat(repo.existsById(live)).isTrue();
+    }
+
+    private static IdempotencyKeyEntity pendingClaim(UUID key, OffsetDateTime leaseUntil) {
+        IdempotencyKeyEntity e = new IdempotencyKeyEntity();
+        e.setIdempotencyKey(key);
+        e.setRequestFingerprint(new byte[32]);
+        e.setStatus(IdempotencyKeyEntity.Status.PENDING);
+        e.setCreatedAt(OffsetDateTime.now());
+        e.setExpiresAt(leaseUntil);
+        return e;
+    }
+}
@@ -0,0 +1,156 @@
+package cl.sura.suratech.repository;
+
+import cl.sura.suratech.entity.OutboxEventEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxClaimScalingTest {
+
+    private static final int EVENTS = 400;
+    private static final int BATCH_SIZE = 10;
+    private static final Duration SIMULATED_PUBLISH = Duration.ofMillis(20);
+
+    @Container
+    static MySQLContainer<?> mysql =
+            new MySQLContainer<>("mysql:8.3")
+                    .withDatabaseName("suratech")
+                    .withUsername("root")
+                    .withPassword("root");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @Autowired OutboxEventRepository outboxRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        outboxRepository.deleteAllInBatch();
+        OffsetDateTime base = OffsetDateTime.now().minusMinutes(5);
+        List<OutboxEventEntity> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(readyEvent(base.plusNanos(i * 1_000L)));
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    @Test
+    void claim_whenConcurrentClaimers_thenBatchesAreDisjoint_andEveryEventIsClaimedOnce() throws Exception {
+        // Act
+        Drain result = drain(4);
+
+        // Assert
+        assertThat(result.claimed()).hasSize(EVENTS).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void claim_whenMoreClaimers_thenDrainThroughputScales() throws Exception {
+        // Arrange
+        Drain single = drain(1);
+        seed();
+
+        // Act
+        Drain four = drain(4);
+
+        // Assert: 40 batches x 20ms publish. A single claimer needs ~800ms; four disjoint claimers ~200ms.
+        // With a blocking claim the four would queue on the same head rows and take as long as one.
+        assertThat(single.claimed()).hasSize(EVENTS);
+        assertThat(four.claimed()).hasSize(EVENTS);
+        assertThat(four.elapsed()).isLessThan(single.elapsed().dividedBy(2));
+    }
+
+    private Drain drain(int claimers) throws Exception {
+        Queue<UUID> claimed = new ConcurrentLinkedQueue<>();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long start = System.nanoTime();
+        try (ExecutorService pool = Executors.newFixedThreadPool(claimers)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < claimers; i++) {
+                futures.add(pool.submit(() -> {
+                    boolean more = true;
+                    while (more) {
+                        more = Boolean.TRUE.equals(tx.execute(status -> claimAndPublish(claimed)));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+        return new Drain(List.copyOf(claimed), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private boolean claimAndPublish(Queue<UUID> claimed) {
+        List<OutboxEventEntity> batch = outboxRepository.claimBatchReadyToProcess(
+                OutboxEventEntity.Status.NEW, OffsetDateTime.now(), PageRequest.of(0, BATCH_SIZE));
+        if (batch.isEmpty()) return false;
+
+        sleep(SIMULATED_PUBLISH);
+        for (OutboxEventEntity e : batch) {
+            e.setStatus(OutboxEventEntity.Status.SENT);
+            claimed.add(e.getId());
+        }
+        return true;
+    }
+
+    private static OutboxEventEntity readyEvent(OffsetDateTime createdAt) {
+        OutboxEventEntity e = new OutboxEventEntity();
+        e.setEventId(UUID.randomUUID().toString());
+        e.setEventType("com.suratech.quote.issued.v1");
+        e.setAggregateType("Quote");
+        e.setAggregateId(UUID.randomUUID().toString());
+        e.setPayload("{}".getBytes(StandardCharsets.UTF_8));
+        e.setPayloadEncoding("identity");
+        e.setStatus(OutboxEventEntity.Status.NEW);
+        e.setNextAttemptAt(createdAt);
+        e.setCreatedAt(createdAt);
+        return e;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Drain(List<UUID> claimed, Duration elapsed) {}
+}
@@ -0,0 +1,123 @@
+package cl.sura.suratech.repository;
+
+import cl.sura.suratech.entity.OutboxEventEntity;
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.entity.QuoteItemEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QuoteRepositoryBatchInsertTest {
+
+    private static final int MAX_ITEMS = 200;
+
+    @Container
+    static MySQLContainer<?> mysql =
+            new MySQLContainer<>("mysql:8.3")
+                    .withDatabaseName("suratech")
+                    .withUsername("root")
+                    .withPassword("root");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @Autowired QuoteRepository quoteRepository;
+    @Autowired OutboxEventRepository outboxRepository;
+    @Autowired EntityManager entityManager;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void save_whenMaxSizeQuote_thenItemsAreWrittenInBatches() {
+        // Arrange
+        QuoteEntity quote = quoteWithItems(MAX_ITEMS);
+        OutboxEventEntity event = outboxEvent(quote.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        quoteRepository.save(quote);
+        outboxRepository.save(event);
+        entityManager.flush();
+
+        // Assert: 1 quote insert + ceil(200 / batch_size) item batches + 1 outbox insert; ids are assigned in the JVM,
+        // so no id-table round trips. Without batching (IDENTITY keys or merge-on-save) this would be well over 200.
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        entityManager.clear();
+        Long persistedItems = entityManager.createQuery(
+                        "select count(i) from QuoteItemEntity i where i.quote.id = :id", Long.class)
+                .setParameter("id", quote.getId())
+                .getSingleResult();
+        assertThat(persistedItems).isEqualTo(MAX_ITEMS);
+    }
+
+    private static QuoteEntity quoteWithItems(int count) {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        QuoteEntity quote = new QuoteEntity();
+        quote.setId(UUID.randomUUID());
+        quote.setDocumentId("DOC-BATCH-000001");
+        quote.setStatus("ISSUED");
+        quote.setCurrency("CLP");
+        quote.setCustomerId("CUST-BATCH");
+        quote.setCreatedAt(now);
+        quote.setUpdatedAt(now);
+        quote.setPayloadJson("{}");
+
+        for (int i = 0; i < count; i++) {
+            QuoteItemEntity item = new QuoteItemEntity();
+            item.setQuote(quote);
+            item.setSku("SKU-%04d".formatted(i));
+            item.setName("Item " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(1_000.0);
+            item.setTaxRate(0.19);
+            item.setLineTotal(1_000.0);
+            item.setTaxAmount(190.0);
+            quote.getItems().add(item);
+        }
+        return quote;
+    }
+
+    private static OutboxEventEntity outboxEvent(UUID quoteId) {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        OutboxEventEntity e = new OutboxEventEntity();
+        e.setEventId(UUID.randomUUID().toString());
+        e.setEventType("com.suratech.quote.issued.v1");
+        e.setAggregateType("Quote");
+        e.setAggregateId(quoteId.toString());
+        e.setPayload("{}".getBytes(StandardCharsets.UTF_8));
+        e.setPayloadEncoding("identity");
+        e.setStatus(OutboxEventEntity.Status.NEW);
+        e.setNextAttemptAt(now);
+        e.setCreatedAt(now);
+        return e;
+    }
+}
@@ -0,0 +1,165 @@
+package cl.sura.suratech.repository;
+
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.entity.QuoteItemEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuoteRepositoryLatestByDocumentTest {
+
+    // Opt-in: -Dbenchmark.latest-by-document=true (seeds 1M quotes, takes a few minutes).
+    private static final int SEEDED_DOCUMENTS = 250_000;
+    private static final int VERSIONS_PER_DOCUMENT = 4;
+    private static final int BATCH = 500;
+
+    @Container
+    static MySQLContainer<?> mysql =
+            new MySQLContainer<>("mysql:8.3")
+                    .withDatabaseName("suratech")
+                    .withUsername("root")
+                    .withPassword("root");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @Autowired QuoteRepository quoteRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void latestPerDocument_whenSeveralVersions_thenReturnsNewest_withItemsInTwoStatements() {
+        // Arrange
+        OffsetDateTime t0 = OffsetDateTime.parse("2026-02-01T10:00:00Z");
+        QuoteEntity oldA = quote("DOC-LATEST-A", t0, 1);
+        QuoteEntity newA = quote("DOC-LATEST-A", t0.plusHours(1), 3);
+        QuoteEntity onlyB = quote("DOC-LATEST-B", t0, 2);
+        QuoteEntity tieLow = quote("DOC-LATEST-C", t0, 1, "00000000-0000-7000-8000-000000000001");
+        QuoteEntity tieHigh = quote("DOC-LATEST-C", t0, 1, "00000000-0000-7000-8000-000000000002");
+        quoteRepository.saveAll(List.of(oldA, newA, onlyB, tieLow, tieHigh));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<UUID> ids = quoteRepository.findLatestIdPerDocument(
+                        List.of("DOC-LATEST-A", "DOC-LATEST-B", "DOC-LATEST-C", "DOC-LATEST-MISSING")).stream()
+                .map(UUID::fromString)
+                .toList();
+        List<QuoteEntity> quotes = quoteRepository.findAllWithItemsByIdIn(ids);
+
+        // Assert
+        assertThat(ids).containsExactlyInAnyOrder(newA.getId(), onlyB.getId(), tieHigh.getId());
+        assertThat(quotes).extracting(q -> q.getItems().size()).containsExactlyInAnyOrder(3, 2, 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.latest-by-document", matches = "true")
+    void latestPerDocument_benchmark_500DocumentsOverOneMillionRows() {
+        // Arrange: rows are generated server-side; VERSIONS_PER_DOCUMENT quotes per document a day apart
+        jdbcTemplate.execute("SET SESSION cte_max_recursion_depth = " + SEEDED_DOCUMENTS * VERSIONS_PER_DOCUMENT);
+        jdbcTemplate.update("""
+                INSERT INTO quotes (id, document_id, status, currency, customer_id, subtotal, tax_total, grand_total,
+                                    created_at, updated_at, payload_json)
+                WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < ?)
+                SELECT UUID_TO_BIN(UUID()), CONCAT('DOC-BENCH-', LPAD(n DIV ?, 7, '0')), 'ISSUED', 'CLP', 'CUST-BENCH',
+                       0, 0, 0, NOW(6) - INTERVAL (n MOD ?) DAY, NOW(6), '{}'
+                FROM seq
+                """, SEEDED_DOCUMENTS * VERSIONS_PER_DOCUMENT - 1, VERSIONS_PER_DOCUMENT, VERSIONS_PER_DOCUMENT);
+        jdbcTemplate.execute("ANALYZE TABLE quotes");
+
+        List<String> documentIds = IntStream.range(0, BATCH)
+                .mapToObj(i -> "DOC-BENCH-%07d".formatted(i * (SEEDED_DOCUMENTS / BATCH)))
+                .toList();
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            runBatch(documentIds);
+        }
+        long[] samples = new long[20];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            assertThat(runBatch(documentIds)).hasSize(BATCH);
+            samples[i] = System.nanoTime() - start;
+        }
+
+        // Assert: the ranking must be served by the composite index, never a table scan
+        List<Map<String, Object>> plan = new NamedParameterJdbcTemplate(jdbcTemplate)
+                .queryForList("EXPLAIN " + QuoteRepository.LATEST_ID_PER_DOCUMENT, Map.of("documentIds", documentIds));
+        assertThat(plan).anySatisfy(row -> assertThat(row.get("key")).isEqualTo("ix_quotes_doc_created_id"));
+
+        Arrays.sort(samples);
+        System.out.printf("latest-by-document: %d rows, %d ids, p50=%.1fms p95=%.1fms max=%.1fms%n",
+                SEEDED_DOCUMENTS * VERSIONS_PER_DOCUMENT, BATCH,
+                samples[samples.length / 2] / 1e6, samples[(int) (samples.length * 0.95)] / 1e6,
+                samples[samples.length - 1] / 1e6);
+    }
+
+    private List<QuoteEntity> runBatch(List<String> documentIds) {
+        List<UUID> ids = quoteRepository.findLatestIdPerDocument(documentIds).stream().map(UUID::fromString).toList();
+        return quoteRepository.findAllWithItemsByIdIn(ids);
+    }
+
+    private static QuoteEntity quote(String documentId, OffsetDateTime createdAt, int items) {
+        return quote(documentId, createdAt, items, UUID.randomUUID().toString());
+    }
+
+    private static QuoteEntity quote(String documentId, OffsetDateTime createdAt, int items, String id) {
+        QuoteEntity quote = new QuoteEntity();
+        quote.setId(UUID.fromString(id));
+        quote.setDocumentId(documentId);
+        quote.setStatus("ISSUED");
+        quote.setCurrency("CLP");
+        quote.setCustomerId("CUST-LATEST");
+        quote.setCreatedAt(createdAt);
+        quote.setUpdatedAt(createdAt);
+        quote.setPayloadJson("{}");
+
+        for (int i = 0; i < items; i++) {
+            QuoteItemEntity item = new QuoteItemEntity();
+            item.setQuote(quote);
+            item.setSku("SKU-%04d".formatted(i));
+            item.setName("Item " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(1_000.0);
+            item.setTaxRate(0.19);
+            item.setLineTotal(1_000.0);
+            item.setTaxAmount(190.0);
+            quote.getItems().add(item);
+        }
+        return quote;
+    }
+}
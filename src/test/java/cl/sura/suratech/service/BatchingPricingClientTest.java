@@ -0,0 +1,144 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.impl.client.PricingClient;
+import cl.sura.suratech.service.impl.client.impl.BatchingPricingClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static cl.sura.suratech.testsupport.QuoteTestData.validCreateRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BatchingPricingClientTest {
+
+    // Long enough that a test finishing quickly proves the batch was sent by the size trigger, not the window.
+    private static final Duration LONG_WINDOW = Duration.ofSeconds(10);
+
+    // Catalog backend: the unit price comes from the catalog, not from the request.
+    private final Map<String, Long> catalog = Map.of("SKU-A", 10_000L, "SKU-B", 2_500L, "SKU-C", 990L);
+    private final List<Lookup> backendCalls = new CopyOnWriteArrayList<>();
+    private volatile RuntimeException backendFailure;
+    private final PricingClient backend = new PricingClient() {
+        @Override
+        public PricingResult price(QuoteCreateRequest request) {
+            throw new AssertionError("the batcher prices quotes from unitPrices only");
+        }
+
+        @Override
+        public Map<String, Long> unitPrices(String currency, Set<String> skus) {
+            backendCalls.add(new Lookup(currency, Set.copyOf(skus)));
+            if (backendFailure != null) throw backendFailure;
+            Map<String, Long> prices = new HashMap<>();
+            skus.forEach(sku -> prices.put(sku, catalog.get(sku)));
+            return prices;
+        }
+    };
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void price_whenConcurrentLookupsFillTheBatch_thenOneBackendCall_andEachQuoteGetsItsOwnLines() throws Exception {
+        // Arrange
+        BatchingPricingClient client = new BatchingPricingClient(backend, registry, LONG_WINDOW, 3);
+
+        // Act
+        List<PricingClient.PricingResult> results = priceConcurrently(client,
+                request("CLP", 1, "SKU-A"), request("CLP", 2, "SKU-B"), request("CLP", 3, "SKU-C"));
+
+        // Assert
+        assertThat(backendCalls).containsExactly(new Lookup("CLP", Set.of("SKU-A", "SKU-B", "SKU-C")));
+        assertThat(results.get(0).items()).singleElement().satisfies(it -> {
+            assertThat(it.unitPriceMinor()).isEqualTo(10_000);
+            assertThat(it.lineTotalMinor()).isEqualTo(10_000);
+            assertThat(it.taxAmountMinor()).isEqualTo(1_900);
+        });
+        assertThat(results.get(1).items().get(0).lineTotalMinor()).isEqualTo(5_000);
+        assertThat(results.get(2).items().get(0).lineTotalMinor()).isEqualTo(2_970);
+
+        assertThat(registry.get("pricing.batch.requests").summary().max()).isEqualTo(3);
+        assertThat(registry.get("pricing.batch.skus").summary().max()).isEqualTo(3);
+        assertThat(registry.get("pricing.batch.queue.delay").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void price_whenQuotesShareSkusWithinTheWindow_thenEachSkuIsPricedOnce() throws Exception {
+        // Arrange
+        BatchingPricingClient client = new BatchingPricingClient(backend, registry, Duration.ofMillis(500), 256);
+
+        // Act
+        List<PricingClient.PricingResult> results = priceConcurrently(client,
+                request("CLP", 1, "SKU-A", "SKU-B"), request("CLP", 4, "SKU-B", "SKU-C"));
+
+        // Assert
+        assertThat(backendCalls).containsExactly(new Lookup("CLP", Set.of("SKU-A", "SKU-B", "SKU-C")));
+        assertThat(results.get(0).items()).extracting(AggregationService.ItemComputed::sku)
+                .containsExactly("SKU-A", "SKU-B");
+        assertThat(results.get(1).items().get(0).lineTotalMinor()).isEqualTo(10_000);
+    }
+
+    @Test
+    void price_whenCurrenciesDiffer_thenBatchesAreSeparate() {
+        // Arrange
+        BatchingPricingClient client = new BatchingPricingClient(backend, registry, LONG_WINDOW, 1);
+
+        // Act
+        client.price(request("CLP", 1, "SKU-A"));
+        client.price(request("USD", 1, "SKU-A"));
+
+        // Assert
+        assertThat(backendCalls).extracting(Lookup::currency).containsExactly("CLP", "USD");
+    }
+
+    @Test
+    void price_whenBackendFails_thenEveryQuoteInTheBatchFails_fromOneCall() {
+        // Arrange
+        backendFailure = new IllegalStateException("pricing unavailable");
+        BatchingPricingClient client = new BatchingPricingClient(backend, registry, LONG_WINDOW, 2);
+
+        // Act + Assert
+        assertThatThrownBy(() -> priceConcurrently(client, request("CLP", 1, "SKU-A"), request("CLP", 1, "SKU-B")))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseReference(backendFailure);
+        assertThat(backendCalls).hasSize(1);
+    }
+
+    private record Lookup(String currency, Set<String> skus) {}
+
+    private static List<PricingClient.PricingResult> priceConcurrently(PricingClient client, QuoteCreateRequest... requests)
+            throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<PricingClient.PricingResult>> futures = new ArrayList<>();
+            for (QuoteCreateRequest request : requests) {
+                futures.add(executor.submit(() -> client.price(request)));
+            }
+            List<PricingClient.PricingResult> results = new ArrayList<>();
+            for (Future<PricingClient.PricingResult> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        }
+    }
+
+    private static QuoteCreateRequest request(String currency, int quantity, String... skus) {
+        QuoteCreateRequest base = validCreateRequest();
+        List<QuoteCreateRequest.Item> items = new ArrayList<>();
+        for (String sku : skus) {
+            items.add(new QuoteCreateRequest.Item(sku, "Item " + sku, quantity, 1.0, 0.19));
+        }
+        return new QuoteCreateRequest(base.documentId(), base.customer(), currency, items, base.expiresAt(), base.metadata());
+    }
+}
@@ -0,0 +1,109 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.impl.client.PricingClient;
+import cl.sura.suratech.service.impl.client.impl.CachingPricingClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cl.sura.suratech.testsupport.QuoteTestData.validCreateRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingPricingClientTest {
+
+    private static final Duration TTL = Duration.ofMinutes(60);
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(10);
+
+    // Catalog backend: the unit price comes from the catalog, not from the request.
+    private final Map<String, Long> catalog = new ConcurrentHashMap<>(Map.of(
+            "SKU-A", 10_000L, "SKU-B", 2_500L, "SKU-C", 990L));
+    private final List<Set<String>> backendCalls = new CopyOnWriteArrayList<>();
+    private final PricingClient backend = new PricingClient() {
+        @Override
+        public PricingResult price(QuoteCreateRequest request) {
+            throw new AssertionError("the cache prices quotes from unitPrices only");
+        }
+
+        @Override
+        public Map<String, Long> unitPrices(String currency, Set<String> skus) {
+            backendCalls.add(Set.copyOf(skus));
+            Map<String, Long> prices = new HashMap<>();
+            skus.forEach(sku -> prices.put(sku, catalog.get(sku)));
+            return prices;
+        }
+    };
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CachingPricingClient client = new CachingPricingClient(
+            backend, registry, 1_000, TTL, REFRESH_AFTER, Runnable::run, nanos::get);
+
+    @Test
+    void price_whenSkusWereSeenBefore_thenServesFromCache_andSendsOnlyMissesToBackend() {
+        // Arrange
+        client.price(request("SKU-A", "SKU-B"));
+
+        // Act
+        PricingClient.PricingResult result = client.price(request("SKU-A", "SKU-B", "SKU-C"));
+
+        // Assert
+        assertThat(backendCalls).containsExactly(Set.of("SKU-A", "SKU-B"), Set.of("SKU-C"));
+        assertThat(result.items()).extracting(AggregationService.ItemComputed::sku)
+                .containsExactly("SKU-A", "SKU-B", "SKU-C");
+        assertThat(result.items().get(0).lineTotalMinor()).isEqualTo(20_000);
+        assertThat(result.items().get(0).taxAmountMinor()).isEqualTo(3_800);
+        assertThat(registry.get("cache.gets").tag("cache", CachingPricingClient.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("cache.gets").tag("cache", CachingPricingClient.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void price_whenEntryIsOlderThanRefreshAfter_thenReloadsInBackground_withoutAColdMiss() {
+        // Arrange
+        client.price(request("SKU-A"));
+        catalog.put("SKU-A", 12_000L);
+        nanos.addAndGet(REFRESH_AFTER.plusSeconds(1).toNanos());
+
+        // Act
+        client.price(request("SKU-A"));
+        PricingClient.PricingResult afterRefresh = client.price(request("SKU-A"));
+
+        // Assert: the refresh looked up only the stale SKU; the quote path never waited on the backend
+        assertThat(backendCalls).containsExactly(Set.of("SKU-A"), Set.of("SKU-A"));
+        assertThat(afterRefresh.items().get(0).unitPriceMinor()).isEqualTo(12_000);
+    }
+
+    @Test
+    void price_whenEntryOutlivedTtl_thenLoadsAgainWithTheQuote() {
+        // Arrange
+        client.price(request("SKU-B"));
+        nanos.addAndGet(TTL.plusSeconds(1).toNanos());
+
+        // Act
+        client.price(request("SKU-B"));
+
+        // Assert
+        assertThat(backendCalls).containsExactly(Set.of("SKU-B"), Set.of("SKU-B"));
+    }
+
+    private static QuoteCreateRequest request(String... skus) {
+        QuoteCreateRequest base = validCreateRequest();
+        List<QuoteCreateRequest.Item> items = new ArrayList<>();
+        for (String sku : skus) {
+            items.add(new QuoteCreateRequest.Item(sku, "Item " + sku, 2, 1.0, 0.19));
+        }
+        return new QuoteCreateRequest(
+                base.documentId(), base.customer(), base.currency(), items, base.expiresAt(), base.metadata());
+    }
+}
@@ -0,0 +1,140 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.impl.AggregationServiceImpl;
+import cl.sura.suratech.service.impl.ChunkedAggregationServiceImpl;
+import cl.sura.suratech.service.impl.client.PricingClient;
+import cl.sura.suratech.service.impl.client.TaxClient;
+import cl.sura.suratech.service.impl.client.impl.PricingClientHttpImpl;
+import cl.sura.suratech.service.impl.client.impl.TaxClientHttpImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static cl.sura.suratech.testsupport.QuoteTestData.validCreateRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChunkedAggregationServiceImplTest {
+
+    // The in-process implementations, called directly (no resilience proxies).
+    private final PricingClient pricing = new PricingClientHttpImpl(RestClient.builder(), "", 1_000);
+    private final TaxClient tax = new TaxClientHttpImpl();
+
+    @Test
+    void aggregate_whenManyItems_thenPricesEveryChunk_andKeepsItemOrderAndTotals() {
+        // Arrange
+        QuoteCreateRequest request = requestWithItems(200);
+        AtomicInteger pricingCalls = new AtomicInteger();
+        PricingClient countingPricing = pricedBy(r -> {
+            pricingCalls.incrementAndGet();
+            return pricing.price(r);
+        });
+        ChunkedAggregationServiceImpl service = new ChunkedAggregationServiceImpl(countingPricing, tax, 50);
+
+        // Act
+        AggregationService.AggregationResult result = service.aggregate(request);
+
+        // Assert
+        AggregationService.AggregationResult sequential = sequential(request);
+        assertThat(pricingCalls.get()).isEqualTo(4);
+        assertThat(result.items()).extracting(AggregationService.ItemComputed::sku)
+                .containsExactlyElementsOf(request.items().stream().map(QuoteCreateRequest.Item::sku).toList());
+        assertThat(result.subtotalMinor()).isEqualTo(sequential.subtotalMinor());
+        assertThat(result.taxTotalMinor()).isEqualTo(sequential.taxTotalMinor());
+        assertThat(result.grandTotalMinor()).isEqualTo(sequential.grandTotalMinor());
+    }
+
+    @Test
+    void aggregate_whenSmallQuote_thenSingleCallOnCallerThread() {
+        QuoteCreateRequest request = validCreateRequest();
+        Thread caller = Thread.currentThread();
+        List<Thread> pricingThreads = new ArrayList<>();
+        PricingClient recordingPricing = pricedBy(r -> {
+            pricingThreads.add(Thread.currentThread());
+            return pricing.price(r);
+        });
+
+        new ChunkedAggregationServiceImpl(recordingPricing, tax, 50).aggregate(request);
+
+        assertThat(pricingThreads).containsExactly(caller);
+    }
+
+    @Test
+    void aggregate_whenOneChunkFails_thenCancelsSiblings_andRethrowsOriginalFailure() throws Exception {
+        // Arrange
+        QuoteCreateRequest request = requestWithItems(40);
+        IllegalStateException boom = new IllegalStateException("pricing down");
+        CountDownLatch siblingsStarted = new CountDownLatch(3);
+        CountDownLatch siblingsInterrupted = new CountDownLatch(3);
+
+        PricingClient failing = pricedBy(r -> {
+            if (r.items().get(0).sku().equals("SKU-000")) {
+                awaitQuietly(siblingsStarted);
+                throw boom;
+            }
+            siblingsStarted.countDown();
+            try {
+                Thread.sleep(Duration.ofSeconds(30));
+            } catch (InterruptedException e) {
+                siblingsInterrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return pricing.price(r);
+        });
+        ChunkedAggregationServiceImpl service = new ChunkedAggregationServiceImpl(failing, tax, 10);
+
+        // Act + Assert
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.aggregate(request)).isSameAs(boom);
+
+        assertThat(siblingsInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+    }
+
+    private static PricingClient pricedBy(Function<QuoteCreateRequest, PricingClient.PricingResult> price) {
+        return new PricingClient() {
+            @Override
+            public PricingResult price(QuoteCreateRequest request) {
+                return price.apply(request);
+            }
+
+            @Override
+            public Map<String, Long> unitPrices(String currency, Set<String> skus) {
+                throw new UnsupportedOperationException("aggregation prices whole quotes");
+            }
+        };
+    }
+
+    private AggregationService.AggregationResult sequential(QuoteCreateRequest request) {
+        return new AggregationServiceImpl(pricing, tax).aggregate(request);
+    }
+
+    private static QuoteCreateRequest requestWithItems(int count) {
+        QuoteCreateRequest base = validCreateRequest();
+        List<QuoteCreateRequest.Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new QuoteCreateRequest.Item(
+                    "SKU-%03d".formatted(i), "Item " + i, 1 + i % 7, 1_000.0 + i * 13.5, i % 2 == 0 ? 0.19 : 0.0));
+        }
+        return new QuoteCreateRequest(
+                base.documentId(), base.customer(), base.currency(), items, base.expiresAt(), base.metadata());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.common.ClusterJobLock;
+import cl.sura.suratech.repository.IdempotencyKeyRepository;
+import cl.sura.suratech.service.impl.IdempotencyKeyPurgeJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyKeyPurgeJobTest {
+
+    private final IdempotencyKeyRepository repo = mock(IdempotencyKeyRepository.class);
+    private final ClusterJobLock lock = mock(ClusterJobLock.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void tick_whenLockAcquired_thenDeletesChunksUntilPartialChunk() {
+        // Arrange
+        holdLock(true);
+        when(repo.deleteExpiredChunk(any(), eq(100))).thenReturn(100, 100, 7);
+
+        // Act
+        newJob(100, 50).tick();
+
+        // Assert
+        verify(repo, times(3)).deleteExpiredChunk(any(), eq(100));
+        assertThat(registry.get("idempotency.purge.rows").counter().count()).isEqualTo(207.0);
+        assertThat(registry.get("idempotency.purge.chunk").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void tick_whenAnotherReplicaHoldsLock_thenDeletesNothing() {
+        holdLock(false);
+
+        newJob(100, 50).tick();
+
+        verify(repo, never()).deleteExpiredChunk(any(), anyInt());
+    }
+
+    @Test
+    void tick_whenBacklogExceedsRunBudget_thenStopsAtMaxChunks() {
+        holdLock(true);
+        when(repo.deleteExpiredChunk(any(), anyInt())).thenReturn(10);
+
+        newJob(10, 5).tick();
+
+        verify(repo, times(5)).deleteExpiredChunk(any(), anyInt());
+    }
+
+    @Test
+    void tick_whenLockWaitTimeout_thenBacksOffAndRetries() {
+        holdLock(true);
+        when(repo.deleteExpiredChunk(any(), anyInt()))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+                .thenReturn(3);
+
+        newJob(10, 5).tick();
+
+        verify(repo, times(2)).deleteExpiredChunk(any(), anyInt());
+        assertThat(registry.get("idempotency.purge.rows").counter().count()).isEqualTo(3.0);
+    }
+
+    private void holdLock(boolean acquired) {
+        when(lock.runExclusively(anyString(), any())).thenAnswer(inv -> {
+            if (acquired) inv.getArgument(1, Runnable.class).run();
+            return acquired;
+        });
+    }
+
+    private IdempotencyKeyPurgeJob newJob(int chunkSize, int maxChunks) {
+        return new IdempotencyKeyPurgeJob(repo, lock, registry, chunkSize, maxChunks, 0, 250);
+    }
+}
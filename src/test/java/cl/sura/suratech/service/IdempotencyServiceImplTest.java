@@ -1,25 +1,42 @@
 package cl.sura.suratech.service;
 
+import cl.sura.suratech.common.TransactionStages;
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.dto.QuoteResponse;
 import cl.sura.suratech.entity.IdempotencyKeyEntity;
 import cl.sura.suratech.exception.IdempotencyConflictException;
+import cl.sura.suratech.exception.IdempotencyInProgressException;
 import cl.sura.suratech.repository.IdempotencyKeyRepository;
 import cl.sura.suratech.service.impl.IdempotencyServiceImpl;
+import cl.sura.suratech.service.impl.RequestFingerprinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.function.Supplier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static cl.sura.suratech.testsupport.QuoteTestData.quoteResponse;
 import static cl.sura.suratech.testsupport.QuoteTestData.randomIdempotencyKeyV4;
@@ -33,47 +50,246 @@ class IdempotencyServiceImplTest {
 
     @Mock IdempotencyKeyRepository repo;
     @Mock QuoteLookupService quoteLookupService;
+    @Mock PlatformTransactionManager transactionManager;
+
+    final RequestFingerprinter fingerprinter = new RequestFingerprinter();
+    final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
 
     @Captor ArgumentCaptor<IdempotencyKeyEntity> entityCaptor;
 
     @Test
-    void getOrCompute_whenNewKey_thenComputesAndPersists_andReturnsNotReplayed() {
+    void getOrCompute_whenNewKey_thenClaimsBeforeComputing_andCompletesClaimInPersistTransaction() throws Exception {
         // Arrange
         UUID key = randomIdempotencyKeyV4();
         QuoteCreateRequest request = validCreateRequest();
 
         long ttlSeconds = 86_400L;
-        IdempotencyServiceImpl service = new IdempotencyServiceImpl(repo, quoteLookupService, ttlSeconds);
+        IdempotencyServiceImpl service = newService(ttlSeconds);
 
         OffsetDateTime createdAt = OffsetDateTime.parse("2026-02-23T12:00:00Z");
         QuoteResponse created = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", createdAt);
 
         when(repo.findById(key)).thenReturn(Optional.empty());
+        when(repo.completeClaim(eq(key), any(), any(), any(), any())).thenReturn(1);
 
-        @SuppressWarnings("unchecked")
-        Supplier<QuoteResponse> supplier = mock(Supplier.class);
-        when(supplier.get()).thenReturn(created);
+        IdempotencyService.StagedComputation computation = completing(created);
 
         // Act
-        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, supplier);
+        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, computation);
 
         // Assert
         assertThat(result.replayed()).isFalse();
         assertThat(result.quote()).isEqualTo(created);
 
-        verify(supplier, times(1)).get();
+        verify(computation, times(1)).compute(any());
         verify(quoteLookupService, never()).getQuoteResponse(any());
+        verify(repo, never()).save(any());
+
+        verify(repo, times(1)).saveAndFlush(entityCaptor.capture());
+        IdempotencyKeyEntity claim = entityCaptor.getValue();
+
+        assertThat(claim.getIdempotencyKey()).isEqualTo(key);
+        assertThat(claim.getRequestFingerprint()).isEqualTo(fingerprinter.fingerprint(request));
+        assertThat(claim.getRequestFingerprint()).hasSize(RequestFingerprinter.FINGERPRINT_BYTES);
+        assertThat(claim.getStatus()).isEqualTo(IdempotencyKeyEntity.Status.PENDING);
+        assertThat(claim.getQuoteId()).isNull();
+        assertThat(claim.getExpiresAt()).isAfter(claim.getCreatedAt());
+        assertThat(claim.isNew()).isTrue();
+
+        ArgumentCaptor<byte[]> snapshot = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<OffsetDateTime> expiresAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(repo, times(1)).completeClaim(eq(key), eq(UUID.fromString(created.id())), snapshot.capture(),
+                any(), expiresAt.capture());
+        assertThat(snapshot.getValue()).isEqualTo(objectMapper.writeValueAsBytes(created));
+        assertThat(expiresAt.getValue()).isAfter(OffsetDateTime.now().plusSeconds(ttlSeconds - 60));
+    }
+
+    @Test
+    void getOrCompute_whenSameKeyConcurrentlyOnOnePod_thenComputesOnce_andFollowerReplaysLeaderResult() throws Exception {
+        // Arrange
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        IdempotencyServiceImpl service = newService(86_400L, 2_000L, registry);
+
+        QuoteResponse created = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", OffsetDateTime.parse("2026-02-23T12:00:00Z"));
+        when(repo.findById(key)).thenReturn(Optional.empty());
+        when(repo.completeClaim(eq(key), any(), any(), any(), any())).thenReturn(1);
+
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        IdempotencyService.StagedComputation computation = inPersistTransaction -> {
+            computations.incrementAndGet();
+            computing.countDown();
+            await(release);
+            inPersistTransaction.accept(created);
+            return created;
+        };
+
+        // Act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<IdempotencyService.IdempotencyResult> first = executor.submit(() -> service.getOrCompute(key, request, computation));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<IdempotencyService.IdempotencyResult> second = executor.submit(() -> service.getOrCompute(key, request, computation));
+
+            while (registry.get("idempotency.concurrent").tag("result", "coalesced").counter().count() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Assert
+            IdempotencyService.IdempotencyResult leader = first.get(5, TimeUnit.SECONDS);
+            IdempotencyService.IdempotencyResult follower = second.get(5, TimeUnit.SECONDS);
+            assertThat(leader.replayed()).isFalse();
+            assertThat(follower.replayed()).isTrue();
+            assertThat(follower.quote()).isEqualTo(created);
+        }
+        assertThat(computations).hasValue(1);
+        verify(repo, times(1)).findById(key);
+        verify(repo, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void getOrCompute_whenAnotherPodHoldsClaim_thenWaitsForItToComplete_andReplays_withoutComputing() {
+        // Arrange
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        IdempotencyServiceImpl service = newService(86_400L, 2_000L, registry);
+
+        IdempotencyKeyEntity pending = existingRow(key, fingerprinter.fingerprint(request));
+        pending.setQuoteId(null);
+        pending.setStatus(IdempotencyKeyEntity.Status.PENDING);
+        byte[] snapshot = "{\"id\":\"b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa\"}".getBytes(StandardCharsets.UTF_8);
+        IdempotencyKeyEntity completed = existingRow(key, fingerprinter.fingerprint(request));
+        completed.setStatus(IdempotencyKeyEntity.Status.COMPLETED);
+        completed.setResponseSnapshot(snapshot);
+        when(repo.findById(key)).thenReturn(Optional.of(pending), Optional.of(pending), Optional.of(completed));
+
+        IdempotencyService.StagedComputation computation = mock(IdempotencyService.StagedComputation.class);
+
+        // Act
+        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, computation);
+
+        // Assert
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.responseBody()).isEqualTo(snapshot);
+        verify(repo, times(3)).findById(key);
+        verify(repo, never()).saveAndFlush(any());
+        verify(computation, never()).compute(any());
+        assertThat(registry.get("idempotency.concurrent").tag("result", "waited").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getOrCompute_whenClaimStaysPendingPastWait_thenThrowsInProgress_withoutComputing() {
+        // Arrange
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        IdempotencyServiceImpl service = newService(86_400L, 50L, registry);
+
+        IdempotencyKeyEntity pending = existingRow(key, fingerprinter.fingerprint(request));
+        pending.setQuoteId(null);
+        pending.setStatus(IdempotencyKeyEntity.Status.PENDING);
+        when(repo.findById(key)).thenReturn(Optional.of(pending));
+
+        IdempotencyService.StagedComputation computation = mock(IdempotencyService.StagedComputation.class);
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.getOrCompute(key, request, computation))
+                .isInstanceOf(IdempotencyInProgressException.class);
+
+        verify(computation, never()).compute(any());
+        verify(repo, never()).saveAndFlush(any());
+        assertThat(registry.get("idempotency.concurrent").tag("result", "in_progress").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getOrCompute_whenClaimInsertLosesRace_thenReplaysWinnersResult() {
+        // Arrange
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        IdempotencyServiceImpl service = newService(86_400L);
+
+        byte[] snapshot = "{\"id\":\"b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa\"}".getBytes(StandardCharsets.UTF_8);
+        IdempotencyKeyEntity completed = existingRow(key, fingerprinter.fingerprint(request));
+        completed.setResponseSnapshot(snapshot);
+        when(repo.findById(key)).thenReturn(Optional.empty(), Optional.of(completed));
+        when(repo.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        IdempotencyService.StagedComputation computation = mock(IdempotencyService.StagedComputation.class);
+
+        // Act
+        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, computation);
+
+        // Assert
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.responseBody()).isEqualTo(snapshot);
+        verify(computation, never()).compute(any());
+    }
+
+    @Test
+    void getOrCompute_whenExistingExpired_thenReplacesItWithNewClaim() {
+        // Arrange
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        IdempotencyServiceImpl service = newService(86_400L);
+
+        IdempotencyKeyEntity expired = existingRow(key, new byte[RequestFingerprinter.FINGERPRINT_BYTES]);
+        expired.setExpiresAt(OffsetDateTime.now().minusMinutes(1));
+        when(repo.findById(key)).thenReturn(Optional.of(expired));
+        when(repo.deleteIfExpired(eq(key), any())).thenReturn(1);
+        when(repo.completeClaim(eq(key), any(), any(), any(), any())).thenReturn(1);
+
+        QuoteResponse created = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", OffsetDateTime.parse("2026-02-23T12:00:00Z"));
+
+        // Act
+        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, completing(created));
+
+        // Assert
+        assertThat(result.replayed()).isFalse();
+        verify(repo, times(1)).deleteIfExpired(eq(key), any());
+        verify(repo, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void getOrCompute_whenComputationFails_thenReleasesClaim_andRethrows() {
+        // Arrange
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        IdempotencyServiceImpl service = newService(86_400L);
+
+        when(repo.findById(key)).thenReturn(Optional.empty());
+        IllegalStateException failure = new IllegalStateException("pricing unavailable");
+        IdempotencyService.StagedComputation computation = inPersistTransaction -> {
+            throw failure;
+        };
+
+        // Act + Assert
+        assertThatThrownBy(() -> service.getOrCompute(key, request, computation)).isSameAs(failure);
 
-        verify(repo, times(1)).save(entityCaptor.capture());
-        IdempotencyKeyEntity saved = entityCaptor.getValue();
+        verify(repo, times(1)).saveAndFlush(any());
+        verify(repo, times(1)).releaseClaim(key);
+    }
+
+    @Test
+    void getOrCompute_whenClaimWasTakenOverBeforeCompleting_thenThrowsInProgress_andKeepsNewClaimantsRow() {
+        // Arrange
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        IdempotencyServiceImpl service = newService(86_400L);
+
+        when(repo.findById(key)).thenReturn(Optional.empty());
+        when(repo.completeClaim(eq(key), any(), any(), any(), any())).thenReturn(0);
+
+        QuoteResponse created = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", OffsetDateTime.parse("2026-02-23T12:00:00Z"));
+
+        // Act + Assert: thrown inside the persist transaction, so the quote is rolled back with it.
+        assertThatThrownBy(() -> service.getOrCompute(key, request, completing(created)))
+                .isInstanceOf(IdempotencyInProgressException.class);
 
-        assertThat(saved.getIdempotencyKey()).isEqualTo(key);
-        assertThat(saved.getRequestHash()).isNotBlank();
-        assertThat(saved.getRequestHash()).hasSize(64);
-        assertThat(saved.getQuoteId()).isEqualTo(UUID.fromString(created.id()));
-        assertThat(saved.getCreatedAt()).isNotNull();
-        assertThat(saved.getExpiresAt()).isNotNull();
-        assertThat(saved.getExpiresAt()).isAfter(saved.getCreatedAt());
+        verify(repo, never()).releaseClaim(any());
     }
 
     @Test
@@ -82,19 +298,19 @@ class IdempotencyServiceImplTest {
         QuoteCreateRequest request = validCreateRequest();
 
         long ttlSeconds = 86_400L;
-        IdempotencyServiceImpl service = new IdempotencyServiceImpl(repo, quoteLookupService, ttlSeconds);
+        IdempotencyServiceImpl service = newService(ttlSeconds);
 
         QuoteResponse created = quoteResponse(
                 "b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa",
                 OffsetDateTime.parse("2026-02-23T12:00:00Z")
         );
 
-        String hash = sha256Hex(request.toString());
+        byte[] fingerprint = fingerprinter.fingerprint(request);
 
         UUID quoteId = UUID.fromString(created.id());
         IdempotencyKeyEntity existing = new IdempotencyKeyEntity();
         existing.setIdempotencyKey(key);
-        existing.setRequestHash(hash);
+        existing.setRequestFingerprint(fingerprint);
         existing.setQuoteId(quoteId);
         existing.setCreatedAt(OffsetDateTime.now().minusMinutes(1));
         existing.setExpiresAt(OffsetDateTime.now().plusMinutes(10));
@@ -102,15 +318,14 @@ class IdempotencyServiceImplTest {
         when(repo.findById(key)).thenReturn(Optional.of(existing));
         when(quoteLookupService.getQuoteResponse(quoteId)).thenReturn(created);
 
-        @SuppressWarnings("unchecked")
-        Supplier<QuoteResponse> supplier = mock(Supplier.class);
+        IdempotencyService.StagedComputation computation = mock(IdempotencyService.StagedComputation.class);
 
-        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, supplier);
+        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, computation);
 
         assertThat(result.replayed()).isTrue();
         assertThat(result.quote()).isEqualTo(created);
 
-        verify(supplier, never()).get();
+        verify(computation, never()).compute(any());
         verify(repo, never()).save(any());
         verify(quoteLookupService, times(1)).getQuoteResponse(quoteId);
     }
@@ -122,38 +337,322 @@ class IdempotencyServiceImplTest {
         QuoteCreateRequest request = validCreateRequest();
 
         long ttlSeconds = 86_400L;
-        IdempotencyServiceImpl service = new IdempotencyServiceImpl(repo, quoteLookupService, ttlSeconds);
+        IdempotencyServiceImpl service = newService(ttlSeconds);
 
         IdempotencyKeyEntity existing = new IdempotencyKeyEntity();
         existing.setIdempotencyKey(key);
-        existing.setRequestHash("0".repeat(64)); // intentionally wrong
+        existing.setRequestFingerprint(new byte[RequestFingerprinter.FINGERPRINT_BYTES]); // intentionally wrong
         existing.setQuoteId(UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa"));
         existing.setCreatedAt(OffsetDateTime.now().minusMinutes(1));
         existing.setExpiresAt(OffsetDateTime.now().plusMinutes(10));
 
         when(repo.findById(key)).thenReturn(Optional.of(existing));
 
-        @SuppressWarnings("unchecked")
-        Supplier<QuoteResponse> supplier = mock(Supplier.class);
+        IdempotencyService.StagedComputation computation = mock(IdempotencyService.StagedComputation.class);
 
         // Act + Assert
-        assertThatThrownBy(() -> service.getOrCompute(key, request, supplier))
+        assertThatThrownBy(() -> service.getOrCompute(key, request, computation))
                 .isInstanceOf(IdempotencyConflictException.class);
 
-        verify(supplier, never()).get();
+        verify(computation, never()).compute(any());
         verify(repo, never()).save(any());
         verifyNoInteractions(quoteLookupService);
     }
 
-    private static String sha256Hex(String input) {
+    @Test
+    void getOrCompute_whenExistingHasSnapshot_thenReplaysStoredBytes_withoutLoadingQuote() {
+        UUID key = randomIdempotencyKeyV4();
+        QuoteCreateRequest request = validCreateRequest();
+        IdempotencyServiceImpl service = newService(86_400L);
+
+        byte[] snapshot = "{\"id\":\"b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa\"}".getBytes(StandardCharsets.UTF_8);
+        IdempotencyKeyEntity existing = new IdempotencyKeyEntity();
+        existing.setIdempotencyKey(key);
+        existing.setRequestFingerprint(fingerprinter.fingerprint(request));
+        existing.setQuoteId(UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa"));
+        existing.setCreatedAt(OffsetDateTime.now().minusMinutes(1));
+        existing.setExpiresAt(OffsetDateTime.now().plusMinutes(10));
+        existing.setResponseSnapshot(snapshot);
+
+        when(repo.findById(key)).thenReturn(Optional.of(existing));
+
+        IdempotencyService.StagedComputation computation = mock(IdempotencyService.StagedComputation.class);
+
+        IdempotencyService.IdempotencyResult result = service.getOrCompute(key, request, computation);
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.responseBody()).isEqualTo(snapshot);
+        assertThat(result.quote()).isNull();
+
+        verify(computation, never()).compute(any());
+        verifyNoInteractions(quoteLookupService);
+    }
+
+    @Test
+    void getOrComputeBatch_whenMixedEntries_thenOneLookup_claimsAndComputesOnlyNewKeys_andReportsEachOutcome() throws Exception {
+        // Arrange
+        IdempotencyServiceImpl service = newService(86_400L);
+        QuoteCreateRequest request = validCreateRequest();
+        QuoteCreateRequest other = new QuoteCreateRequest("DOC-2026-000002", request.customer(), request.currency(),
+                request.items(), request.expiresAt(), request.metadata());
+
+        UUID fresh = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a01");
+        UUID replayed = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a02");
+        UUID conflicting = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a03");
+        UUID failing = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a04");
+
+        QuoteResponse stored = quoteResponse("11111111-2222-4333-8444-555555555555", OffsetDateTime.parse("2026-02-20T12:00:00Z"));
+        IdempotencyKeyEntity replayRow = existingRow(replayed, fingerprinter.fingerprint(request));
+        replayRow.setResponseSnapshot(objectMapper.writeValueAsBytes(stored));
+        IdempotencyKeyEntity conflictRow = existingRow(conflicting, new byte[RequestFingerprinter.FINGERPRINT_BYTES]);
+        when(repo.findAllById(any())).thenReturn(List.of(replayRow, conflictRow));
+        when(repo.completeClaim(eq(fresh), any(), any(), any(), any())).thenReturn(1);
+
+        QuoteResponse created = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", OffsetDateTime.parse("2026-02-23T12:00:00Z"));
+        List<List<QuoteCreateRequest>> computed = new ArrayList<>();
+        IdempotencyService.BatchComputation computation = (requests, inPersistTransaction) -> {
+            computed.add(requests);
+            inPersistTransaction.accept(List.of(new QuoteApplicationService.Created(0, created)));
+            return List.of(
+                    new QuoteApplicationService.BatchOutcome(created, null),
+                    new QuoteApplicationService.BatchOutcome(null, new IllegalStateException("pricing unavailable")));
+        };
+
+        // Act
+        List<IdempotencyService.BatchEntryResult> results = service.getOrComputeBatch(List.of(
+                new IdempotencyService.KeyedRequest(fresh, request),
+                new IdempotencyService.KeyedRequest(replayed, request),
+                new IdempotencyService.KeyedRequest(conflicting, request),
+                new IdempotencyService.KeyedRequest(failing, other),
+                new IdempotencyService.KeyedRequest(fresh, request),
+                new IdempotencyService.KeyedRequest(fresh, other)
+        ), computation);
+
+        // Assert
+        assertThat(results).extracting(IdempotencyService.BatchEntryResult::outcome).containsExactly(
+                IdempotencyService.Outcome.CREATED,
+                IdempotencyService.Outcome.REPLAYED,
+                IdempotencyService.Outcome.CONFLICT,
+                IdempotencyService.Outcome.FAILED,
+                IdempotencyService.Outcome.REPLAYED,
+                IdempotencyService.Outcome.CONFLICT);
+        assertThat(results.get(0).quote()).isEqualTo(created);
+        assertThat(results.get(1).quote()).isEqualTo(stored);
+        assertThat(results.get(3).error()).isEqualTo("pricing unavailable");
+        assertThat(results.get(4).quote()).isEqualTo(created);
+        assertThat(computed).containsExactly(List.of(request, other));
+
+        verify(repo, times(1)).findAllById(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<IdempotencyKeyEntity>> claims = ArgumentCaptor.forClass(List.class);
+        verify(repo, times(1)).saveAllAndFlush(claims.capture());
+        assertThat(claims.getValue()).extracting(IdempotencyKeyEntity::getIdempotencyKey).containsExactly(fresh, failing);
+        assertThat(claims.getValue()).allSatisfy(e -> assertThat(e.isPending()).isTrue());
+        verify(repo, times(1)).completeClaim(eq(fresh), eq(UUID.fromString(created.id())), any(), any(), any());
+        verify(repo, times(1)).releaseClaim(failing);
+        verify(repo, never()).releaseClaim(fresh);
+        verify(repo, never()).saveAll(any());
+        verifyNoInteractions(quoteLookupService);
+    }
+
+    @Test
+    void getOrComputeBatch_whenSingleCreateClaimsTheKeyAfterTheBatchLookup_thenBulkEntryConflicts_withoutPricingIt()
+            throws Exception {
+        // Arrange
+        ClaimTable table = new ClaimTable();
+        IdempotencyServiceImpl service = newService(86_400L, 2_000L, new SimpleMeterRegistry());
+        QuoteCreateRequest request = validCreateRequest();
+        QuoteCreateRequest other = new QuoteCreateRequest("DOC-2026-000002", request.customer(), request.currency(),
+                request.items(), request.expiresAt(), request.metadata());
+        UUID raced = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a11");
+        UUID untouched = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a12");
+
+        QuoteResponse single = quoteResponse("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa", OffsetDateTime.parse("2026-02-23T12:00:00Z"));
+        CountDownLatch singleComputing = new CountDownLatch(1);
+        CountDownLatch releaseSingle = new CountDownLatch(1);
+        AtomicInteger singleComputations = new AtomicInteger();
+        IdempotencyService.StagedComputation singleComputation = inPersistTransaction -> {
+            singleComputations.incrementAndGet();
+            singleComputing.countDown();
+            await(releaseSingle);
+            inPersistTransaction.accept(single);
+            return single;
+        };
+        RecordingBatch bulk = new RecordingBatch();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // The single create claims the key between the bulk request's lookup and its claim.
+            List<Future<IdempotencyService.IdempotencyResult>> singleResult = new ArrayList<>();
+            table.afterBatchLookup = () -> {
+                singleResult.add(executor.submit(() -> service.getOrCompute(raced, request, singleComputation)));
+                await(singleComputing);
+            };
+
+            // Act
+            List<IdempotencyService.BatchEntryResult> results = service.getOrComputeBatch(List.of(
+                    new IdempotencyService.KeyedRequest(raced, request),
+                    new IdempotencyService.KeyedRequest(untouched, other)
+            ), bulk);
+            releaseSingle.countDown();
+
+            // Assert
+            assertThat(results).extracting(IdempotencyService.BatchEntryResult::outcome).containsExactly(
+                    IdempotencyService.Outcome.CONFLICT, IdempotencyService.Outcome.CREATED);
+            assertThat(bulk.computed).containsExactly(List.of(other));
+            assertThat(singleResult.get(0).get(5, TimeUnit.SECONDS).quote()).isEqualTo(single);
+        }
+        assertThat(singleComputations).hasValue(1);
+        assertThat(table.rows.get(raced).getQuoteId()).isEqualTo(UUID.fromString(single.id()));
+        assertThat(table.rows.get(raced).getStatus()).isEqualTo(IdempotencyKeyEntity.Status.COMPLETED);
+        assertThat(table.rows.get(untouched).getStatus()).isEqualTo(IdempotencyKeyEntity.Status.COMPLETED);
+    }
+
+    @Test
+    void getOrCompute_whenBulkEntryHoldsTheClaim_thenSingleCreateWaits_andReplaysTheBulkQuote_withoutComputing()
+            throws Exception {
+        // Arrange
+        ClaimTable table = new ClaimTable();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        IdempotencyServiceImpl service = newService(86_400L, 2_000L, registry);
+        QuoteCreateRequest request = validCreateRequest();
+        UUID key = UUID.fromString("0b7c2a55-5d5e-4c9b-9f0e-0e8f2f0b1a21");
+
+        CountDownLatch bulkComputing = new CountDownLatch(1);
+        CountDownLatch releaseBulk = new CountDownLatch(1);
+        RecordingBatch bulk = new RecordingBatch(() -> {
+            bulkComputing.countDown();
+            await(releaseBulk);
+        });
+        IdempotencyService.StagedComputation singleComputation = mock(IdempotencyService.StagedComputation.class);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<IdempotencyService.BatchEntryResult>> bulkResult = executor.submit(() ->
+                    service.getOrComputeBatch(List.of(new IdempotencyService.KeyedRequest(key, request)), bulk));
+            assertThat(bulkComputing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act
+            Future<IdempotencyService.IdempotencyResult> singleResult =
+                    executor.submit(() -> service.getOrCompute(key, request, singleComputation));
+            while (registry.get("idempotency.concurrent").tag("result", "waited").counter().count() < 1) {
+                Thread.sleep(5);
+            }
+            releaseBulk.countDown();
+
+            // Assert
+            QuoteResponse created = bulkResult.get(5, TimeUnit.SECONDS).get(0).quote();
+            IdempotencyService.IdempotencyResult replay = singleResult.get(5, TimeUnit.SECONDS);
+            assertThat(replay.replayed()).isTrue();
+            assertThat(objectMapper.readValue(replay.responseBody(), QuoteResponse.class)).isEqualTo(created);
+        }
+        verify(singleComputation, never()).compute(any());
+        assertThat(bulk.computed).containsExactly(List.of(request));
+    }
+
+    // In-memory idempotency_keys behind the mocked repository; inserting a key that exists fails like the primary key.
+    private final class ClaimTable {
+        final ConcurrentMap<UUID, IdempotencyKeyEntity> rows = new ConcurrentHashMap<>();
+        volatile Runnable afterBatchLookup = () -> {};
+
+        ClaimTable() {
+            lenient().when(repo.findById(any())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<UUID>getArgument(0))));
+            lenient().when(repo.findAllById(any())).thenAnswer(inv -> {
+                List<IdempotencyKeyEntity> found = new ArrayList<>();
+                inv.<Iterable<UUID>>getArgument(0).forEach(key -> Optional.ofNullable(rows.get(key)).ifPresent(found::add));
+                afterBatchLookup.run();
+                return found;
+            });
+            lenient().when(repo.saveAndFlush(any())).thenAnswer(inv -> insert(List.of(inv.<IdempotencyKeyEntity>getArgument(0))).get(0));
+            lenient().when(repo.saveAllAndFlush(any())).thenAnswer(inv -> insert(inv.getArgument(0)));
+            lenient().when(repo.completeClaim(any(), any(), any(), any(), any())).thenAnswer(inv -> {
+                UUID key = inv.getArgument(0);
+                IdempotencyKeyEntity row = rows.get(key);
+                if (row == null || !row.isPending()) return 0;
+                IdempotencyKeyEntity completed = existingRow(key, row.getRequestFingerprint());
+                completed.setStatus(IdempotencyKeyEntity.Status.COMPLETED);
+                completed.setQuoteId(inv.getArgument(1));
+                completed.setResponseSnapshot(inv.getArgument(2));
+                return rows.replace(key, row, completed) ? 1 : 0;
+            });
+            lenient().when(repo.releaseClaim(any())).thenAnswer(inv -> {
+                UUID key = inv.getArgument(0);
+                IdempotencyKeyEntity row = rows.get(key);
+                return row != null && row.isPending() && rows.remove(key, row) ? 1 : 0;
+            });
+        }
+
+        private synchronized List<IdempotencyKeyEntity> insert(List<IdempotencyKeyEntity> claims) {
+            if (claims.stream().anyMatch(claim -> rows.containsKey(claim.getIdempotencyKey()))) {
+                throw new DataIntegrityViolationException("Duplicate entry for key 'PRIMARY'");
+            }
+            claims.forEach(claim -> rows.put(claim.getIdempotencyKey(), claim));
+            return claims;
+        }
+    }
+
+    // Stands in for QuoteApplicationService.createQuotes: one quote per request, all persisted in one callback.
+    private static final class RecordingBatch implements IdempotencyService.BatchComputation {
+        final List<List<QuoteCreateRequest>> computed = new CopyOnWriteArrayList<>();
+        private final Runnable beforePersist;
+
+        RecordingBatch() {
+            this(() -> {});
+        }
+
+        RecordingBatch(Runnable beforePersist) {
+            this.beforePersist = beforePersist;
+        }
+
+        @Override
+        public List<QuoteApplicationService.BatchOutcome> compute(
+                List<QuoteCreateRequest> requests, Consumer<List<QuoteApplicationService.Created>> inPersistTransaction) {
+            computed.add(requests);
+            beforePersist.run();
+            List<QuoteApplicationService.Created> created = new ArrayList<>();
+            for (int i = 0; i < requests.size(); i++) {
+                created.add(new QuoteApplicationService.Created(i,
+                        quoteResponse(UUID.randomUUID().toString(), OffsetDateTime.parse("2026-02-23T12:00:00Z"))));
+            }
+            inPersistTransaction.accept(created);
+            return created.stream().map(c -> new QuoteApplicationService.BatchOutcome(c.quote(), null)).toList();
+        }
+    }
+
+    private static IdempotencyKeyEntity existingRow(UUID key, byte[] fingerprint) {
+        IdempotencyKeyEntity row = new IdempotencyKeyEntity();
+        row.setIdempotencyKey(key);
+        row.setRequestFingerprint(fingerprint);
+        row.setQuoteId(UUID.fromString("11111111-2222-4333-8444-555555555555"));
+        row.setCreatedAt(OffsetDateTime.now().minusMinutes(1));
+        row.setExpiresAt(OffsetDateTime.now().plusMinutes(10));
+        return row;
+    }
+
+    // A mock, so tests can verify how often the computation ran.
+    @SuppressWarnings("unchecked")
+    private static IdempotencyService.StagedComputation completing(QuoteResponse created) {
+        IdempotencyService.StagedComputation computation = mock(IdempotencyService.StagedComputation.class);
+        when(computation.compute(any())).thenAnswer(invocation -> {
+            ((Consumer<QuoteResponse>) invocation.getArgument(0)).accept(created);
+            return created;
+        });
+        return computation;
+    }
+
+    private static void await(CountDownLatch latch) {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] digest = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(digest.length * 2);
-            for (byte b : digest) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
-}
\ No newline at end of file
+
+    private IdempotencyServiceImpl newService(long ttlSeconds) {
+        return newService(ttlSeconds, 200L, new SimpleMeterRegistry());
+    }
+
+    private IdempotencyServiceImpl newService(long ttlSeconds, long claimWaitMs, SimpleMeterRegistry registry) {
+        TransactionStages stages = new TransactionStages(transactionManager, new SimpleMeterRegistry());
+        return new IdempotencyServiceImpl(repo, quoteLookupService, stages, fingerprinter, objectMapper, registry,
+                ttlSeconds, 30_000L, claimWaitMs, 5L);
+    }
+}
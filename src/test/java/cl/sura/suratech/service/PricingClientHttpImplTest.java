@@ -0,0 +1,75 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.service.impl.client.impl.PricingClientHttpImpl;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PricingClientHttpImplTest {
+
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void unitPrices_whenCatalogAnswers_thenSendsEverySkuEncoded_andReturnsMinorUnitsForRequestedSkusOnly() throws Exception {
+        // Arrange
+        PricingClientHttpImpl client = clientFor("""
+                {"prices":[{"sku":"SKU-A","unitPrice":9990.0},{"sku":"A&B","unitPrice":12.5},{"sku":"SKU-X","unitPrice":1.0}]}
+                """);
+
+        // Act
+        Map<String, Long> prices = client.unitPrices("USD", new LinkedHashSet<>(List.of("SKU-A", "A&B", "SKU-C")));
+
+        // Assert
+        assertThat(queries).singleElement().satisfies(query -> assertThat(URLDecoder.decode(query, StandardCharsets.UTF_8))
+                .isEqualTo("currency=USD&sku=SKU-A&sku=A&B&sku=SKU-C"));
+        assertThat(queries.get(0)).contains("sku=A%26B");
+        assertThat(prices).containsExactlyInAnyOrderEntriesOf(Map.of("SKU-A", 999_000L, "A&B", 1_250L));
+    }
+
+    @Test
+    void unitPrices_whenBaseUrlIsNotSet_thenFailsWithoutCallingOut() {
+        // Arrange
+        PricingClientHttpImpl client = new PricingClientHttpImpl(RestClient.builder(), "", 1_000);
+
+        // Act + Assert
+        assertThatThrownBy(() -> client.unitPrices("CLP", Set.of("SKU-A")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.pricing.base-url");
+    }
+
+    private PricingClientHttpImpl clientFor(String body) throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/prices", exchange -> {
+            queries.add(exchange.getRequestURI().getRawQuery());
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        return new PricingClientHttpImpl(RestClient.builder(),
+                "http://127.0.0.1:" + server.getAddress().getPort(), 1_000);
+    }
+}
@@ -0,0 +1,102 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.common.CurrencyRules;
+import cl.sura.suratech.common.TransactionStages;
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.integration.outbox.QuoteIssuedOutboxService;
+import cl.sura.suratech.mapper.QuoteMapper;
+import cl.sura.suratech.repository.QuoteRepository;
+import cl.sura.suratech.service.impl.QuoteApplicationServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static cl.sura.suratech.testsupport.QuoteTestData.validCreateRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class QuoteApplicationServiceImplBulkTest {
+
+    private final AggregationService aggregationService = mock(AggregationService.class);
+    private final QuoteRepository quoteRepository = mock(QuoteRepository.class);
+    private final QuoteIssuedOutboxService outboxService = mock(QuoteIssuedOutboxService.class);
+    private final TransactionStages stages =
+            new TransactionStages(mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+
+    private final QuoteApplicationServiceImpl service = new QuoteApplicationServiceImpl(
+            aggregationService, quoteRepository, outboxService, new QuoteMapper(new ObjectMapper()), stages, UUID::randomUUID, 4, 2);
+
+    @Test
+    void createQuotes_whenOneAggregationFails_thenOthersPersistInChunks_andFailureIsReportedInPlace() {
+        // Arrange
+        List<QuoteCreateRequest> requests = requests(5);
+        when(aggregationService.aggregate(any())).thenAnswer(inv -> {
+            QuoteCreateRequest r = inv.getArgument(0);
+            if (r.documentId().equals("DOC-BULK-2")) throw new IllegalStateException("pricing unavailable");
+            return aggregation();
+        });
+        List<List<Integer>> persistedChunks = new ArrayList<>();
+
+        // Act
+        List<QuoteApplicationService.BatchOutcome> outcomes = service.createQuotes(requests,
+                created -> persistedChunks.add(created.stream().map(QuoteApplicationService.Created::index).toList()));
+
+        // Assert
+        assertThat(outcomes).extracting(o -> o.quote() != null).containsExactly(true, true, false, true, true);
+        assertThat(outcomes.get(2).error()).hasMessage("pricing unavailable");
+        assertThat(outcomes.get(3).quote().documentId()).isEqualTo("DOC-BULK-3");
+        assertThat(persistedChunks).containsExactly(List.of(0, 1), List.of(3, 4));
+        verify(quoteRepository, times(2)).saveAll(anyList());
+        verify(outboxService, times(2)).enqueueQuoteIssuedAll(anyList());
+        verify(quoteRepository, never()).save(any());
+    }
+
+    @Test
+    void createQuotes_whenChunkFailsToPersist_thenRetriesEntriesOneByOne_soOnlyTheBadEntryFails() {
+        // Arrange
+        List<QuoteCreateRequest> requests = requests(2);
+        when(aggregationService.aggregate(any())).thenReturn(aggregation());
+        List<Integer> saveSizes = new CopyOnWriteArrayList<>();
+        when(quoteRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<QuoteEntity> entities = inv.getArgument(0);
+            saveSizes.add(entities.size());
+            if (entities.stream().anyMatch(e -> e.getDocumentId().equals("DOC-BULK-1"))) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return entities;
+        });
+
+        // Act
+        List<QuoteApplicationService.BatchOutcome> outcomes = service.createQuotes(requests, created -> {});
+
+        // Assert
+        assertThat(saveSizes).containsExactly(2, 1, 1);
+        assertThat(outcomes.get(0).quote()).isNotNull();
+        assertThat(outcomes.get(1).error()).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static List<QuoteCreateRequest> requests(int count) {
+        QuoteCreateRequest base = validCreateRequest();
+        return IntStream.range(0, count)
+                .mapToObj(i -> new QuoteCreateRequest("DOC-BULK-" + i, base.customer(), base.currency(),
+                        base.items(), base.expiresAt(), base.metadata()))
+                .toList();
+    }
+
+    private static AggregationService.AggregationResult aggregation() {
+        return new AggregationService.AggregationResult(CurrencyRules.of("CLP"),
+                List.of(new AggregationService.ItemComputed("SKU-001", "Item 1", 2, 10_000, 190_000, 20_000, 3_800)),
+                20_000, 3_800, 23_800);
+    }
+}
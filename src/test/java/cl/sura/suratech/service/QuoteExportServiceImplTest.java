@@ -0,0 +1,163 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.entity.QuoteItemEntity;
+import cl.sura.suratech.repository.QuoteRepository;
+import cl.sura.suratech.service.impl.QuoteExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuoteExportServiceImplTest {
+
+    // Smaller than the seeded set so every export crosses several keyset pages.
+    private static final int PAGE_SIZE = 2;
+
+    @Container
+    static MySQLContainer<?> mysql =
+            new MySQLContainer<>("mysql:8.3")
+                    .withDatabaseName("suratech")
+                    .withUsername("root")
+                    .withPassword("root");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("spring.datasource.driver-class-name", mysql::getDriverClassName);
+    }
+
+    @Autowired QuoteRepository quoteRepository;
+    @Autowired DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private QuoteExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new QuoteExportServiceImpl(dataSource, objectMapper, new SimpleMeterRegistry(), PAGE_SIZE, 100);
+    }
+
+    @Test
+    void exportNdjson_whenRangeSpansSeveralPages_thenStreamsEveryQuoteOnceInKeysetOrder_withItems() throws IOException {
+        // Arrange: equal created_at within a document exercises the id tie-break of the cursor
+        OffsetDateTime t0 = OffsetDateTime.parse("2031-03-01T10:00:00Z");
+        QuoteEntity a1 = quote("DOC-EXPORT-A", t0, 2, "00000000-0000-7000-8000-00000000000a");
+        QuoteEntity a2 = quote("DOC-EXPORT-A", t0, 1, "00000000-0000-7000-8000-00000000000b");
+        QuoteEntity a3 = quote("DOC-EXPORT-A", t0.plusMinutes(1), 3, "00000000-0000-7000-8000-000000000001");
+        QuoteEntity b1 = quote("DOC-EXPORT-B", t0.minusMinutes(5), 1, UUID.randomUUID().toString());
+        QuoteEntity c1 = quote("DOC-EXPORT-C", t0.plusMinutes(2), 0, UUID.randomUUID().toString());
+        QuoteEntity outside = quote("DOC-EXPORT-A", t0.plusDays(1), 1, UUID.randomUUID().toString());
+        quoteRepository.saveAll(List.of(c1, a3, outside, b1, a2, a1));
+
+        // Act
+        List<QuoteResponse> lines = export(new QuoteExportService.ExportFilter(t0.minusHours(1), t0.plusHours(1), null));
+
+        // Assert
+        assertThat(lines).extracting(QuoteResponse::id).containsExactly(
+                a1.getId().toString(), a2.getId().toString(), a3.getId().toString(),
+                b1.getId().toString(), c1.getId().toString());
+        assertThat(lines).extracting(q -> q.items().size()).containsExactly(2, 1, 3, 1, 0);
+        assertThat(lines.get(0).items().get(1).sku()).isEqualTo("SKU-0001");
+        assertThat(objectMapper.readTree(lines.get(0).metadata().json()).get("channel").asText()).isEqualTo("export-test");
+        assertThat(lines.get(0).createdAt().toInstant()).isEqualTo(t0.toInstant());
+    }
+
+    @Test
+    void exportNdjson_whenDocumentFilter_thenOnlyThatDocumentIsStreamed() throws IOException {
+        // Arrange
+        OffsetDateTime t0 = OffsetDateTime.parse("2031-04-01T10:00:00Z");
+        QuoteEntity first = quote("DOC-EXPORT-ONLY", t0, 1, UUID.randomUUID().toString());
+        QuoteEntity second = quote("DOC-EXPORT-ONLY", t0.plusSeconds(1), 1, UUID.randomUUID().toString());
+        QuoteEntity third = quote("DOC-EXPORT-ONLY", t0.plusSeconds(2), 1, UUID.randomUUID().toString());
+        QuoteEntity other = quote("DOC-EXPORT-OTHER", t0, 1, UUID.randomUUID().toString());
+        quoteRepository.saveAll(List.of(third, other, first, second));
+
+        // Act
+        List<QuoteResponse> lines = export(new QuoteExportService.ExportFilter(null, null, "DOC-EXPORT-ONLY"));
+
+        // Assert
+        assertThat(lines).extracting(QuoteResponse::id).containsExactly(
+                first.getId().toString(), second.getId().toString(), third.getId().toString());
+    }
+
+    @Test
+    void exportNdjson_whenNothingMatches_thenWritesEmptyBody() throws IOException {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long written = exportService.exportNdjson(
+                new QuoteExportService.ExportFilter(null, null, "DOC-EXPORT-MISSING"), out);
+
+        // Assert
+        assertThat(written).isZero();
+        assertThat(out.size()).isZero();
+    }
+
+    private List<QuoteResponse> export(QuoteExportService.ExportFilter filter) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportNdjson(filter, out);
+
+        List<QuoteResponse> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) lines.add(objectMapper.readValue(line, QuoteResponse.class));
+        }
+        assertThat(lines).hasSize((int) written);
+        return lines;
+    }
+
+    private static QuoteEntity quote(String documentId, OffsetDateTime createdAt, int items, String id) {
+        QuoteEntity quote = new QuoteEntity();
+        quote.setId(UUID.fromString(id));
+        quote.setDocumentId(documentId);
+        quote.setStatus("ISSUED");
+        quote.setCurrency("CLP");
+        quote.setCustomerId("CUST-EXPORT");
+        quote.setCreatedAt(createdAt);
+        quote.setUpdatedAt(createdAt);
+        quote.setPayloadJson("{\"channel\":\"export-test\"}");
+
+        for (int i = 0; i < items; i++) {
+            QuoteItemEntity item = new QuoteItemEntity();
+            item.setQuote(quote);
+            item.setSku("SKU-%04d".formatted(i));
+            item.setName("Item " + i);
+            item.setQuantity(1);
+            item.setUnitPrice(1_000.0);
+            item.setTaxRate(0.19);
+            item.setLineTotal(1_000.0);
+            item.setTaxAmount(190.0);
+            quote.getItems().add(item);
+        }
+        return quote;
+    }
+}
@@ -0,0 +1,108 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.common.TransactionStages;
+import cl.sura.suratech.entity.QuoteEntity;
+import cl.sura.suratech.exception.QuoteNotFoundException;
+import cl.sura.suratech.mapper.QuoteJsonWriter;
+import cl.sura.suratech.mapper.QuoteMapper;
+import cl.sura.suratech.repository.QuoteRepository;
+import cl.sura.suratech.service.impl.QuoteLookupServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteLookupServiceImplTest {
+
+    @Mock QuoteRepository quoteRepository;
+    @Mock PlatformTransactionManager transactionManager;
+
+    final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void getSerializedQuote_whenRepeated_thenLoadsOnce_andServesSameBytesAndEtag() throws Exception {
+        // Arrange
+        QuoteLookupServiceImpl service = newService();
+        QuoteEntity quote = quote();
+        when(quoteRepository.findWithItemsById(quote.getId())).thenReturn(Optional.of(quote));
+
+        // Act
+        QuoteLookupService.SerializedQuote first = service.getSerializedQuote(quote.getId());
+        QuoteLookupService.SerializedQuote second = service.getSerializedQuote(quote.getId());
+
+        // Assert
+        verify(quoteRepository, times(1)).findWithItemsById(quote.getId());
+        assertThat(second.body()).isSameAs(first.body());
+        assertThat(first.etag()).matches("\"[A-Za-z0-9_-]{43}\"");
+        assertThat(objectMapper.readTree(first.body()).get("id").asText()).isEqualTo(quote.getId().toString());
+        assertThat(registry.get("cache.gets").tag("cache", QuoteLookupServiceImpl.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getSerializedQuote_whenNotFound_thenThrows_andDoesNotCacheTheMiss() {
+        QuoteLookupServiceImpl service = newService();
+        UUID id = UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa");
+        when(quoteRepository.findWithItemsById(id)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getSerializedQuote(id)).isInstanceOf(QuoteNotFoundException.class);
+        assertThatThrownBy(() -> service.getSerializedQuote(id)).isInstanceOf(QuoteNotFoundException.class);
+
+        verify(quoteRepository, times(2)).findWithItemsById(id);
+    }
+
+    @Test
+    void getSerializedQuote_whenMiss_thenLoadsOnAVirtualThread_notInsideTheCallersCacheLock() {
+        // Arrange
+        QuoteLookupServiceImpl service = newService();
+        QuoteEntity quote = quote();
+        AtomicReference<Thread> loader = new AtomicReference<>();
+        when(quoteRepository.findWithItemsById(quote.getId())).thenAnswer(inv -> {
+            loader.set(Thread.currentThread());
+            return Optional.of(quote);
+        });
+
+        // Act
+        service.getSerializedQuote(quote.getId());
+
+        // Assert
+        assertThat(loader.get()).isNotSameAs(Thread.currentThread());
+        assertThat(loader.get().isVirtual()).isTrue();
+    }
+
+    private QuoteLookupServiceImpl newService() {
+        TransactionStages stages = new TransactionStages(transactionManager, registry);
+        return new QuoteLookupServiceImpl(quoteRepository, new QuoteMapper(objectMapper), stages,
+                new QuoteJsonWriter(objectMapper), registry,
+                1_048_576, 60_000);
+    }
+
+    private static QuoteEntity quote() {
+        OffsetDateTime now = OffsetDateTime.parse("2026-02-23T12:00:00Z");
+        QuoteEntity quote = new QuoteEntity();
+        quote.setId(UUID.fromString("b0db4b2c-9de2-4c23-8f22-4adf4d62c3fa"));
+        quote.setDocumentId("DOC-2026-000001");
+        quote.setStatus("ISSUED");
+        quote.setCurrency("CLP");
+        quote.setCustomerId("CUST-12345");
+        quote.setCreatedAt(now);
+        quote.setUpdatedAt(now);
+        quote.setPayloadJson("{\"channel\":\"test\"}");
+        return quote;
+    }
+}
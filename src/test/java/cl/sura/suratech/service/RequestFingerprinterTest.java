@@ -0,0 +1,83 @@
+package cl.sura.suratech.service;
+
+import cl.sura.suratech.dto.QuoteCreateRequest;
+import cl.sura.suratech.service.impl.RequestFingerprinter;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cl.sura.suratech.testsupport.QuoteTestData.validCreateRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestFingerprinterTest {
+
+    private final RequestFingerprinter fingerprinter = new RequestFingerprinter();
+
+    @Test
+    void fingerprint_whenMetadataInsertionOrderDiffers_thenSameFingerprint() {
+        Map<String, String> ab = new LinkedHashMap<>();
+        ab.put("a", "1");
+        ab.put("b", "2");
+        Map<String, String> ba = new LinkedHashMap<>();
+        ba.put("b", "2");
+        ba.put("a", "1");
+
+        assertThat(fingerprinter.fingerprint(withMetadata(ab)))
+                .isEqualTo(fingerprinter.fingerprint(withMetadata(ba)))
+                .hasSize(RequestFingerprinter.FINGERPRINT_BYTES);
+    }
+
+    @Test
+    void fingerprint_whenSameInstantWithDifferentOffset_thenSameFingerprint() {
+        QuoteCreateRequest base = validCreateRequest();
+        QuoteCreateRequest shifted = new QuoteCreateRequest(
+                base.documentId(), base.customer(), base.currency(), base.items(),
+                OffsetDateTime.parse("2026-03-01T09:00:00-03:00"), base.metadata());
+
+        assertThat(fingerprinter.fingerprint(shifted)).isEqualTo(fingerprinter.fingerprint(base));
+    }
+
+    @Test
+    void fingerprint_whenAnyFieldChanges_thenDifferentFingerprint() {
+        QuoteCreateRequest base = validCreateRequest();
+        QuoteCreateRequest.Item item = base.items().get(0);
+        QuoteCreateRequest moreQuantity = new QuoteCreateRequest(
+                base.documentId(), base.customer(), base.currency(),
+                List.of(new QuoteCreateRequest.Item(item.sku(), item.name(), item.quantity() + 1, item.unitPrice(), item.taxRate())),
+                base.expiresAt(), base.metadata());
+
+        assertThat(fingerprinter.fingerprint(moreQuantity)).isNotEqualTo(fingerprinter.fingerprint(base));
+    }
+
+    @Test
+    void fingerprint_whenCharactersShiftBetweenAdjacentFields_thenDifferentFingerprint() {
+        QuoteCreateRequest base = validCreateRequest();
+        QuoteCreateRequest left = new QuoteCreateRequest(
+                base.documentId(), new QuoteCreateRequest.Customer("AB", "c@example.com"),
+                base.currency(), base.items(), base.expiresAt(), base.metadata());
+        QuoteCreateRequest right = new QuoteCreateRequest(
+                base.documentId(), new QuoteCreateRequest.Customer("A", "Bc@example.com"),
+                base.currency(), base.items(), base.expiresAt(), base.metadata());
+
+        assertThat(fingerprinter.fingerprint(left)).isNotEqualTo(fingerprinter.fingerprint(right));
+    }
+
+    @Test
+    void fingerprint_whenCalledRepeatedly_thenPooledDigestIsResetBetweenCalls() {
+        QuoteCreateRequest request = validCreateRequest();
+        byte[] first = fingerprinter.fingerprint(request);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(fingerprinter.fingerprint(request)).isEqualTo(first);
+        }
+    }
+
+    private static QuoteCreateRequest withMetadata(Map<String, String> metadata) {
+        QuoteCreateRequest base = validCreateRequest();
+        return new QuoteCreateRequest(
+                base.documentId(), base.customer(), base.currency(), base.items(), base.expiresAt(), metadata);
+    }
+}
@@ -2,6 +2,7 @@ package cl.sura.suratech.testsupport;
 
 import cl.sura.suratech.dto.QuoteCreateRequest;
 import cl.sura.suratech.dto.QuoteResponse;
+import cl.sura.suratech.dto.RawJson;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -45,7 +46,7 @@ public final class QuoteTestData {
                 new QuoteResponse.Totals(20_000.0, 3_800.0, 23_800.0),
                 OffsetDateTime.parse("2026-03-01T12:00:00Z"),
                 createdAt,
-                Map.of("channel", "test")
+                new RawJson("{\"channel\":\"test\"}")
         );
     }
 